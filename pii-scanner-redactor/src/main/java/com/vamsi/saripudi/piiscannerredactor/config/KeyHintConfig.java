@@ -0,0 +1,18 @@
+package com.vamsi.saripudi.piiscannerredactor.config;
+
+import com.vamsi.saripudi.piiscannerredactor.pipeline.KeyHintDictionary;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(KeyHintProperties.class)
+public class KeyHintConfig {
+
+    @Bean
+    public KeyHintDictionary keyHintDictionary(KeyHintProperties props) {
+        if (!props.isEnabled()) return KeyHintDictionary.EMPTY;
+        return KeyHintDictionary.of(props.getClassify(), props.getSkip(), props.getBoost(),
+                props.getClassifyScore(), props.getBoostScore());
+    }
+}
@@ -0,0 +1,33 @@
+package com.vamsi.saripudi.piiscannerredactor.config;
+
+import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/** scan.keys: the key=value dictionary behind {@link com.vamsi.saripudi.piiscannerredactor.pipeline.KeyHintDictionary}. */
+@ConfigurationProperties(prefix = "scan.keys")
+public class KeyHintProperties {
+    private boolean enabled = true;
+    private Map<MatchType, List<String>> classify = new EnumMap<>(MatchType.class);
+    private List<String> skip = new ArrayList<>();
+    private Map<MatchType, List<String>> boost = new EnumMap<>(MatchType.class);
+    private double classifyScore = 5.0;
+    private double boostScore = 1.0;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public Map<MatchType, List<String>> getClassify() { return classify; }
+    public void setClassify(Map<MatchType, List<String>> classify) { this.classify = classify; }
+    public List<String> getSkip() { return skip; }
+    public void setSkip(List<String> skip) { this.skip = skip; }
+    public Map<MatchType, List<String>> getBoost() { return boost; }
+    public void setBoost(Map<MatchType, List<String>> boost) { this.boost = boost; }
+    public double getClassifyScore() { return classifyScore; }
+    public void setClassifyScore(double classifyScore) { this.classifyScore = classifyScore; }
+    public double getBoostScore() { return boostScore; }
+    public void setBoostScore(double boostScore) { this.boostScore = boostScore; }
+}
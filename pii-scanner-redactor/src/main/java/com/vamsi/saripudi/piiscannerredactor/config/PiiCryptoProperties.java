@@ -1,14 +1,27 @@
 package com.vamsi.saripudi.piiscannerredactor.config;
 
-
+import com.vamsi.saripudi.piiscannerredactor.encryption.TokenCache;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @ConfigurationProperties(prefix = "pii")
 public class PiiCryptoProperties {
     public static class Enc {
         private String keyB64;
+        private boolean deterministic;
+        private Cache cache = new Cache();
         public String getKeyB64() { return keyB64; }
         public void setKeyB64(String keyB64) { this.keyB64 = keyB64; }
+        public boolean isDeterministic() { return deterministic; }
+        public void setDeterministic(boolean deterministic) { this.deterministic = deterministic; }
+        public Cache getCache() { return cache; }
+    }
+    public static class Cache {
+        private int maxEntries = 65536;
+        private TokenCache.Eviction eviction = TokenCache.Eviction.LRU;
+        public int getMaxEntries() { return maxEntries; }
+        public void setMaxEntries(int maxEntries) { this.maxEntries = maxEntries; }
+        public TokenCache.Eviction getEviction() { return eviction; }
+        public void setEviction(TokenCache.Eviction eviction) { this.eviction = eviction; }
     }
     public static class Token {
         private String prefix = "PIIENC";
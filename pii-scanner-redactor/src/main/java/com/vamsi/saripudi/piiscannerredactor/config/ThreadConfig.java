@@ -6,6 +6,7 @@ import org.springframework.context.annotation.Configuration;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 
 @Configuration
 public class ThreadConfig {
@@ -17,4 +18,16 @@ public class ThreadConfig {
     public ExecutorService fileExecutor() {
         return Executors.newFixedThreadPool(threadCount);
     }
+
+    // Chunks of one large file (see ScannerService.processChunked)
+    @Bean(name = "chunkPool", destroyMethod = "shutdown")
+    public ForkJoinPool chunkPool() {
+        return new ForkJoinPool(threadCount);
+    }
+
+    // Directory listing for FileWalker.walk (I/O bound: may exceed the core count on network mounts)
+    @Bean(name = "walkPool", destroyMethod = "shutdown")
+    public ForkJoinPool walkPool(@Value("${scan.walk.threads:4}") int walkThreads) {
+        return new ForkJoinPool(Math.max(1, walkThreads));
+    }
 }
@@ -2,11 +2,14 @@ package com.vamsi.saripudi.piiscannerredactor.controller.Invokation;
 
 import com.vamsi.saripudi.piiscannerredactor.controller.Invokation.model.ScanRequest;
 import com.vamsi.saripudi.piiscannerredactor.controller.Invokation.model.ScanResponse;
+import com.vamsi.saripudi.piiscannerredactor.model.FindingsFormat;
 import com.vamsi.saripudi.piiscannerredactor.model.JobStatus;
 import com.vamsi.saripudi.piiscannerredactor.model.ScanJob;
+import com.vamsi.saripudi.piiscannerredactor.pipeline.RedactionPolicy;
 import com.vamsi.saripudi.piiscannerredactor.service.ScanOrchestrator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -32,9 +35,13 @@ public class ScanController {
     @PostMapping("/submit")
     public ResponseEntity<ScanResponse> submitScan(@RequestBody ScanRequest scanRequest){
         List<Path> paths;
+        FindingsFormat findingsFormat;
+        RedactionPolicy redactionPolicy;
         try{
             Path inputPath = Path.of(scanRequest.getInputPath());
              paths= List.of(inputPath);
+            findingsFormat = FindingsFormat.parse(scanRequest.getFindingsFormat());
+            redactionPolicy = RedactionPolicy.parse(scanRequest.getRedactionPolicy());
         }
         catch(Exception e){
             ScanResponse scanResponse = ScanResponse.builder()
@@ -43,7 +50,7 @@ public class ScanController {
             return ResponseEntity.badRequest().body(scanResponse);
         }
         try{
-            ScanJob scanJob = scanOrchestrator.submit(paths);
+            ScanJob scanJob = scanOrchestrator.submit(paths, findingsFormat, scanRequest.getIncremental(), redactionPolicy);
             if(scanJob.getStatus() == JobStatus.COMPLETED || scanJob.getStatus() == JobStatus.RUNNING ||
             scanJob.getStatus() == JobStatus.PENDING){
                 ScanResponse scanResponse = ScanResponse.builder()
@@ -63,4 +70,43 @@ public class ScanController {
         return ResponseEntity.notFound().build();
 //        (ScanResponse.builder().message("Not Found").build());
     }
+
+    /** Follow a log directory: appended lines are scanned and redacted until the job is cancelled. */
+    @PostMapping("/watch")
+    public ResponseEntity<ScanResponse> watch(@RequestBody ScanRequest scanRequest) {
+        ScanJob scanJob;
+        try {
+            Path dir = Path.of(scanRequest.getInputPath());
+            scanJob = scanOrchestrator.watch(dir, FindingsFormat.parse(scanRequest.getFindingsFormat()),
+                    RedactionPolicy.parse(scanRequest.getRedactionPolicy()));
+        }
+        catch (IOException e) {
+            return ResponseEntity.internalServerError().body(ScanResponse.builder()
+                    .message("Internal Server Error: " + e.getMessage())
+                    .build());
+        }
+        catch (Exception e) {
+            return ResponseEntity.badRequest().body(ScanResponse.builder()
+                    .message("Bad Request: " + e.getMessage())
+                    .build());
+        }
+        return ResponseEntity.ok(ScanResponse.builder()
+                .message("Watching " + scanRequest.getInputPath())
+                .jobId(scanJob.getId())
+                .status(scanJob.getStatus())
+                .build());
+    }
+
+    /** Stop a scan or watch job; outputs written so far are kept. */
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<ScanResponse> cancel(@PathVariable("id") String id) {
+        JobStatus status = scanOrchestrator.statusOf(id);
+        if (status == null) return ResponseEntity.notFound().build();
+        scanOrchestrator.cancel(id);
+        return ResponseEntity.ok(ScanResponse.builder()
+                .message("Cancel requested")
+                .jobId(id)
+                .status(status)
+                .build());
+    }
 }
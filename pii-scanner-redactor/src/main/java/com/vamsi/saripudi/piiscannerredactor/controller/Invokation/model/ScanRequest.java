@@ -4,9 +4,21 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Builder;
 import lombok.Data;
 
+import java.util.Map;
+
 @Data
 @Builder
 public class ScanRequest {
     @JsonProperty("input_path")
     private String inputPath;
+    // csv | jsonl | both; omitted = server default (scan.findings.format)
+    @JsonProperty("findings_format")
+    private String findingsFormat;
+    // reuse results of files unchanged since the last incremental job over the same input; omitted = scan.incremental.enabled
+    @JsonProperty("incremental")
+    private Boolean incremental;
+    // match type (or "default") -> enc | mask | tag | remove | hmac, e.g. {"default": "mask", "EMAIL": "hmac"};
+    // omitted = scan.redact.policy; types left out get "default" (enc if that is left out too)
+    @JsonProperty("redaction_policy")
+    private Map<String, String> redactionPolicy;
 }
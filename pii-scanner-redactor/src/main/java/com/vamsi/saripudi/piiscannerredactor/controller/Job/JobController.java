@@ -1,7 +1,12 @@
 package com.vamsi.saripudi.piiscannerredactor.controller.Job;
 
+import com.vamsi.saripudi.piiscannerredactor.controller.Job.model.GetFindingsResponse;
 import com.vamsi.saripudi.piiscannerredactor.controller.Job.model.GetJobResponse;
 import com.vamsi.saripudi.piiscannerredactor.controller.Job.model.GetPathResponse;
+import com.vamsi.saripudi.piiscannerredactor.model.FindingsPage;
+import com.vamsi.saripudi.piiscannerredactor.model.FindingsQuery;
+import com.vamsi.saripudi.piiscannerredactor.model.JobStatus;
+import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
 import com.vamsi.saripudi.piiscannerredactor.model.ScanJob;
 import com.vamsi.saripudi.piiscannerredactor.service.JobRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,13 +17,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Locale;
 import java.util.Optional;
 
 @RestController
 @RequestMapping("/job")
 public class JobController {
+    private static final int MAX_FINDINGS_PAGE = 1000;
+
     @Autowired
     private JobRegistry jobRegistry;
 
@@ -88,4 +97,64 @@ public class JobController {
            return ResponseEntity.status(500).build();
        }
     }
+
+    /** Filtered, paginated findings served from the job's findings.bin. */
+    @GetMapping("/{id}/findings")
+    public ResponseEntity<GetFindingsResponse> getFindings(@PathVariable String id,
+                                                           @RequestParam(required = false) String type,
+                                                           @RequestParam(required = false) String file,
+                                                           @RequestParam(name = "from_line", required = false) Integer fromLine,
+                                                           @RequestParam(name = "to_line", required = false) Integer toLine,
+                                                           @RequestParam(defaultValue = "0") long offset,
+                                                           @RequestParam(defaultValue = "100") int limit){
+        FindingsQuery query;
+        try{
+            if (offset < 0 || limit <= 0 || limit > MAX_FINDINGS_PAGE) {
+                throw new IllegalArgumentException("offset must be >= 0 and limit in 1.." + MAX_FINDINGS_PAGE);
+            }
+            query = FindingsQuery.builder()
+                    .type(type == null || type.isBlank() ? null : MatchType.valueOf(type.trim().toUpperCase(Locale.ROOT)))
+                    .file(file == null || file.isBlank() ? null : file)
+                    .fromLine(fromLine)
+                    .toLine(toLine)
+                    .offset(offset)
+                    .limit(limit)
+                    .build();
+        }
+        catch(IllegalArgumentException e){
+            return ResponseEntity.badRequest().body(GetFindingsResponse.builder()
+                    .message("Bad Request: " + e.getMessage())
+                    .build());
+        }
+
+        // findings.bin only becomes readable once the job has closed it
+        String lookupId = id.startsWith("job_") ? id.substring("job_".length()) : id;
+        Optional<JobStatus> status = jobRegistry.get(lookupId).map(ScanJob::getStatus);
+        if (status.isPresent() && (status.get() == JobStatus.PENDING || status.get() == JobStatus.RUNNING)) {
+            return ResponseEntity.status(409).body(GetFindingsResponse.builder()
+                    .jobId(lookupId)
+                    .message("Job Still Running")
+                    .build());
+        }
+        try{
+            FindingsPage page = jobService.queryFindings(id, query);
+            if (page == null) {
+                return ResponseEntity.status(404).body(GetFindingsResponse.builder()
+                        .message("Findings Not Found")
+                        .build());
+            }
+            return ResponseEntity.ok(GetFindingsResponse.builder()
+                    .jobId(lookupId)
+                    .findings(page.getFindings())
+                    .offset(page.getOffset())
+                    .limit(limit)
+                    .hasMore(page.isHasMore())
+                    .total(page.getTotal())
+                    .message("Findings Found")
+                    .build());
+        }
+        catch(Exception e){
+            return ResponseEntity.status(500).build();
+        }
+    }
 }
@@ -1,10 +1,14 @@
 package com.vamsi.saripudi.piiscannerredactor.controller.Job;
 
+import com.vamsi.saripudi.piiscannerredactor.model.FindingsPage;
+import com.vamsi.saripudi.piiscannerredactor.model.FindingsQuery;
+import com.vamsi.saripudi.piiscannerredactor.service.FindingsReader;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -48,4 +52,21 @@ public class JobService {
 
         return null;
     }
-}
\ No newline at end of file
+
+    /**
+     * Runs a query against ./jobs/job_<id>/findings.bin without loading the file.
+     * Returns null if the job has no binary findings.
+     */
+    public FindingsPage queryFindings(String id, FindingsQuery query) throws IOException {
+        if (id == null || id.isBlank()) return null;
+
+        String lookupId = id.startsWith("job_") ? id.substring("job_".length()) : id;
+        Path cwd = Paths.get(System.getProperty("user.dir"));
+        Path findingsBin = cwd.resolve("jobs").resolve("job_" + lookupId).resolve("findings.bin");
+        if (!Files.exists(findingsBin)) return null;
+
+        try (FindingsReader reader = FindingsReader.open(findingsBin)) {
+            return reader.query(query);
+        }
+    }
+}
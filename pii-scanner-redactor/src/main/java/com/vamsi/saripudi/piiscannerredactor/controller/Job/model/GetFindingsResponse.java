@@ -0,0 +1,36 @@
+package com.vamsi.saripudi.piiscannerredactor.controller.Job.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.vamsi.saripudi.piiscannerredactor.model.DetectionResult;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GetFindingsResponse {
+    @JsonProperty("job_id")
+    public String jobId;
+
+    @JsonProperty("findings")
+    public List<DetectionResult> findings;
+
+    @JsonProperty("offset")
+    public Long offset;
+
+    @JsonProperty("limit")
+    public Integer limit;
+
+    @JsonProperty("has_more")
+    public Boolean hasMore;
+
+    // only when the index answers it without a scan (no file / line filter)
+    @JsonProperty("total")
+    public Long total;
+
+    @JsonProperty("message")
+    public String message;
+}
@@ -1,50 +1,76 @@
 package com.vamsi.saripudi.piiscannerredactor.encryption;
 import lombok.Getter;
-import org.springframework.stereotype.Component;
-import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
+import javax.crypto.Mac;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
-import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Base64;
 
-@Getter
+/**
+ * AES-GCM tokens: base64url(iv || ciphertext || tag), unpadded.
+ *
+ * Every thread gets its own {@link Encryptor}: a Cipher looked up once, plaintext and output
+ * buffers that only grow, and its own IVs. An IV is a random 64-bit prefix drawn when the
+ * encryptor is created, followed by a 32-bit counter; the prefix is redrawn before the counter
+ * wraps. IVs never repeat within a thread, and threads (or runs with the same key) collide only
+ * if two random 64-bit prefixes do. The shared SecureRandom is touched once per prefix, not once
+ * per token.
+ *
+ * {@link Encryptor#encryptDeterministic} instead takes the IV from the plaintext, SIV-style: the
+ * first 12 bytes of HMAC-SHA256(context || 0 || value) under a key derived from the AES key. Equal
+ * (context, value) pairs get equal tokens; distinct ones get distinct IVs unless the 96-bit MACs
+ * collide. Tokens decrypt the same way in both modes.
+ *
+ * {@link Encryptor#appendPseudonym} is the non-reversible variant: base64url of the first 12 bytes
+ * of HMAC-SHA256(context || 0 || value) under another derived key.
+ */
 public class CryptoService {
     private static final int GCM_TAG_BITS = 128;
+    private static final int GCM_TAG_BYTES = GCM_TAG_BITS / 8;
     private static final int GCM_IV_BYTES = 12;
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final String HMAC = "HmacSHA256";
+    private static final char[] BASE64_URL =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
 
+    @Getter
     private final SecretKey key;
+    private final SecretKey ivKey;            // deterministic IVs
+    private final SecretKey pseudonymKey;     // HMAC pseudonyms
     private final SecureRandom rng = new SecureRandom();
+    private final ThreadLocal<Encryptor> encryptors = ThreadLocal.withInitial(Encryptor::new);
 
     public CryptoService(byte[] rawKey) {
         if (rawKey == null || (rawKey.length != 16 && rawKey.length != 24 && rawKey.length != 32)) {
             throw new IllegalArgumentException("AES key must be 16/24/32 bytes");
         }
         this.key = new SecretKeySpec(rawKey, "AES");
+        try {
+            Mac derive = Mac.getInstance(HMAC);
+            derive.init(new SecretKeySpec(rawKey, HMAC));
+            this.ivKey = new SecretKeySpec(derive.doFinal("pii-scanner deterministic iv".getBytes(StandardCharsets.US_ASCII)), HMAC);
+            this.pseudonymKey = new SecretKeySpec(derive.doFinal("pii-scanner pseudonym".getBytes(StandardCharsets.US_ASCII)), HMAC);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
     }
 
     /** Encrypts plaintext and returns base64url(iv||ciphertext). */
     public String encrypt(String plaintext, String aad) {
-        try {
-            byte[] iv = new byte[GCM_IV_BYTES];
-            rng.nextBytes(iv);
-
-            Cipher c = Cipher.getInstance("AES/GCM/NoPadding");
-            c.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_BITS, iv));
-//            if (aad != null && !aad.isEmpty()) {
-//                c.updateAAD(aad.getBytes(StandardCharsets.UTF_8));
-//            }
-            byte[] ct = c.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+        StringBuilder sb = new StringBuilder(tokenLength(plaintext.length()));
+        encryptor().encrypt(plaintext, 0, plaintext.length(), sb);
+        return sb.toString();
+    }
 
-            byte[] packed = ByteBuffer.allocate(iv.length + ct.length).put(iv).put(ct).array();
-            return Base64.getUrlEncoder().withoutPadding().encodeToString(packed);
-        } catch (Exception e) {
-            throw new IllegalStateException("AES-GCM encryption failed", e);
-        }
+    /** This thread's encryptor; fetch it once to encrypt all tokens of a line. */
+    public Encryptor encryptor() {
+        return encryptors.get();
     }
 
     /** Decrypts base64url(iv||ciphertext). */
@@ -53,19 +79,167 @@ public class CryptoService {
             byte[] packed = Base64.getUrlDecoder().decode(token);
             if (packed.length < GCM_IV_BYTES + 1) throw new IllegalArgumentException("Bad token");
 
-            byte[] iv = new byte[GCM_IV_BYTES];
-            byte[] ct = new byte[packed.length - GCM_IV_BYTES];
-            System.arraycopy(packed, 0, iv, 0, GCM_IV_BYTES);
-            System.arraycopy(packed, GCM_IV_BYTES, ct, 0, ct.length);
-
-            Cipher c = Cipher.getInstance("AES/GCM/NoPadding");
-            c.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_BITS, iv));
+            Cipher c = encryptor().decryptCipher();
+            c.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_BITS, packed, 0, GCM_IV_BYTES));
 //            if (aad != null && !aad.isEmpty()) {
 //                c.updateAAD(aad.getBytes(StandardCharsets.UTF_8));
 //            }
-            return new String(c.doFinal(ct), StandardCharsets.UTF_8);
+            return new String(c.doFinal(packed, GCM_IV_BYTES, packed.length - GCM_IV_BYTES), StandardCharsets.UTF_8);
         } catch (Exception e) {
             throw new IllegalStateException("AES-GCM decryption failed", e);
         }
     }
+
+    // chars of base64url(iv||ct||tag) for an ASCII plaintext of n chars
+    private static int tokenLength(int n) {
+        return ((GCM_IV_BYTES + n + GCM_TAG_BYTES) * 4 + 2) / 3;
+    }
+
+    /** One thread's cipher, IV counter and buffers. Not thread-safe: use it from the thread that fetched it. */
+    public final class Encryptor {
+        private final Cipher cipher;
+        private Cipher decrypt;           // only if this thread decrypts
+        private Mac mac;                  // only if this thread encrypts deterministically
+        private Mac pseudonyms;           // only if this thread writes HMAC pseudonyms
+        private final byte[] iv = new byte[GCM_IV_BYTES];
+        private final byte[] derivedIv = new byte[GCM_IV_BYTES];
+        private int counter;              // IV bytes 8..11; a new prefix when it comes back to 0
+        private int lastDerivedLen = -1;  // out holds the token for derivedIv (a Cipher refuses the same IV twice in a row)
+        private byte[] in = new byte[256];
+        private byte[] out = new byte[256 + GCM_IV_BYTES + GCM_TAG_BYTES];
+
+        private Encryptor() {
+            try {
+                this.cipher = Cipher.getInstance(TRANSFORMATION);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("AES-GCM not available", e);
+            }
+            newPrefix();
+        }
+
+        /** Appends the token for plaintext [from, to) of {@code s} to {@code sb}. */
+        public void encrypt(CharSequence s, int from, int to, StringBuilder sb) {
+            int n = utf8(s, from, to);
+            nextIv();
+            lastDerivedLen = -1;
+            seal(iv, n, sb);
+        }
+
+        /** Like {@link #encrypt}, but the same context (ASCII) and plaintext always give the same token. */
+        public void encryptDeterministic(String context, CharSequence s, int from, int to, StringBuilder sb) {
+            int n = utf8(s, from, to);
+            try {
+                if (mac == null) mac = mac(ivKey);
+                byte[] tag = hmac(mac, context, n);
+                if (lastDerivedLen >= 0 && Arrays.equals(tag, 0, GCM_IV_BYTES, derivedIv, 0, GCM_IV_BYTES)) {
+                    base64Url(out, lastDerivedLen, sb);          // same value as the previous token
+                    return;
+                }
+                System.arraycopy(tag, 0, derivedIv, 0, GCM_IV_BYTES);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("deterministic IV failed", e);
+            }
+            lastDerivedLen = seal(derivedIv, n, sb);
+        }
+
+        /** Appends the 16-char HMAC pseudonym of context (ASCII) and plaintext [from, to) of {@code s}. */
+        public void appendPseudonym(String context, CharSequence s, int from, int to, StringBuilder sb) {
+            int n = utf8(s, from, to);
+            try {
+                if (pseudonyms == null) pseudonyms = mac(pseudonymKey);
+                base64Url(hmac(pseudonyms, context, n), GCM_IV_BYTES, sb);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC pseudonym failed", e);
+            }
+        }
+
+        // HMAC(context || 0 || in[0, n))
+        private byte[] hmac(Mac m, String context, int n) {
+            for (int i = 0; i < context.length(); i++) m.update((byte) context.charAt(i));
+            m.update((byte) 0);
+            m.update(in, 0, n);
+            return m.doFinal();
+        }
+
+        private Mac mac(SecretKey k) throws GeneralSecurityException {
+            Mac m = Mac.getInstance(HMAC);
+            m.init(k);
+            return m;
+        }
+
+        // encrypts in[0, n) under iv, appends base64url(iv || ct || tag); returns the byte count in out
+        private int seal(byte[] iv, int n, StringBuilder sb) {
+            try {
+                cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_BITS, iv));
+                System.arraycopy(iv, 0, out, 0, GCM_IV_BYTES);
+                int len = GCM_IV_BYTES + cipher.doFinal(in, 0, n, out, GCM_IV_BYTES);
+                base64Url(out, len, sb);
+                return len;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("AES-GCM encryption failed", e);
+            }
+        }
+
+        private Cipher decryptCipher() throws GeneralSecurityException {
+            if (decrypt == null) decrypt = Cipher.getInstance(TRANSFORMATION);
+            return decrypt;
+        }
+
+        private void nextIv() {
+            if (++counter == 0) newPrefix();
+            iv[8] = (byte) (counter >>> 24);
+            iv[9] = (byte) (counter >>> 16);
+            iv[10] = (byte) (counter >>> 8);
+            iv[11] = (byte) counter;
+        }
+
+        private void newPrefix() {
+            byte[] prefix = new byte[8];
+            rng.nextBytes(prefix);
+            System.arraycopy(prefix, 0, iv, 0, 8);
+            counter = 0;
+        }
+
+        // plaintext [from, to) as UTF-8 into in; returns the byte count
+        private int utf8(CharSequence s, int from, int to) {
+            int n = to - from;
+            ensure(n);
+            int i = 0;
+            for (; i < n; i++) {
+                char c = s.charAt(from + i);
+                if (c >= 0x80) break;
+                in[i] = (byte) c;
+            }
+            if (i == n) return n;
+            byte[] rest = s.subSequence(from + i, to).toString().getBytes(StandardCharsets.UTF_8);
+            ensure(i + rest.length);
+            System.arraycopy(rest, 0, in, i, rest.length);
+            return i + rest.length;
+        }
+
+        private void ensure(int n) {
+            if (n > in.length) {
+                in = Arrays.copyOf(in, Math.max(n, in.length * 2));
+                out = Arrays.copyOf(out, in.length + GCM_IV_BYTES + GCM_TAG_BYTES);
+            }
+        }
+    }
+
+    // base64url without padding, straight into sb
+    private static void base64Url(byte[] b, int len, StringBuilder sb) {
+        int i = 0;
+        for (; i + 3 <= len; i += 3) {
+            int v = (b[i] & 0xff) << 16 | (b[i + 1] & 0xff) << 8 | (b[i + 2] & 0xff);
+            sb.append(BASE64_URL[v >>> 18]).append(BASE64_URL[(v >>> 12) & 63])
+              .append(BASE64_URL[(v >>> 6) & 63]).append(BASE64_URL[v & 63]);
+        }
+        int rest = len - i;
+        if (rest == 1) {
+            int v = (b[i] & 0xff) << 16;
+            sb.append(BASE64_URL[v >>> 18]).append(BASE64_URL[(v >>> 12) & 63]);
+        } else if (rest == 2) {
+            int v = (b[i] & 0xff) << 16 | (b[i + 1] & 0xff) << 8;
+            sb.append(BASE64_URL[v >>> 18]).append(BASE64_URL[(v >>> 12) & 63]).append(BASE64_URL[(v >>> 6) & 63]);
+        }
+    }
 }
@@ -0,0 +1,133 @@
+package com.vamsi.saripudi.piiscannerredactor.encryption;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of finished tokens by (context, value), for deterministic redaction where a value
+ * always gets the same token: a repeat costs a hash lookup instead of a cipher operation.
+ *
+ * Entries are spread over power-of-two segments, each a LinkedHashMap under its own lock that
+ * holds at most its share of {@code maxEntries} and drops its least recently used (LRU) or
+ * oldest (FIFO) entry beyond that. A value is only admitted the second time it misses: each
+ * segment remembers the hashes of recent misses in a small direct-mapped table, so values seen
+ * once (most of a log's long tail) cost neither an insert nor an eviction of something useful.
+ * Lookups count hits and misses into the caller's {@link Stats} (one per file, no shared
+ * counter per token) and into cache-wide totals.
+ */
+public final class TokenCache {
+
+    public enum Eviction { LRU, FIFO }
+
+    /** Hits and misses of one file's lookups; single-threaded. */
+    public static final class Stats {
+        private long hits;
+        private long misses;
+
+        public long hits() { return hits; }
+        public long misses() { return misses; }
+
+        public void add(Stats other) {
+            hits += other.hits;
+            misses += other.misses;
+        }
+    }
+
+    private record Key(String context, String value) {}
+
+    private final Segment[] segments;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TokenCache(int maxEntries, Eviction eviction) {
+        int max = Math.max(1, maxEntries);
+        int n = Math.min(64, Integer.highestOneBit(Math.max(1, max / 256)));   // segments of 256+ entries
+        this.segments = new Segment[n];
+        this.mask = n - 1;
+        int perSegment = (max + n - 1) / n;
+        for (int i = 0; i < n; i++) segments[i] = new Segment(perSegment, eviction == Eviction.LRU, evictions);
+    }
+
+    /** The cached token, or null on a miss (then offer the new token with {@link #put}). */
+    public String get(String context, String value, Stats stats) {
+        Key key = new Key(context, value);
+        Segment s = segment(key);
+        String token;
+        synchronized (s) {
+            token = s.get(key);             // LRU: also moves the entry to the young end
+        }
+        if (token != null) {
+            hits.increment();
+            if (stats != null) stats.hits++;
+        } else {
+            misses.increment();
+            if (stats != null) stats.misses++;
+        }
+        return token;
+    }
+
+    /** Caches the token if (context, value) missed before; a first miss is only remembered. */
+    public void put(String context, String value, String token) {
+        Key key = new Key(context, value);
+        int h = key.hashCode();
+        Segment s = segment(key);
+        synchronized (s) {
+            if (!s.admit(h)) return;
+            s.put(key, token);
+        }
+    }
+
+    public long size() {
+        long n = 0;
+        for (Segment s : segments) {
+            synchronized (s) {
+                n += s.size();
+            }
+        }
+        return n;
+    }
+
+    public long hits() { return hits.sum(); }
+    public long misses() { return misses.sum(); }
+    public long evictions() { return evictions.sum(); }
+
+    private Segment segment(Key key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & mask];
+    }
+
+    private static final class Segment extends LinkedHashMap<Key, String> {
+        private final int capacity;
+        private final LongAdder evictions;
+        private final int[] missed;         // doorkeeper: hash of a recent first miss per slot (0 = none)
+
+        Segment(int capacity, boolean accessOrder, LongAdder evictions) {
+            super(16, 0.75f, accessOrder);
+            this.capacity = capacity;
+            this.evictions = evictions;
+            this.missed = new int[Integer.highestOneBit(Math.max(1, capacity)) * 2];
+        }
+
+        // second miss: admit; first miss: remember it (overwriting whatever missed there before)
+        boolean admit(int h) {
+            int fp = h == 0 ? 1 : h;
+            int slot = (h * 0x9E3779B9 >>> 7) & (missed.length - 1);
+            if (missed[slot] == fp) {
+                missed[slot] = 0;
+                return true;
+            }
+            missed[slot] = fp;
+            return false;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, String> eldest) {
+            if (size() <= capacity) return false;
+            evictions.increment();
+            return true;
+        }
+    }
+}
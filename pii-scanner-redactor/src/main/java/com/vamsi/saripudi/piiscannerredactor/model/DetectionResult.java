@@ -1,5 +1,7 @@
 package com.vamsi.saripudi.piiscannerredactor.model;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -15,6 +17,7 @@ import java.nio.file.Path;
 @Builder
 public class DetectionResult {
 
+    @JsonSerialize(using = ToStringSerializer.class)   // plain path, as in findings.csv / .jsonl
     private Path filePath;
     private int line;
     private int startCol;
@@ -4,10 +4,7 @@ import lombok.Builder;
 import lombok.Data;
 
 import java.nio.file.Path;
-import java.util.Collections;
-import java.util.EnumMap;
 import java.util.List;
-import java.util.Map;
 
 @Data
 @Builder
@@ -15,33 +12,58 @@ public final class FileSummary {
     private final Path file;
     private final long bytes;
     private final boolean binary;
-    private final List<DetectionResult> findings;
-    private final String redactedContent;
+    // Columnar; DetectionResult objects are only built by getFindings()
+    private final FindingsBuffer findingsBuffer;
+    // Where the worker streamed the redacted copy (null for binaries / jobs without a redacted root)
+    private final Path redactedFile;
+    // CRC32C of the whole file, taken from the bytes the scan read (-1 = not computed)
+    private final long crc32c;
 
     private FileSummary(Path file, long bytes, boolean binary,
-                        List<DetectionResult> findings, String redactedContent) {
+                        FindingsBuffer findingsBuffer, Path redactedFile, long crc32c) {
         this.file = file;
         this.bytes = Math.max(0L, bytes);
         this.binary = binary;
-        this.findings = findings == null ? List.of() : List.copyOf(findings);
-        this.redactedContent = redactedContent;
+        this.findingsBuffer = findingsBuffer == null ? new FindingsBuffer(file) : findingsBuffer;
+        this.findingsBuffer.trim();     // complete: drop growth slack before it waits for the writer
+        this.redactedFile = redactedFile;
+        this.crc32c = crc32c;
+    }
+
+    public static FileSummary text(Path file, long bytes,
+                                   FindingsBuffer findings,
+                                   Path redactedFile) {
+        return text(file, bytes, findings, redactedFile, -1L);
+    }
+
+    public static FileSummary text(Path file, long bytes,
+                                   FindingsBuffer findings,
+                                   Path redactedFile, long crc32c) {
+        return new FileSummary(file, bytes, false, findings, redactedFile, crc32c);
     }
 
     public static FileSummary text(Path file, long bytes,
                                    List<DetectionResult> findings,
-                                   String redactedContent) {
-        return new FileSummary(file, bytes, false, findings, redactedContent);
+                                   Path redactedFile) {
+        return text(file, bytes, FindingsBuffer.of(file, findings), redactedFile);
     }
 
     public static FileSummary text(Path file,
                                    List<DetectionResult> findings,
-                                   String redactedContent) {
-        return text(file, 0L, findings, redactedContent);
+                                   Path redactedFile) {
+        return text(file, 0L, findings, redactedFile);
     }
 
     public static FileSummary binary(Path file, long bytes) {
-        return new FileSummary(file, bytes, true, List.of(), null);
+        return binary(file, bytes, -1L);
+    }
+
+    public static FileSummary binary(Path file, long bytes, long crc32c) {
+        return new FileSummary(file, bytes, true, null, null, crc32c);
     }
 
-    public int getFindingCount() { return findings.size(); }
+    /** The findings as objects, built on each call. */
+    public List<DetectionResult> getFindings() { return findingsBuffer.toList(); }
+
+    public int getFindingCount() { return findingsBuffer.size(); }
 }
@@ -0,0 +1,202 @@
+package com.vamsi.saripudi.piiscannerredactor.model;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The findings of one file, column by column: line, start, end, type ordinal and score in
+ * primitive arrays, values as UTF-8 [offset, length) in one shared byte heap, the path once.
+ * A finding costs 29 bytes plus its value bytes, against ~90 bytes of DetectionResult, String
+ * and array headers and references (plus the value, padded) as objects.
+ *
+ * DetectionResult objects are built only on request ({@link #get}, {@link #toList}) for the
+ * API and tests; the findings writers read the columns directly. Not thread-safe: one worker
+ * fills it, then it is handed over and only read.
+ */
+public final class FindingsBuffer {
+
+    private static final int[] NO_INTS = new int[0];
+    private static final byte[] NO_BYTES = new byte[0];
+    private static final double[] NO_DOUBLES = new double[0];
+    private static final MatchType[] TYPES = MatchType.values();
+
+    private final Path file;
+    private int size;
+    private int[] line = NO_INTS;
+    private int[] start = NO_INTS;
+    private int[] end = NO_INTS;
+    private byte[] type = NO_BYTES;         // ordinal, -1 = null
+    private double[] score = NO_DOUBLES;
+    private int[] valueOffset = NO_INTS;
+    private int[] valueLength = NO_INTS;    // -1 = null value
+    private byte[] values = NO_BYTES;       // UTF-8
+    private int valuesUsed;
+
+    public FindingsBuffer(Path file) {
+        this.file = file;
+    }
+
+    /** Buffer holding {@code rows}, all taken to belong to {@code file} (the rows' own paths are not kept). */
+    public static FindingsBuffer of(Path file, List<DetectionResult> rows) {
+        FindingsBuffer b = new FindingsBuffer(file);
+        if (rows != null) {
+            for (DetectionResult r : rows) b.add(r);
+        }
+        return b;
+    }
+
+    public Path file() { return file; }
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public int line(int i) { return line[i]; }
+    public int startCol(int i) { return start[i]; }
+    public int endCol(int i) { return end[i]; }
+    public double score(int i) { return score[i]; }
+
+    /** Type ordinal of row i, -1 when it has none. */
+    public int typeOrdinal(int i) { return type[i]; }
+
+    public MatchType type(int i) {
+        return type[i] < 0 ? null : TYPES[type[i]];
+    }
+
+    /** UTF-8 value of row i is {@code utf8()[valueOffset(i) ..+ valueLength(i)]}; length -1 is a null value. */
+    public byte[] utf8() { return values; }
+    public int valueOffset(int i) { return valueOffset[i]; }
+    public int valueLength(int i) { return valueLength[i]; }
+
+    public String value(int i) {
+        int n = valueLength[i];
+        return n < 0 ? null : new String(values, valueOffset[i], n, StandardCharsets.UTF_8);
+    }
+
+    public void add(DetectionResult r) {
+        add(r.getLine(), r.getStartCol(), r.getEndCol(), r.getType(), r.getScore(), r.getValue());
+    }
+
+    public void add(int lineNo, int startCol, int endCol, MatchType t, double s, String value) {
+        int i = row();
+        line[i] = lineNo;
+        start[i] = startCol;
+        end[i] = endCol;
+        type[i] = t == null ? -1 : (byte) t.ordinal();
+        score[i] = s;
+        valueOffset[i] = valuesUsed;
+        valueLength[i] = value == null ? -1 : putUtf8(value);
+    }
+
+    /**
+     * Row whose value is {@code src[startCol, endCol)}, encoded from the source line as it stands
+     * (no value String is needed); {@code typeOrdinal} -1 for none.
+     */
+    public void add(int lineNo, int startCol, int endCol, int typeOrdinal, double s, CharSequence src) {
+        int i = row();
+        line[i] = lineNo;
+        start[i] = startCol;
+        end[i] = endCol;
+        type[i] = (byte) typeOrdinal;
+        score[i] = s;
+        valueOffset[i] = valuesUsed;
+        valueLength[i] = putUtf8(src, startCol, endCol);
+    }
+
+    /** Appends every row of {@code other} with its line shifted by {@code lineShift} (chunk stitching). */
+    public void addAll(FindingsBuffer other, int lineShift) {
+        int n = other.size;
+        if (n == 0) return;
+        reserveRows(n);
+        reserveBytes(other.valuesUsed);
+        for (int j = 0; j < n; j++) line[size + j] = other.line[j] + lineShift;
+        System.arraycopy(other.start, 0, start, size, n);
+        System.arraycopy(other.end, 0, end, size, n);
+        System.arraycopy(other.type, 0, type, size, n);
+        System.arraycopy(other.score, 0, score, size, n);
+        for (int j = 0; j < n; j++) valueOffset[size + j] = other.valueOffset[j] + valuesUsed;
+        System.arraycopy(other.valueLength, 0, valueLength, size, n);
+        System.arraycopy(other.values, 0, values, valuesUsed, other.valuesUsed);
+        size += n;
+        valuesUsed += other.valuesUsed;
+    }
+
+    /** Row i as a new DetectionResult. */
+    public DetectionResult get(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException(i);
+        return DetectionResult.builder()
+                .filePath(file)
+                .line(line[i])
+                .startCol(start[i])
+                .endCol(end[i])
+                .type(type(i))
+                .value(value(i))
+                .score(score[i])
+                .build();
+    }
+
+    /** All rows as new DetectionResults, in order. */
+    public List<DetectionResult> toList() {
+        List<DetectionResult> out = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) out.add(get(i));
+        return out;
+    }
+
+    /** Shrinks the columns and value heap to what is used, once the buffer is complete (it may then wait in the writer queue). */
+    public void trim() {
+        if (line.length > size) {
+            line = Arrays.copyOf(line, size);
+            start = Arrays.copyOf(start, size);
+            end = Arrays.copyOf(end, size);
+            type = Arrays.copyOf(type, size);
+            score = Arrays.copyOf(score, size);
+            valueOffset = Arrays.copyOf(valueOffset, size);
+            valueLength = Arrays.copyOf(valueLength, size);
+        }
+        if (values.length > valuesUsed) values = Arrays.copyOf(values, valuesUsed);
+    }
+
+    /** Index of the next row, growing the columns when full. */
+    private int row() {
+        reserveRows(1);
+        return size++;
+    }
+
+    private void reserveRows(int extra) {
+        if (size + extra <= line.length) return;
+        int n = Math.max(Math.max(16, line.length * 2), size + extra);
+        line = Arrays.copyOf(line, n);
+        start = Arrays.copyOf(start, n);
+        end = Arrays.copyOf(end, n);
+        type = Arrays.copyOf(type, n);
+        score = Arrays.copyOf(score, n);
+        valueOffset = Arrays.copyOf(valueOffset, n);
+        valueLength = Arrays.copyOf(valueLength, n);
+    }
+
+    private int putUtf8(String s) {
+        return putUtf8(s, 0, s.length());
+    }
+
+    // ASCII byte by byte; the first other char sends the rest through the encoder
+    private int putUtf8(CharSequence s, int from, int to) {
+        reserveBytes(to - from);
+        int i = from;
+        for (; i < to; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) break;
+            values[valuesUsed++] = (byte) c;
+        }
+        if (i == to) return to - from;
+        byte[] rest = s.subSequence(i, to).toString().getBytes(StandardCharsets.UTF_8);
+        reserveBytes(rest.length);
+        System.arraycopy(rest, 0, values, valuesUsed, rest.length);
+        valuesUsed += rest.length;
+        return i - from + rest.length;
+    }
+
+    private void reserveBytes(int extra) {
+        if (valuesUsed + extra <= values.length) return;
+        values = Arrays.copyOf(values, Math.max(Math.max(256, values.length * 2), valuesUsed + extra));
+    }
+}
@@ -0,0 +1,28 @@
+package com.vamsi.saripudi.piiscannerredactor.model;
+
+import java.util.Locale;
+
+/** Which findings files a job writes. */
+public enum FindingsFormat {
+    CSV,
+    JSONL,
+    BOTH;
+
+    public boolean writesCsv() {
+        return this != JSONL;
+    }
+
+    public boolean writesJsonl() {
+        return this != CSV;
+    }
+
+    /** Case-insensitive; null or blank means "not specified" and returns null. */
+    public static FindingsFormat parse(String s) {
+        if (s == null || s.isBlank()) return null;
+        try {
+            return valueOf(s.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown findings format '" + s + "' (expected csv, jsonl or both)");
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.vamsi.saripudi.piiscannerredactor.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/** One page of a {@link FindingsQuery}. */
+@Data
+@Builder
+public class FindingsPage {
+    private final List<DetectionResult> findings;
+    private final long offset;
+    private final boolean hasMore;
+    private final Long total;           // matching rows, when known from the index alone
+}
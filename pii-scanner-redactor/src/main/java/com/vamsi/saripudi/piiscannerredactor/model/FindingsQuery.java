@@ -0,0 +1,23 @@
+package com.vamsi.saripudi.piiscannerredactor.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Filter and page over a job's findings. Null filters match everything;
+ * the line range is inclusive.
+ */
+@Data
+@Builder
+public class FindingsQuery {
+    private final MatchType type;
+    private final String file;          // exact path as recorded in the findings
+    private final Integer fromLine;
+    private final Integer toLine;
+    private final long offset;          // matching rows to skip
+    private final int limit;            // max rows to return
+
+    public boolean matchesLine(int line) {
+        return (fromLine == null || line >= fromLine) && (toLine == null || line <= toLine);
+    }
+}
@@ -19,6 +19,13 @@ public class ProcessingStats {
     private final double averageFileProcessingTimeMs;
     private final int threadCount; // Added thread count for parallel processing analysis
     private final long singleThreadTime;
+    private final long regexInvocations;        // pattern evaluations that ran
+    private final long regexInvocationsSkipped; // pattern evaluations avoided by the prefilter
+    private final long tokenCacheHits;          // deterministic redaction: tokens taken from the cache
+    private final long tokenCacheMisses;        // deterministic redaction: tokens encrypted (then cached)
+    private final int inFlight;                 // files submitted to workers but not merged yet
+    private final int skippedFiles;             // incremental: unchanged files whose previous results were reused
+    private final long skippedBytes;
     private double speedUp;
     /**
      * Get completion percentage
@@ -42,6 +49,38 @@ public class ProcessingStats {
         return processedFiles >= totalFiles;
     }
 
+    /**
+     * Files actually scanned (processed minus reused)
+     */
+    public int getScannedFiles() {
+        return processedFiles - skippedFiles;
+    }
+
+    /**
+     * Bytes actually scanned (processed minus reused)
+     */
+    public long getScannedBytes() {
+        return totalBytes - skippedBytes;
+    }
+
+    /**
+     * Share of pattern evaluations the prefilter avoided (0-100)
+     */
+    public double getRegexSkipPercentage() {
+        long total = regexInvocations + regexInvocationsSkipped;
+        if (total <= 0) return 0.0;
+        return (double) regexInvocationsSkipped / total * 100.0;
+    }
+
+    /**
+     * Share of token cache lookups that hit (0-100)
+     */
+    public double getTokenCacheHitPercentage() {
+        long total = tokenCacheHits + tokenCacheMisses;
+        if (total <= 0) return 0.0;
+        return (double) tokenCacheHits / total * 100.0;
+    }
+
     /**
      * Calculate speedup compared to single-threaded execution
      */
@@ -71,10 +110,13 @@ public class ProcessingStats {
     public String toString() {
         return String.format(
             "ProcessingStats{files=%d/%d (%.1f%%), bytes=%.2fMB, time=%.2fs, " +
-            "throughput=%.2f files/s, %.2f MB/s, avgFileTime=%.2fms, threads=%d}",
+            "throughput=%.2f files/s, %.2f MB/s, avgFileTime=%.2fms, threads=%d, inFlight=%d, regexSkipped=%.1f%%, " +
+            "tokenCacheHits=%.1f%%, scanned=%d files/%d bytes, skipped=%d files/%d bytes}",
             processedFiles, totalFiles, getCompletionPercentage(),
             getTotalMegabytes(), totalProcessingTimeSeconds,
-            filesPerSecond, megabytesPerSecond, averageFileProcessingTimeMs, threadCount
+            filesPerSecond, megabytesPerSecond, averageFileProcessingTimeMs, threadCount, inFlight,
+            getRegexSkipPercentage(), getTokenCacheHitPercentage(),
+            getScannedFiles(), getScannedBytes(), skippedFiles, skippedBytes
         );
     }
 }
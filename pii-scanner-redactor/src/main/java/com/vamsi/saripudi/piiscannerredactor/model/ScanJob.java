@@ -1,5 +1,6 @@
 package com.vamsi.saripudi.piiscannerredactor.model;
 
+import com.vamsi.saripudi.piiscannerredactor.pipeline.RedactionPolicy;
 import lombok.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -34,6 +35,18 @@ public class ScanJob {
     private volatile int filesTotal;
     private final AtomicInteger filesScanned = new AtomicInteger(0);
     private final AtomicLong bytesScanned = new AtomicLong(0L);
+    // Incremental jobs: files (and their bytes) whose previous results were reused instead of rescanned
+    private final AtomicInteger filesSkipped = new AtomicInteger(0);
+    private final AtomicLong bytesSkipped = new AtomicLong(0L);
+    // Files handed to a worker but not merged yet (bounded by the scan window)
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+
+    // Prefilter effectiveness: pattern evaluations run vs. skipped (token x type)
+    private final AtomicLong regexInvocations = new AtomicLong(0L);
+    private final AtomicLong regexInvocationsSkipped = new AtomicLong(0L);
+    // Deterministic redaction: tokens served from the token cache vs. encrypted
+    private final AtomicLong tokenCacheHits = new AtomicLong(0L);
+    private final AtomicLong tokenCacheMisses = new AtomicLong(0L);
 
     private final AtomicLong totalProcessingTimeMs = new AtomicLong(0L);
     private final Map<String, Long> fileProcessingTimes = new ConcurrentHashMap<>();
@@ -55,6 +68,16 @@ public class ScanJob {
 
 //    private volatile int threadCount; // Track thread count for speedup calculation
     private Path findingsJsonl;
+    // Columnar store behind /job/{id}/findings; findings.csv is exported from it at the end
+    private Path findingsBin;
+    // Incremental manifest of this job's inputs (null = full scan)
+    private Path manifest;
+    // Watch job: follows a log directory until cancelled (no findings.bin, CSV / JSONL streamed live)
+    private volatile boolean watch;
+    // null = scan.findings.format
+    private volatile FindingsFormat findingsFormat;
+    // null = scan.redact.policy
+    private volatile RedactionPolicy redactionPolicy;
 
     // Optional per-type summary (safe for concurrent updates)
     private final Map<MatchType, AtomicInteger> summaryByType =
@@ -74,6 +97,7 @@ public class ScanJob {
         j.redactedRoot = outputRoot.resolve("redacted");
         j.findingsCsv = outputRoot.resolve("findings.csv");
         j.findingsJsonl = outputRoot.resolve("findings.jsonl");
+        j.findingsBin = outputRoot.resolve("findings.bin");
         j.summaryPath = outputRoot.resolve("summary.json");
 
         if (inputs != null && !inputs.isEmpty()) {
@@ -130,10 +154,34 @@ public class ScanJob {
         if (n > 0) bytesScanned.addAndGet(n);
     }
 
+    public void addRegexInvocations(long run, long skipped) {
+        if (run > 0) regexInvocations.addAndGet(run);
+        if (skipped > 0) regexInvocationsSkipped.addAndGet(skipped);
+    }
+
+    public void addTokenCacheLookups(long hits, long misses) {
+        if (hits > 0) tokenCacheHits.addAndGet(hits);
+        if (misses > 0) tokenCacheMisses.addAndGet(misses);
+    }
+
+    public void addSkipped(long bytes) {
+        filesSkipped.incrementAndGet();
+        if (bytes > 0) bytesSkipped.addAndGet(bytes);
+    }
+
+    public void addInFlight(int delta) {
+        inFlight.addAndGet(delta);
+    }
+
     public int incFilesScanned() {
         return filesScanned.incrementAndGet();
     }
 
+    /** Running total while the walk is still finding files (reports may arrive out of order). */
+    public synchronized void raiseFilesTotal(int total) {
+        if (total > filesTotal) filesTotal = total;
+    }
+
     public void setFilesTotal(int total) {
         this.filesTotal = Math.max(0, total);
     }
@@ -314,6 +362,13 @@ public class ScanJob {
                 .threadCount(threadCount)
                 .singleThreadTime(singleThreadTime)
                 .threadCount(threadCount)
+                .regexInvocations(regexInvocations.get())
+                .regexInvocationsSkipped(regexInvocationsSkipped.get())
+                .tokenCacheHits(tokenCacheHits.get())
+                .tokenCacheMisses(tokenCacheMisses.get())
+                .inFlight(inFlight.get())
+                .skippedFiles(filesSkipped.get())
+                .skippedBytes(bytesSkipped.get())
                 .build();
     }
 }
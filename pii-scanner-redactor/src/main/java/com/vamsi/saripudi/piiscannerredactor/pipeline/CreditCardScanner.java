@@ -0,0 +1,52 @@
+package com.vamsi.saripudi.piiscannerredactor.pipeline;
+
+import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
+
+import static com.vamsi.saripudi.piiscannerredactor.pipeline.SpanScanner.*;
+
+/**
+ * (?<!\d)(?:\d[ -]?){13,19}(?!\d) without java.util.regex; Luhn is checked inline by {@link #isValid}.
+ */
+final class CreditCardScanner implements SpanScanner {
+
+    private static final int MIN_DIGITS = 13;
+    private static final int MAX_DIGITS = 19;
+
+    @Override
+    public MatchType type() {
+        return MatchType.CREDIT_CARD;
+    }
+
+    @Override
+    public int matchAt(CharSequence s, int i) {
+        if (!digitAt(s, i) || digitAt(s, i - 1)) return -1;
+
+        // Greedy pass: digit + optional separator, up to 19 times. Bit k of seps = iteration k+1 took one.
+        int p = i, count = 0, seps = 0;
+        while (count < MAX_DIGITS && digitAt(s, p)) {
+            p++;
+            char c = charAt(s, p);
+            if (c == ' ' || c == '-') {
+                seps |= 1 << count;
+                p++;
+            }
+            count++;
+        }
+
+        // Backtrack the way the regex does until (?!\d) holds: drop the trailing separator, then the last digit
+        for (int k = count; k >= MIN_DIGITS; k--) {
+            if (!digitAt(s, p)) return p;
+            if ((seps & (1 << (k - 1))) != 0) {
+                p--;
+                if (!digitAt(s, p)) return p;
+            }
+            p--;
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean isValid(CharSequence s, int start, int end) {
+        return LuhnValidator.check(s, start, end);
+    }
+}
@@ -0,0 +1,11 @@
+package com.vamsi.saripudi.piiscannerredactor.pipeline;
+
+/**
+ * How the pattern detectors see a line.
+ *  - TOKEN: patterns run per whitespace token (multi-token PII such as "(555) 123-4567" is missed).
+ *  - LINE:  patterns run once over the whole line; tokens are only used for entropy scoring.
+ */
+public enum DetectionMode {
+    TOKEN,
+    LINE
+}
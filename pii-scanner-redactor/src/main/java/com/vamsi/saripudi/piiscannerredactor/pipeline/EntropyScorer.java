@@ -4,9 +4,12 @@ import com.vamsi.saripudi.piiscannerredactor.model.DetectionResult;
 import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
 import com.vamsi.saripudi.piiscannerredactor.util.EntropyUtil;
 import lombok.Data;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 @Data
@@ -17,6 +20,21 @@ public class EntropyScorer {
     private static final double LOW_ENTROPY_THRESHOLD = 2.0;
     private static final double HIGH_ENTROPY_THRESHOLD = 4.5;
 
+    // Shorter tokens cannot reach the high threshold (entropy <= log2 of the distinct char count)
+    private static final int MIN_LENGTH = EntropyUtil.minLengthFor(HIGH_ENTROPY_THRESHOLD);
+
+    // Tokens longer than this are also searched for high-entropy substrings of this length (0 = whole tokens only)
+    private final int window;
+
+    public EntropyScorer() {
+        this(32);
+    }
+
+    @Autowired
+    public EntropyScorer(@Value("${scan.detect.entropy-window:32}") int window) {
+        this.window = window <= 0 ? 0 : Math.max(MIN_LENGTH, window);
+    }
+
     public double score(String s){
         return EntropyUtil.shannonEntropy(s);
     }
@@ -30,21 +48,39 @@ public class EntropyScorer {
     }
 
     public List<DetectionResult> evaluateToken(String token, Path file, int lineNo, int start){
-        double score = score(token);
-        if(score < lowThreshold()){
-            return List.of();
-        }
+        return evaluate(token, 0, token.length(), file, lineNo, start);
+    }
+
+    /** Token [from, to) of a line, by offsets: columns are line columns, the value is only cut out for a finding. */
+    public List<DetectionResult> evaluateToken(CharSequence line, int from, int to, Path file, int lineNo){
+        return evaluate(line, from, to, file, lineNo, 0);
+    }
+
+    private List<DetectionResult> evaluate(CharSequence s, int from, int to, Path file, int lineNo, int shift){
+        int len = to - from;
+        if (len < MIN_LENGTH) return List.of();
+        double score = EntropyUtil.shannonEntropy(s, from, to);
         if(score >= highThreshold()){
-            return List.of(DetectionResult.builder().
-                    filePath(file).
-                    line(lineNo).
-                    startCol(start).
-                    endCol(start + token.length()).
-                    type(MatchType.HIGH_ENTROPY).
-                    value(token).
-                    score(score).
-                    build());
+            return List.of(finding(s, from, to, score, file, lineNo, shift));
         }
-        return List.of();
+        if (window == 0 || len <= window) return List.of();
+
+        // The token as a whole is diluted (a secret inside a URL or query string): look for dense windows
+        List<DetectionResult> out = new ArrayList<>(1);
+        EntropyUtil.highEntropyWindows(s, from, to, window, highThreshold(),
+                (ws, we, best) -> out.add(finding(s, ws, we, best, file, lineNo, shift)));
+        return out;
+    }
+
+    private static DetectionResult finding(CharSequence s, int from, int to, double score, Path file, int lineNo, int shift) {
+        return DetectionResult.builder().
+                filePath(file).
+                line(lineNo).
+                startCol(shift + from).
+                endCol(shift + to).
+                type(MatchType.HIGH_ENTROPY).
+                value(s.subSequence(from, to).toString()).
+                score(score).
+                build();
     }
 }
@@ -0,0 +1,64 @@
+package com.vamsi.saripudi.piiscannerredactor.pipeline;
+
+import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
+
+import static com.vamsi.saripudi.piiscannerredactor.pipeline.SpanScanner.*;
+
+/**
+ * Dotted quad with 0-255 octets and no leading zeros, word-bounded; 0.0.0.0 and
+ * 255.255.255.255 are rejected by {@link #isValid}.
+ */
+final class Ipv4Scanner implements SpanScanner {
+
+    @Override
+    public MatchType type() {
+        return MatchType.IPV4;
+    }
+
+    @Override
+    public int matchAt(CharSequence s, int i) {
+        if (wordAt(s, i - 1)) return -1;
+        int p = i;
+        for (int octet = 0; octet < 4; octet++) {
+            int len = octetLength(s, p);
+            if (len == 0) return -1;
+            p += len;
+            if (octet < 3) {
+                if (charAt(s, p) != '.') return -1;
+                p++;
+            }
+        }
+        return wordAt(s, p) ? -1 : p;
+    }
+
+    @Override
+    public boolean isValid(CharSequence s, int start, int end) {
+        int len = end - start;
+        if (len == 7) return !sameAs(s, start, "0.0.0.0");
+        if (len == 15) return !sameAs(s, start, "255.255.255.255");
+        return true;
+    }
+
+    /**
+     * Length of the octet at p, or 0. The octet is the whole digit run: the pattern's
+     * alternatives only consume digits and must be followed by '.' or a non-word char.
+     */
+    private static int octetLength(CharSequence s, int p) {
+        int len = 0;
+        while (len < 4 && digitAt(s, p + len)) len++;
+        if (len == 0 || len == 4) return 0;
+        if (len > 1 && s.charAt(p) == '0') return 0;
+        if (len == 3) {
+            int v = (s.charAt(p) - '0') * 100 + (s.charAt(p + 1) - '0') * 10 + (s.charAt(p + 2) - '0');
+            if (v > 255) return 0;
+        }
+        return len;
+    }
+
+    private static boolean sameAs(CharSequence s, int start, String literal) {
+        for (int k = 0; k < literal.length(); k++) {
+            if (s.charAt(start + k) != literal.charAt(k)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,172 @@
+package com.vamsi.saripudi.piiscannerredactor.pipeline;
+
+import com.vamsi.saripudi.piiscannerredactor.model.DetectionResult;
+import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What the key of a key=value token says about its value.
+ *
+ * CLASSIFY keys (password, token, Authorization, ...) make the value a finding of the key's
+ * type without running any detector; SKIP keys (level, service, ts, ...) mean the value is not
+ * scanned; BOOST keys raise the score of findings of the key's type. Keys compare
+ * case-insensitively with '-' equal to '_'. A key that is not in the dictionary is also tried
+ * by its trailing segments after '_', '-' or '.' (db_password, x-api-key, spring.mail.password),
+ * for CLASSIFY and BOOST only: a SKIP needs the exact key.
+ *
+ * Lookups go through a perfect hash built once: a seed (and power-of-two table size, a few slots
+ * per key) is searched for under which no two keys share a slot, so a lookup hashes the key
+ * chars in place, probes one slot and compares once.
+ */
+public final class KeyHintDictionary {
+
+    public enum Tier { CLASSIFY, SKIP, BOOST }
+
+    public record Hint(String key, Tier tier, MatchType type) {}
+
+    public static final KeyHintDictionary EMPTY = new KeyHintDictionary(List.of(), 0.0, 0.0);
+
+    private final Hint[] table;
+    private final int mask;
+    private final int seed;
+    private final double classifyScore;
+    private final double boostScore;
+
+    public KeyHintDictionary(List<Hint> hints, double classifyScore, double boostScore) {
+        this.classifyScore = classifyScore;
+        this.boostScore = boostScore;
+        List<Hint> unique = new ArrayList<>();
+        for (Hint h : hints) {
+            Hint n = new Hint(normalize(h.key()), h.tier(), h.type());
+            if (n.key().isEmpty()) continue;
+            if (unique.stream().noneMatch(u -> u.key().equals(n.key()))) unique.add(n);   // first entry wins
+        }
+        int size = Math.max(2, Integer.highestOneBit(Math.max(1, unique.size()) * 2 - 1) * 2);
+        int s = 1;
+        Hint[] t;
+        while ((t = place(unique, size, s)) == null) {
+            if (++s > 4096) {
+                s = 1;
+                size *= 2;
+            }
+        }
+        this.table = t;
+        this.mask = size - 1;
+        this.seed = s;
+    }
+
+    /** Dictionary from lists of keys per type and tier (the scan.keys configuration). */
+    public static KeyHintDictionary of(Map<MatchType, List<String>> classify, List<String> skip,
+                                       Map<MatchType, List<String>> boost, double classifyScore, double boostScore) {
+        List<Hint> hints = new ArrayList<>();
+        classify.forEach((type, keys) -> keys.forEach(k -> hints.add(new Hint(k, Tier.CLASSIFY, type))));
+        skip.forEach(k -> hints.add(new Hint(k, Tier.SKIP, null)));
+        boost.forEach((type, keys) -> keys.forEach(k -> hints.add(new Hint(k, Tier.BOOST, type))));
+        return new KeyHintDictionary(hints, classifyScore, boostScore);
+    }
+
+    public double classifyScore() {
+        return classifyScore;
+    }
+
+    public double boostScore() {
+        return boostScore;
+    }
+
+    public Hint find(CharSequence key) {
+        return find(key, 0, key.length());
+    }
+
+    /** Hint for the key at [from, to) of {@code s}, or null. Does not allocate. */
+    public Hint find(CharSequence s, int from, int to) {
+        Hint h = exact(s, from, to);
+        if (h != null) return h;
+        for (int i = from + 1; i < to - 1; i++) {
+            char c = s.charAt(i);
+            if (c == '_' || c == '-' || c == '.') {
+                h = exact(s, i + 1, to);
+                if (h != null && h.tier() != Tier.SKIP) return h;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The value at [start, end) of a CLASSIFY key as a finding of the key's type; surrounding
+     * quotes are not part of it. Null for an empty value.
+     */
+    public DetectionResult classify(String line, int start, int end, Hint hint, Path file, int lineNo) {
+        if (end - start >= 2 && isQuote(line.charAt(start)) && line.charAt(end - 1) == line.charAt(start)) {
+            start++;
+            end--;
+        }
+        if (start >= end) return null;
+        return DetectionResult.builder()
+                .filePath(file)
+                .line(lineNo)
+                .startCol(start)
+                .endCol(end)
+                .type(hint.type())
+                .value(line.substring(start, end))
+                .score(classifyScore)
+                .build();
+    }
+
+    /** Raises the score of findings of a BOOST key's type inside its value [start, end). */
+    public void boost(List<DetectionResult> hits, Hint hint, int start, int end) {
+        if (hint.tier() != Tier.BOOST) return;
+        for (DetectionResult r : hits) {
+            if (r.getType() == hint.type() && r.getStartCol() >= start && r.getEndCol() <= end) {
+                r.setScore(r.getScore() + boostScore);
+            }
+        }
+    }
+
+    private Hint exact(CharSequence s, int from, int to) {
+        if (from >= to) return null;
+        Hint h = table[hash(s, from, to, seed) & mask];
+        if (h == null || h.key().length() != to - from) return null;
+        String key = h.key();
+        for (int i = from; i < to; i++) {
+            if (fold(s.charAt(i)) != key.charAt(i - from)) return null;
+        }
+        return h;
+    }
+
+    private static Hint[] place(List<Hint> hints, int size, int seed) {
+        Hint[] t = new Hint[size];
+        for (Hint h : hints) {
+            int slot = hash(h.key(), 0, h.key().length(), seed) & (size - 1);
+            if (t[slot] != null) return null;
+            t[slot] = h;
+        }
+        return t;
+    }
+
+    private static int hash(CharSequence s, int from, int to, int seed) {
+        int h = seed * 0x9E3779B9;
+        for (int i = from; i < to; i++) h = (h ^ fold(s.charAt(i))) * 0x01000193;
+        return h ^ (h >>> 15);
+    }
+
+    private static boolean isQuote(char c) {
+        return c == '"' || c == '\'' || c == '`';
+    }
+
+    // ASCII lower case, '-' as '_'
+    private static char fold(char c) {
+        if (c >= 'A' && c <= 'Z') return (char) (c + 32);
+        return c == '-' ? '_' : c;
+    }
+
+    private static String normalize(String key) {
+        if (key == null) return "";
+        StringBuilder sb = new StringBuilder(key.length());
+        for (char c : key.trim().toCharArray()) sb.append(fold(c));
+        return sb.toString();
+    }
+}
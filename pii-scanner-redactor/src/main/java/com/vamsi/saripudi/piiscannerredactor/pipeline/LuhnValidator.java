@@ -6,23 +6,27 @@ import org.springframework.stereotype.Component;
 public class LuhnValidator {
 
     public boolean isValid(String s){
-        String digitsOnly = s.replaceAll("[^0-9]", "");
-        if(digitsOnly.length() < 13 || digitsOnly.length() > 19){
-            return false;
-        }
+        return check(s, 0, s.length());
+    }
+
+    /** Luhn mod-10 over the digits of s[start, end); other chars are skipped. Needs 13-19 digits. */
+    static boolean check(CharSequence s, int start, int end){
         int sum = 0;
-        boolean second = false;
-        for(int i = digitsOnly.length() - 1; i >= 0; i--){
-            int c = digitsOnly.charAt(i) - '0';
-            if(second){
+        int digits = 0;
+        for(int i = end - 1; i >= start; i--){
+            int c = s.charAt(i) - '0';
+            if(c < 0 || c > 9){
+                continue;
+            }
+            if((digits & 1) == 1){
                 c *= 2;
                 if(c > 9){
                     c -= 9;
                 }
             }
-            second = !second;
             sum += c;
+            digits++;
         }
-        return sum % 10 == 0;
+        return digits >= 13 && digits <= 19 && sum % 10 == 0;
     }
 }
@@ -0,0 +1,164 @@
+package com.vamsi.saripudi.piiscannerredactor.pipeline;
+
+import com.vamsi.saripudi.piiscannerredactor.model.DetectionResult;
+import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Single-pass alternative to {@link UpdatedRegex#matchesToken}, with the same results.
+ *
+ * The token is walked once, left to right. At every position a cheap start table
+ * (first character + what may precede it, derived from each UpdatedRegex rule) says
+ * which types can begin there; only those types' patterns are anchored at that
+ * position (per-thread, reused Matchers; UpdatedRegex's {@link SpanScanner}s where it has
+ * them). Each type resumes after its previous match, valid or not, as Matcher.find() does,
+ * and the overlaps are settled by UpdatedRegex's own rule (longest span, then base score).
+ */
+@Component
+public class MultiPatternEngine implements PiiDetector {
+
+    private final MatchType[] types;               // UpdatedRegex's order, so equal spans tie the same way
+    private final Pattern[] patterns;
+    private final SpanScanner[] scanners;          // non-null where UpdatedRegex uses a hand-written scanner
+    private final ThreadLocal<State> state;
+
+    /** Per-thread Matchers (one per type) and the position each type's search resumes at. */
+    private static final class State {
+        final Matcher[] matchers;
+        final int[] resume;
+
+        State(Pattern[] patterns) {
+            matchers = new Matcher[patterns.length];
+            for (int i = 0; i < matchers.length; i++) {
+                // transparent bounds: lookbehind / \b still see the chars before the region start
+                matchers[i] = patterns[i].matcher("").useTransparentBounds(true).useAnchoringBounds(false);
+            }
+            resume = new int[patterns.length];
+        }
+    }
+
+    @Autowired
+    public MultiPatternEngine(UpdatedRegex regex) {
+        Map<MatchType, Pattern> source = regex.patterns();
+        this.types = source.keySet().toArray(new MatchType[0]);
+        this.patterns = source.values().toArray(new Pattern[0]);
+        this.scanners = new SpanScanner[types.length];
+        for (int k = 0; k < types.length; k++) {
+            scanners[k] = regex.scanners().get(types[k]);
+        }
+        this.state = ThreadLocal.withInitial(() -> new State(patterns));
+    }
+
+    @Override
+    public List<DetectionResult> matchesToken(String token, Path file, int lineNo, int offset, int candidates) {
+        if (token == null || token.isEmpty() || (candidates & TokenPrefilter.REGEX_TYPES) == 0) return List.of();
+
+        State st = state.get();
+        Matcher[] ms = st.matchers;
+        int[] resume = st.resume;
+        Arrays.fill(resume, 0);
+        int resetMask = 0;              // matchers already pointed at this token
+        List<DetectionResult> raw = null;
+        int n = token.length();
+        for (int i = 0; i < n; i++) {
+            for (int k = 0; k < types.length; k++) {
+                if (i < resume[k] || !TokenPrefilter.allows(candidates, types[k]) || !canStartAt(types[k], token, i)) {
+                    continue;
+                }
+                int end;
+                boolean valid;
+                SpanScanner sc = scanners[k];
+                if (sc != null) {
+                    end = sc.matchAt(token, i);
+                    if (end < 0) continue;
+                    valid = sc.isValid(token, i, end);
+                } else {
+                    Matcher m = ms[k];
+                    if ((resetMask & (1 << k)) == 0) {
+                        m.reset(token);
+                        resetMask |= 1 << k;
+                    }
+                    m.region(i, n);
+                    if (!m.lookingAt()) continue;
+                    end = m.end();
+                    valid = UpdatedRegex.passesPostValidation(types[k], token.substring(i, end));
+                }
+                resume[k] = Math.max(end, i + 1);     // a rejected span is not searched again either
+                if (!valid) continue;
+
+                if (raw == null) raw = new ArrayList<>(4);
+                raw.add(DetectionResult.builder()
+                        .filePath(file)
+                        .line(lineNo)
+                        .startCol(offset + i)
+                        .endCol(offset + end)
+                        .type(types[k])
+                        .value(token.substring(i, end))
+                        .score(UpdatedRegex.baseScore(types[k]))
+                        .build());
+            }
+        }
+        return raw == null ? List.of() : UpdatedRegex.keepLongest(raw);
+    }
+
+    // ---------------- start table ----------------
+
+    /**
+     * Conservative: true whenever the type's pattern could begin at {@code i}.
+     * Non-ASCII neighbours are never used to reject (the Matcher decides).
+     */
+    static boolean canStartAt(MatchType type, CharSequence s, int i) {
+        char c = s.charAt(i);
+        char prev = i > 0 ? s.charAt(i - 1) : ' ';
+        boolean prevUnknown = prev >= 128;
+        switch (type) {
+            case EMAIL:
+                return isEmailChar(c) && (prevUnknown || !isEmailChar(prev));
+            case IPV4:
+            case PHYSICAL_ADDRESS:
+                return isDigit(c) && (prevUnknown || !isWord(prev));
+            case SSN:
+                return c >= '0' && c <= '8' && (prevUnknown || !isWord(prev));
+            case IPV6:
+                if (isHex(c)) return prevUnknown || !isWord(prev);
+                return c == ':' && (prevUnknown || isWord(prev));      // \b before "::"
+            case PHONE:
+                return (isDigit(c) || c == '+' || c == '(') && (prevUnknown || !isDigit(prev));
+            case CREDIT_CARD:
+                return isDigit(c) && (prevUnknown || !isDigit(prev));
+            case JWT:
+                if (isWord(c)) return prevUnknown || !isWord(prev);
+                return c == '-' && (prevUnknown || isWord(prev));
+            case API_KEY:
+                return (isHex(c) || c == 's' || c == 'S' || c == 'x' || c == 'X')
+                        && (prevUnknown || !isWord(prev));
+            default:
+                return true;
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isHex(char c) {
+        return isDigit(c) || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    private static boolean isWord(char c) {
+        return isDigit(c) || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    private static boolean isEmailChar(char c) {
+        return isWord(c) || c == '.' || c == '%' || c == '+' || c == '-';
+    }
+}
@@ -0,0 +1,52 @@
+package com.vamsi.saripudi.piiscannerredactor.pipeline;
+
+import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
+
+import static com.vamsi.saripudi.piiscannerredactor.pipeline.SpanScanner.*;
+
+/**
+ * (?<!\d)(?:\+?1[-.\s]?)?(?:\(\d{3}\)|\d{3})[-.\s]?\d{3}[-.\s]?\d{4}(?!\d) without java.util.regex.
+ * Separators and digits never overlap, so the only real choice point is whether a leading '1'
+ * is the country code or the first area-code digit; it is tried in the regex's order.
+ */
+final class PhoneScanner implements SpanScanner {
+
+    @Override
+    public MatchType type() {
+        return MatchType.PHONE;
+    }
+
+    @Override
+    public int matchAt(CharSequence s, int i) {
+        if (digitAt(s, i - 1)) return -1;
+        int p = charAt(s, i) == '+' ? i + 1 : i;
+        if (charAt(s, p) == '1') {
+            int q = isSeparator(charAt(s, p + 1)) ? p + 2 : p + 1;
+            int end = number(s, q);
+            if (end >= 0) return end;
+        }
+        // without the country code a leading '+' cannot match
+        return p == i ? number(s, i) : -1;
+    }
+
+    /** (ddd) or ddd, optional separator, ddd, optional separator, dddd, not followed by a digit. */
+    private static int number(CharSequence s, int p) {
+        int q;
+        if (charAt(s, p) == '(' && digitsAt(s, p + 1, 3) && charAt(s, p + 4) == ')') q = p + 5;
+        else if (digitsAt(s, p, 3)) q = p + 3;
+        else return -1;
+
+        if (isSeparator(charAt(s, q))) q++;
+        if (!digitsAt(s, q, 3)) return -1;
+        q += 3;
+        if (isSeparator(charAt(s, q))) q++;
+        if (!digitsAt(s, q, 4)) return -1;
+        q += 4;
+        return digitAt(s, q) ? -1 : q;
+    }
+
+    // [-.\s]
+    private static boolean isSeparator(char c) {
+        return c == '-' || c == '.' || c == ' ' || (c >= '\t' && c <= '\r');
+    }
+}
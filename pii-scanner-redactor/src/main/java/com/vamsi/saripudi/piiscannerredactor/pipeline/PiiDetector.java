@@ -0,0 +1,20 @@
+package com.vamsi.saripudi.piiscannerredactor.pipeline;
+
+import com.vamsi.saripudi.piiscannerredactor.model.DetectionResult;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Pattern-based detector used by ScannerService for every token.
+ * Implementations report line-relative columns (token offset already added).
+ */
+public interface PiiDetector {
+
+    /** Only types whose bit is set in {@code candidates} (see {@link TokenPrefilter}) are evaluated. */
+    List<DetectionResult> matchesToken(String token, Path file, int lineNo, int offset, int candidates);
+
+    default List<DetectionResult> matchesToken(String token, Path file, int lineNo, int offset) {
+        return matchesToken(token, file, lineNo, offset, TokenPrefilter.ALL);
+    }
+}
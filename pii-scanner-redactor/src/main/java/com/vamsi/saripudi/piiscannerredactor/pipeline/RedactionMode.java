@@ -0,0 +1,29 @@
+package com.vamsi.saripudi.piiscannerredactor.pipeline;
+
+import java.util.Locale;
+
+/**
+ * What replaces a finding in the redacted output.
+ *  - ENC:    AES-GCM token, reversible with the key (PREFIX::TYPE::base64url[::hint]).
+ *  - MASK:   type-aware mask that keeps a few characters (e.g. "**** **** **** 1111").
+ *  - TAG:    [REDACTED:TYPE].
+ *  - REMOVE: nothing.
+ *  - HMAC:   keyed pseudonym (PREFIX::TYPE::h:base64url), equal for equal values and not reversible.
+ */
+public enum RedactionMode {
+    ENC,
+    MASK,
+    TAG,
+    REMOVE,
+    HMAC;
+
+    /** Case-insensitive; null or blank means "not specified" and returns null. */
+    public static RedactionMode parse(String s) {
+        if (s == null || s.isBlank()) return null;
+        try {
+            return valueOf(s.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown redaction mode '" + s + "' (expected enc, mask, tag, remove or hmac)");
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.vamsi.saripudi.piiscannerredactor.pipeline;
+
+import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Redaction mode per {@link MatchType}, resolved once into an array indexed by ordinal so the
+ * redactor looks a hit's mode up without any string handling.
+ *
+ * Written as a map ({"default": "enc", "EMAIL": "mask"}) in a scan request, or as a spec string
+ * ("enc,EMAIL=mask,IPV4=tag") in configuration; types left out get the default (ENC if none is given).
+ */
+public final class RedactionPolicy {
+
+    private static final MatchType[] TYPES = MatchType.values();
+
+    private final RedactionMode[] byType;
+
+    private RedactionPolicy(RedactionMode[] byType) {
+        this.byType = byType;
+    }
+
+    public static RedactionPolicy uniform(RedactionMode mode) {
+        RedactionMode[] modes = new RedactionMode[TYPES.length];
+        Arrays.fill(modes, mode);
+        return new RedactionPolicy(modes);
+    }
+
+    public static RedactionPolicy of(RedactionMode fallback, Map<MatchType, RedactionMode> overrides) {
+        RedactionMode[] modes = uniform(fallback).byType;
+        overrides.forEach((type, mode) -> modes[type.ordinal()] = mode);
+        return new RedactionPolicy(modes);
+    }
+
+    /**
+     * Keys are match types or "default" (case-insensitive), values are {@link RedactionMode}s; a
+     * missing default is ENC. Null or empty means "not specified" and returns null.
+     */
+    public static RedactionPolicy parse(Map<String, String> policy) {
+        if (policy == null || policy.isEmpty()) return null;
+        RedactionMode def = RedactionMode.ENC;
+        Map<MatchType, RedactionMode> overrides = new EnumMap<>(MatchType.class);
+        for (Map.Entry<String, String> e : policy.entrySet()) {
+            RedactionMode mode = RedactionMode.parse(e.getValue());
+            if (mode == null) throw new IllegalArgumentException("no redaction mode for '" + e.getKey() + "'");
+            String key = e.getKey() == null ? "" : e.getKey().trim().toUpperCase(Locale.ROOT);
+            if (key.equals("DEFAULT")) def = mode;
+            else overrides.put(type(key), mode);
+        }
+        return of(def, overrides);
+    }
+
+    /** "mode[,TYPE=mode...]", e.g. "enc,EMAIL=mask"; the leading default may be left out (then ENC). */
+    public static RedactionPolicy parse(String spec) {
+        RedactionMode def = RedactionMode.ENC;
+        Map<MatchType, RedactionMode> overrides = new EnumMap<>(MatchType.class);
+        if (spec != null) {
+            for (String part : spec.split(",")) {
+                if (part.isBlank()) continue;
+                int eq = part.indexOf('=');
+                if (eq < 0) {
+                    def = RedactionMode.parse(part);
+                } else {
+                    RedactionMode mode = RedactionMode.parse(part.substring(eq + 1));
+                    if (mode == null) throw new IllegalArgumentException("no redaction mode in '" + part.trim() + "'");
+                    overrides.put(type(part.substring(0, eq).trim().toUpperCase(Locale.ROOT)), mode);
+                }
+            }
+        }
+        return of(def, overrides);
+    }
+
+    public RedactionMode modeOf(MatchType type) {
+        return byType[type.ordinal()];
+    }
+
+    private static MatchType type(String name) {
+        try {
+            return MatchType.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown match type '" + name + "' in redaction policy");
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (MatchType t : TYPES) {
+            if (!sb.isEmpty()) sb.append(',');
+            sb.append(t.name()).append('=').append(byType[t.ordinal()].name().toLowerCase(Locale.ROOT));
+        }
+        return sb.toString();
+    }
+}
@@ -2,71 +2,188 @@ package com.vamsi.saripudi.piiscannerredactor.pipeline;
 
 import com.vamsi.saripudi.piiscannerredactor.config.PiiCryptoProperties;
 import com.vamsi.saripudi.piiscannerredactor.encryption.CryptoService;
+import com.vamsi.saripudi.piiscannerredactor.encryption.TokenCache;
 import com.vamsi.saripudi.piiscannerredactor.model.DetectionResult;
 import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Locale;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Component
 public class Redactor {
+    private static final RedactionPolicy[] UNIFORM = new RedactionPolicy[RedactionMode.values().length];
+    static {
+        for (RedactionMode m : RedactionMode.values()) UNIFORM[m.ordinal()] = RedactionPolicy.uniform(m);
+    }
+    private static final Comparator<DetectionResult> BY_START = Comparator.comparingInt(DetectionResult::getStartCol);
+    private static final int MAX_KEPT_BUILDER = 1 << 16;   // chars; a builder grown past this is not kept
+
     private final CryptoService crypto;
     private final String tokenPrefix;
+    // pii.enc.deterministic: equal (type, value) -> equal token; the cache is null when off or sized 0
+    private final boolean deterministic;
+    private final TokenCache tokens;
+    private final String[] tags;             // [REDACTED:TYPE] by type ordinal
+    private final ThreadLocal<StringBuilder> lines = ThreadLocal.withInitial(() -> new StringBuilder(512));
 
     @Autowired
     public Redactor(CryptoService crypto, PiiCryptoProperties props) {
         this.crypto = crypto;
         this.tokenPrefix = props.getToken().getPrefix();
+        this.deterministic = props.getEnc().isDeterministic();
+        PiiCryptoProperties.Cache cache = props.getEnc().getCache();
+        this.tokens = deterministic && cache.getMaxEntries() > 0
+                ? new TokenCache(cache.getMaxEntries(), cache.getEviction()) : null;
+        MatchType[] types = MatchType.values();
+        this.tags = new String[types.length];
+        for (MatchType t : types) tags[t.ordinal()] = "[REDACTED:" + t.name() + "]";
     }
-    //redact line
+    /**
+     * Redacts the results of {@code file} at {@code lineNo} (others are ignored) at their offsets,
+     * all with one mode: ENC, TAG, REMOVE, HMAC, or MASK when null or unknown.
+     */
     public String redactLine(String line, List<DetectionResult> results, Path file, int lineNo, String mode) {
-        String out = line;
-        final String upperMode = (mode == null ? "MASK" : mode).toUpperCase(Locale.ROOT);
-
+        List<DetectionResult> spans = new ArrayList<>();
         for (DetectionResult r : results) {
-            if (!Objects.equals(r.getFilePath(), file.toString()) || r.getLine() != lineNo) continue;
-
-            final String replacement = switch (upperMode) {
-                case "REMOVE" -> "";
-                case "TAG"    -> "[REDACTED:" + r.getType().name() + "]";
-                case "ENC"    -> encryptToken(r.getValue(), r.getType(), file);
-                default       -> mask(r.getValue(), r.getType());
-            };
+            if (r.getLine() == lineNo && Objects.equals(r.getFilePath(), file)) spans.add(r);
+        }
+        spans.sort(BY_START);
+        return redact(line, spans, UNIFORM[modeOrMask(mode).ordinal()], null);
+    }
 
-            out = replaceOnce(out, r.getValue(), replacement);
+    private static RedactionMode modeOrMask(String mode) {
+        try {
+            RedactionMode m = RedactionMode.parse(mode);
+            return m != null ? m : RedactionMode.MASK;
+        } catch (IllegalArgumentException e) {
+            return RedactionMode.MASK;
         }
-        return out;
+    }
+
+    /**
+     * Everything besides the key that decides the redacted text under {@code policy}, as one string:
+     * incremental jobs reuse an earlier job's redacted copies only if it is equal.
+     */
+    public String settings(RedactionPolicy policy) {
+        return "policy=" + policy + ";prefix=" + tokenPrefix + ";deterministic=" + deterministic;
     }
 
     //encrypts the token
     public String encryptToken(String original, MatchType type, Path file) {
-        // Bind ciphertext to a context to prevent cut/paste misuse across files/types.
-        final String aad = type.name() + "|" + file.getFileName();
-        System.out.println(crypto.getKey());
-        final String b64 = crypto.encrypt(original, aad);
+        StringBuilder sb = new StringBuilder(tokenPrefix.length() + 2 * original.length() + 80);
+        appendToken(sb, crypto.encryptor(), original, type, null);
+        return sb.toString();
+    }
+
+    public String encryptLine(String line, List<DetectionResult> hits, Path file) {
+        return encryptLine(line, hits, file, null);
+    }
+
+    public String encryptLine(String line, List<DetectionResult> hits, Path file, TokenCache.Stats stats) {
+        return redact(line, hits, UNIFORM[RedactionMode.ENC.ordinal()], stats);
+    }
+
+    /**
+     * The line with every hit replaced as {@code policy} says for its type (see {@link #splice}),
+     * built in this thread's reused builder; the line itself when there are no hits.
+     */
+    public String redact(String line, List<DetectionResult> hits, RedactionPolicy policy, TokenCache.Stats stats) {
+        if (hits.isEmpty()) return line;
+        StringBuilder sb = lines.get();
+        sb.setLength(0);
+        splice(line, hits, policy, stats, sb);
+        String out = sb.toString();
+        if (sb.capacity() > MAX_KEPT_BUILDER) lines.remove();
+        return out;
+    }
+
+    /**
+     * Appends {@code line} to {@code sb} with the spans of {@code hits} replaced, left to right, with
+     * one encryptor for all of them. Hits come sorted by start column; hits that overlap are replaced
+     * together, as their union under the type of the longest one, so no part of either is left in
+     * clear. A hit running past the line is left out. Token cache lookups are counted into
+     * {@code stats} (may be null).
+     */
+    public void splice(CharSequence line, List<DetectionResult> hits, RedactionPolicy policy,
+                       TokenCache.Stats stats, StringBuilder sb) {
+        CryptoService.Encryptor enc = crypto.encryptor();
+        int cursor = 0;
+        int n = hits.size();
+        for (int i = 0; i < n; ) {
+            DetectionResult lead = hits.get(i++);
+            int s = lead.getStartCol(), e = lead.getEndCol();
+            if (s < cursor || e > line.length()) continue;   // out of order, or runs past the line
+            while (i < n && hits.get(i).getStartCol() < e) {
+                DetectionResult r = hits.get(i++);
+                if (r.getEndCol() > line.length()) continue;
+                if (r.getEndCol() - r.getStartCol() > lead.getEndCol() - lead.getStartCol()) lead = r;
+                e = Math.max(e, r.getEndCol());
+            }
+            if (s > cursor) sb.append(line, cursor, s);
+            String value = s == lead.getStartCol() && e == lead.getEndCol()
+                    ? lead.getValue() : line.subSequence(s, e).toString();
+            MatchType type = lead.getType();
+            switch (policy.modeOf(type)) {
+                case ENC    -> appendToken(sb, enc, value, type, stats);
+                case MASK   -> sb.append(mask(value, type));
+                case TAG    -> sb.append(tags[type.ordinal()]);
+                case REMOVE -> { }
+                case HMAC   -> appendPseudonym(sb, enc, value, type);
+            }
+            cursor = e;
+        }
+        if (cursor < line.length()) sb.append(line, cursor, line.length());
+    }
+
+    /** Cache-wide counts, or null when there is no token cache. */
+    public TokenCache tokenCache() {
+        return tokens;
+    }
+
+    // PREFIX::TYPE::base64url[::hint]. The ciphertext is not bound to type or file: AAD is off in CryptoService.
+    private void appendToken(StringBuilder sb, CryptoService.Encryptor enc, String original, MatchType type,
+                             TokenCache.Stats stats) {
+        if (tokens != null) {
+            String cached = tokens.get(type.name(), original, stats);
+            if (cached != null) {
+                sb.append(cached);
+                return;
+            }
+        }
+        int tokenStart = sb.length();
+        sb.append(tokenPrefix).append("::").append(type.name()).append("::");
+        if (deterministic) enc.encryptDeterministic(type.name(), original, 0, original.length(), sb);
+        else enc.encrypt(original, 0, original.length(), sb);
 
         // Optional readability hints (do not affect decryption).
-        final String suffix = switch (type) {
-            case CREDIT_CARD -> "::" + last4Digits(original);
-            case EMAIL       -> "::" + emailDomain(original);
-            case PHONE       -> "::" + last4Digits(original);
-            case SSN         -> "::" + last4Digits(original);
-            default          -> "";
-        };
+        switch (type) {
+            case CREDIT_CARD, PHONE, SSN -> sb.append("::").append(last4Digits(original));
+            case EMAIL                   -> sb.append("::").append(emailDomain(original));
+            default                      -> { }
+        }
+        if (tokens != null) tokens.put(type.name(), original, sb.substring(tokenStart));
+    }
 
-        return tokenPrefix + "::" + type.name() + "::" + b64 + suffix;
+    // PREFIX::TYPE::h:base64url(HMAC), 16 chars after "h:"
+    private void appendPseudonym(StringBuilder sb, CryptoService.Encryptor enc, String original, MatchType type) {
+        sb.append(tokenPrefix).append("::").append(type.name()).append("::h:");
+        enc.appendPseudonym(type.name(), original, 0, original.length(), sb);
     }
+
     //helper methods
     private String last4Digits(String v) {
-        String digits = v.replaceAll("[^0-9]", "");
-        if (digits.length() >= 4) return digits.substring(digits.length() - 4);
-        return "";
+        char[] last = new char[4];
+        int found = 0;
+        for (int i = v.length() - 1; i >= 0 && found < 4; i--) {
+            char c = v.charAt(i);
+            if (c >= '0' && c <= '9') last[3 - found++] = c;
+        }
+        return found == 4 ? new String(last) : "";
     }
 
     private String emailDomain(String v) {
@@ -74,19 +191,6 @@ public class Redactor {
         return at >= 0 ? v.substring(at + 1) : "";
     }
 
-    /** Replaces the first occurrence of a literal target with replacement. */
-    private String replaceOnce(String input, String targetLiteral, String replacement) {
-        if (targetLiteral == null || targetLiteral.isEmpty()) return input;
-        Pattern p = Pattern.compile(Pattern.quote(targetLiteral));
-        Matcher m = p.matcher(input);
-        return m.find() ? new StringBuilder(input.length() - targetLiteral.length() + replacement.length())
-                .append(input, 0, m.start())
-                .append(replacement)
-                .append(input, m.end(), input.length())
-                .toString()
-                : input;
-    }
-
     //Traditional masking incase of no encryption
     public String mask(String value, MatchType type) {
         switch (type) {
@@ -104,6 +208,15 @@ public class Redactor {
         }
     }
 
+    private static String digits(String v) {
+        StringBuilder sb = new StringBuilder(v.length());
+        for (int i = 0; i < v.length(); i++) {
+            char c = v.charAt(i);
+            if (c >= '0' && c <= '9') sb.append(c);
+        }
+        return sb.toString();
+    }
+
     private String genericMask(String v) {
         if (v == null || v.isEmpty()) return "***";
         if (v.length() <= 6) return "***";
@@ -111,7 +224,7 @@ public class Redactor {
     }
 
     private String maskCreditCard(String v) {
-        String digits = v.replaceAll("[^0-9]", "");
+        String digits = digits(v);
         if (digits.length() < 12) return genericMask(v);
         String last4 = digits.substring(digits.length() - 4);
         return "**** **** **** " + last4;
@@ -127,14 +240,14 @@ public class Redactor {
     }
 
     private String maskPhone(String v) {
-        String digits = v.replaceAll("[^0-9]", "");
+        String digits = digits(v);
         if (digits.length() < 7) return genericMask(v);
         String last4 = digits.substring(digits.length() - 4);
         return "***-***-" + last4;
     }
 
     private String maskSSN(String v) {
-        String digits = v.replaceAll("[^0-9]", "");
+        String digits = digits(v);
         if (digits.length() == 9) return "***-**-" + digits.substring(5);
         return genericMask(v);
     }
@@ -176,7 +289,9 @@ public class Redactor {
     private String maskPhysicalAddress(String v) {
         if (v == null || v.isEmpty()) return genericMask(v);
         // Mask house number, keep street name and city/state if possible
-        return v.replaceAll("^\\d+", "***");
+        int n = 0;
+        while (n < v.length() && v.charAt(n) >= '0' && v.charAt(n) <= '9') n++;
+        return n == 0 ? v : "***" + v.substring(n);
     }
 
 }
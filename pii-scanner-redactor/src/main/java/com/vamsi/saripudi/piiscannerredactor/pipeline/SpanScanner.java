@@ -0,0 +1,48 @@
+package com.vamsi.saripudi.piiscannerredactor.pipeline;
+
+import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
+
+/**
+ * Hand-written matcher for one fixed-shape type, equivalent to that type's UpdatedRegex pattern
+ * (same spans, same boundary rules). Walks the CharSequence directly and allocates nothing;
+ * only a reported hit is turned into a String by the caller.
+ */
+interface SpanScanner {
+
+    MatchType type();
+
+    /**
+     * End of the pattern's match anchored at {@code i}, or -1.
+     * Characters before {@code i} are visible to the boundary checks, like a transparent-bounds Matcher.
+     */
+    int matchAt(CharSequence s, int i);
+
+    /** Post-validation of a span returned by {@link #matchAt} (see UpdatedRegex.passesPostValidation). */
+    default boolean isValid(CharSequence s, int start, int end) {
+        return true;
+    }
+
+    // ---------------- char helpers (out of range = no char) ----------------
+
+    static char charAt(CharSequence s, int i) {
+        return i >= 0 && i < s.length() ? s.charAt(i) : 0;
+    }
+
+    static boolean digitAt(CharSequence s, int i) {
+        char c = charAt(s, i);
+        return c >= '0' && c <= '9';
+    }
+
+    /** ASCII \w, which is what \b uses. */
+    static boolean wordAt(CharSequence s, int i) {
+        char c = charAt(s, i);
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    static boolean digitsAt(CharSequence s, int i, int count) {
+        for (int k = 0; k < count; k++) {
+            if (!digitAt(s, i + k)) return false;
+        }
+        return true;
+    }
+}
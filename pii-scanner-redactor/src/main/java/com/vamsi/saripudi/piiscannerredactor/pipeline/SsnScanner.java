@@ -0,0 +1,30 @@
+package com.vamsi.saripudi.piiscannerredactor.pipeline;
+
+import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
+
+import static com.vamsi.saripudi.piiscannerredactor.pipeline.SpanScanner.*;
+
+/** \b(?!000|666)[0-8]\d{2}-(?!00)\d{2}-(?!0000)\d{4}\b without java.util.regex. */
+final class SsnScanner implements SpanScanner {
+
+    @Override
+    public MatchType type() {
+        return MatchType.SSN;
+    }
+
+    @Override
+    public int matchAt(CharSequence s, int i) {
+        char a = charAt(s, i);
+        if (a < '0' || a > '8' || wordAt(s, i - 1)) return -1;
+        if (!digitsAt(s, i + 1, 2) || charAt(s, i + 3) != '-'
+                || !digitsAt(s, i + 4, 2) || charAt(s, i + 6) != '-'
+                || !digitsAt(s, i + 7, 4) || wordAt(s, i + 11)) return -1;
+
+        char b = s.charAt(i + 1), c = s.charAt(i + 2);
+        if (a == b && b == c && (a == '0' || a == '6')) return -1;                 // 000, 666
+        if (s.charAt(i + 4) == '0' && s.charAt(i + 5) == '0') return -1;           // group 00
+        if (s.charAt(i + 7) == '0' && s.charAt(i + 8) == '0'
+                && s.charAt(i + 9) == '0' && s.charAt(i + 10) == '0') return -1;   // serial 0000
+        return i + 11;
+    }
+}
@@ -0,0 +1,89 @@
+package com.vamsi.saripudi.piiscannerredactor.pipeline;
+
+import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cheap required-feature check that runs before any regex.
+ *
+ * One pass over the token counts the characters every UpdatedRegex rule depends on
+ * ('@', '.', '-', ':', digits, whitespace) and spots the fixed API-key literals
+ * (AIza, sk-, xox, case-insensitive) and the IPv6 "::" shorthand. The result is a bitmask over {@link MatchType#ordinal()}
+ * of the types that could still match; a cleared bit means the pattern cannot match
+ * and does not need to run. The check is conservative: it never clears a type the
+ * pattern would have found.
+ */
+@Component
+public class TokenPrefilter {
+
+    /** Mask with every type set (no filtering). */
+    public static final int ALL = -1;
+
+    /** Types backed by a pattern in UpdatedRegex / MultiPatternEngine. */
+    public static final int REGEX_TYPES = bit(MatchType.EMAIL) | bit(MatchType.IPV4) | bit(MatchType.IPV6)
+            | bit(MatchType.SSN) | bit(MatchType.PHONE) | bit(MatchType.CREDIT_CARD) | bit(MatchType.JWT)
+            | bit(MatchType.API_KEY) | bit(MatchType.PHYSICAL_ADDRESS);
+
+    private static final int REGEX_TYPE_COUNT = Integer.bitCount(REGEX_TYPES);
+
+    // packed lower-case literals, last char in the low byte
+    private static final int LIT_AIZA = ('a' << 24) | ('i' << 16) | ('z' << 8) | 'a';
+    private static final int LIT_SK = ('s' << 16) | ('k' << 8) | '-';
+    private static final int LIT_XOX = ('x' << 16) | ('o' << 8) | 'x';
+    private static final int LIT_COLONS = (':' << 8) | ':';
+
+    public static int bit(MatchType type) {
+        return 1 << type.ordinal();
+    }
+
+    public static boolean allows(int mask, MatchType type) {
+        return (mask & bit(type)) != 0;
+    }
+
+    /** Number of pattern evaluations the mask still requires for one token. */
+    public static int evaluatedBy(int mask) {
+        return Integer.bitCount(mask & REGEX_TYPES);
+    }
+
+    /** Number of pattern evaluations the mask avoids for one token. */
+    public static int skippedBy(int mask) {
+        return REGEX_TYPE_COUNT - evaluatedBy(mask);
+    }
+
+    public int candidateMask(CharSequence s) {
+        return s == null ? 0 : candidateMask(s, 0, s.length());
+    }
+
+    public int candidateMask(CharSequence s, int start, int end) {
+        int digits = 0, dots = 0, dashes = 0, ats = 0, colons = 0, spaces = 0;
+        boolean apiLiteral = false, doubleColon = false;
+        int window = 0;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') digits++;
+            else if (c == '.') dots++;
+            else if (c == '-') dashes++;
+            else if (c == '@') ats++;
+            else if (c == ':') colons++;
+            else if (c == ' ' || (c >= '\t' && c <= '\r')) spaces++;
+
+            window = (window << 8) | (Character.toLowerCase(c) & 0xFF);
+            if (window == LIT_AIZA || (window & 0xFFFFFF) == LIT_SK || (window & 0xFFFFFF) == LIT_XOX) {
+                apiLiteral = true;
+            }
+            if ((window & 0xFFFF) == LIT_COLONS) doubleColon = true;
+        }
+
+        int mask = 0;
+        if (ats > 0 && dots > 0) mask |= bit(MatchType.EMAIL);
+        if (dots >= 3 && digits >= 4) mask |= bit(MatchType.IPV4);
+        if (colons >= 7 || doubleColon) mask |= bit(MatchType.IPV6);
+        if (dashes >= 2 && digits >= 9) mask |= bit(MatchType.SSN);
+        if (digits >= 10) mask |= bit(MatchType.PHONE);
+        if (digits >= 13) mask |= bit(MatchType.CREDIT_CARD);
+        if (dots >= 2 && end - start >= 32) mask |= bit(MatchType.JWT);
+        if (apiLiteral || dashes >= 4) mask |= bit(MatchType.API_KEY);
+        if (spaces > 0 && digits > 0) mask |= bit(MatchType.PHYSICAL_ADDRESS);
+        return mask;
+    }
+}
@@ -3,10 +3,18 @@ package com.vamsi.saripudi.piiscannerredactor.pipeline;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
+/**
+ * Splits a line on whitespace, keeping quoted values ("abc", 'abc', `abc`, backslash escapes)
+ * in one token and emitting key[:=]value tokens as the key followed by the value (with the key
+ * as hint). Trailing , ; ) ] } are trimmed off tokens.
+ *
+ * One hand-written pass writes token offsets into reusable int arrays ({@link Offsets}); no
+ * regex, Token or substring per token. {@link #tokenize(String)} builds Token objects from
+ * them for callers that want a list.
+ */
 @Component
 public final class Tokenizer {
 
@@ -29,56 +37,174 @@ public final class Tokenizer {
         }
     }
 
-    // quoted values: "abc", 'abc', `abc`
-    private static final Pattern P_QUOTED = Pattern.compile("\"(?:[^\"\\\\]|\\\\.)*\"|'(?:[^'\\\\]|\\\\.)*'|`(?:[^`\\\\]|\\\\.)*`");
+    /**
+     * Tokens of one line as offsets into it, refilled line after line. Token i is
+     * [start(i), end(i)); a value from key[:=]value also has its key at [keyStart(i), keyEnd(i)),
+     * otherwise keyStart(i) is -1.
+     */
+    public static final class Offsets {
+        private CharSequence line;
+        private int count;
+        private int[] start = new int[32];
+        private int[] end = new int[32];
+        private int[] keyStart = new int[32];
+        private int[] keyEnd = new int[32];
+        // per quote char: opening quotes before this index cannot close (see closingQuote)
+        private final int[] noCloseBefore = new int[3];
+
+        public CharSequence line() { return line; }
+        public int count() { return count; }
+        public int start(int i) { return start[i]; }
+        public int end(int i) { return end[i]; }
+        public int keyStart(int i) { return keyStart[i]; }
+        public int keyEnd(int i) { return keyEnd[i]; }
+        public boolean hasKey(int i) { return keyStart[i] >= 0; }
+
+        /** Token i as a String (allocates; the offsets are enough for the detectors). */
+        public String text(int i) {
+            return line.subSequence(start[i], end[i]).toString();
+        }
+
+        public String key(int i) {
+            return hasKey(i) ? line.subSequence(keyStart[i], keyEnd[i]).toString() : null;
+        }
+
+        private void reset(CharSequence line) {
+            this.line = line;
+            this.count = 0;
+            Arrays.fill(noCloseBefore, 0);
+        }
 
-    // key[:=]value — tolerant of spaces, used in logs/configs
-    private static final Pattern P_KEYVAL = Pattern.compile("([A-Za-z0-9_\\-.]+)\\s*[:=]\\s*(.+)");
+        private void add(int s, int e, int ks, int ke) {
+            if (count == start.length) {
+                int n = count * 2;
+                start = Arrays.copyOf(start, n);
+                end = Arrays.copyOf(end, n);
+                keyStart = Arrays.copyOf(keyStart, n);
+                keyEnd = Arrays.copyOf(keyEnd, n);
+            }
+            start[count] = s;
+            end[count] = e;
+            keyStart[count] = ks;
+            keyEnd[count] = ke;
+            count++;
+        }
+    }
+
+    private static final ThreadLocal<Offsets> OFFSETS = ThreadLocal.withInitial(Offsets::new);
 
     private Tokenizer() {}
 
     public static List<Token> tokenize(String line) {
-        boolean[] quoted = new boolean[line.length()];
-        Matcher q = P_QUOTED.matcher(line);
-        while (q.find()) mark(quoted, q.start(), q.end());
+        Offsets t = tokenize(line, new Offsets());
+        List<Token> out = new ArrayList<>(t.count());
+        for (int i = 0; i < t.count(); i++) {
+            out.add(new Token(line.substring(t.start(i), t.end(i)), t.start(i), t.end(i), t.key(i)));
+        }
+        return out;
+    }
 
-        List<Token> raw = new ArrayList<>();
+    /** Tokens of {@code line} in this thread's buffers; valid until the thread tokenizes its next line. */
+    public static Offsets offsets(CharSequence line) {
+        return tokenize(line, OFFSETS.get());
+    }
+
+    public static Offsets tokenize(CharSequence line, Offsets into) {
+        into.reset(line);
         int i = 0, n = line.length();
         while (i < n) {
-            if (!isQuoted(quoted, i) && Character.isWhitespace(line.charAt(i))) { i++; continue; }
+            if (Character.isWhitespace(line.charAt(i))) { i++; continue; }
             int start = i;
-            while (i < n && (isQuoted(quoted, i) || !Character.isWhitespace(line.charAt(i)))) i++;
-            raw.add(new Token(line.substring(start, i), start, i, null));
+            while (i < n) {
+                char c = line.charAt(i);
+                if (c == '"' || c == '\'' || c == '`') {
+                    int close = closingQuote(line, i, n, into.noCloseBefore);
+                    if (close >= 0) { i = close + 1; continue; }   // quoted: spaces inside do not split
+                }
+                if (Character.isWhitespace(c)) break;
+                i++;
+            }
+            emit(line, start, i, into);
         }
+        return into;
+    }
 
-        List<Token> out = new ArrayList<>(raw.size() + 4);
-        for (Token t : raw) {
-            Matcher m = P_KEYVAL.matcher(t.text);
-            if (m.matches()) {
-                int keyStart = t.start + m.start(1), keyEnd = t.start + m.end(1);
-                int valStart = t.start + m.start(2), valEnd = t.start + m.end(2);
-                String key = m.group(1), val = m.group(2);
-
-                // trim trailing punctuation (, ; ) ])})
-                while (valEnd > valStart && ",;)]}".indexOf(line.charAt(valEnd - 1)) >= 0) valEnd--;
-
-                out.add(new Token(line.substring(keyStart, keyEnd), keyStart, keyEnd, null));
-                out.add(new Token(line.substring(valStart, valEnd), valStart, valEnd, key));
-            } else {
-                // trim trailing punctuation but keep indices intact for redaction
-                int s = t.start, e = t.end;
-                while (e > s && ",;)]}".indexOf(line.charAt(e - 1)) >= 0) e--;
-                out.add(new Token(line.substring(s, e), s, e, null));
+    /**
+     * Index of the quote closing the one at {@code open}, or -1. A backslash escapes the next
+     * character, except a line terminator. A quote that does not close remembers where its scan
+     * ended: any later quote of the same kind before that point was an escaped character of the
+     * failed scan, which continues from it in the same state, so it cannot close either.
+     */
+    private static int closingQuote(CharSequence line, int open, int n, int[] noCloseBefore) {
+        char q = line.charAt(open);
+        int kind = q == '"' ? 0 : q == '\'' ? 1 : 2;
+        if (open < noCloseBefore[kind]) return -1;
+        for (int j = open + 1; j < n; j++) {
+            char c = line.charAt(j);
+            if (c == q) return j;
+            if (c == '\\') {
+                if (j + 1 == n || isLineTerminator(line.charAt(j + 1))) {
+                    noCloseBefore[kind] = j;
+                    return -1;
+                }
+                j++;
             }
         }
-        return out;
+        noCloseBefore[kind] = n;
+        return -1;
+    }
+
+    /** One whitespace-separated token: key[:=]value becomes key + value, anything else is trimmed. */
+    private static void emit(CharSequence line, int start, int end, Offsets into) {
+        int k = start;
+        while (k < end && isKeyChar(line.charAt(k))) k++;
+        if (k > start) {
+            int keyEnd = k;
+            while (k < end && isSpace(line.charAt(k))) k++;
+            if (k < end && (line.charAt(k) == ':' || line.charAt(k) == '=')) {
+                k++;
+                while (k < end - 1 && isSpace(line.charAt(k))) k++;
+                if (k < end && !hasLineTerminator(line, k, end)) {
+                    into.add(start, keyEnd, -1, -1);
+                    into.add(k, trimEnd(line, k, end), start, keyEnd);
+                    return;
+                }
+            }
+        }
+        // trim trailing punctuation but keep indices intact for redaction
+        into.add(start, trimEnd(line, start, end), -1, -1);
     }
 
-    private static void mark(boolean[] arr, int s, int e) {
-        for (int i = Math.max(0, s); i < Math.min(arr.length, e); i++) arr[i] = true;
+    private static int trimEnd(CharSequence line, int start, int end) {
+        while (end > start) {
+            switch (line.charAt(end - 1)) {
+                case ',', ';', ')', ']', '}' -> end--;
+                default -> { return end; }
+            }
+        }
+        return end;
     }
 
-    private static boolean isQuoted(boolean[] arr, int idx) {
-        return idx >= 0 && idx < arr.length && arr[idx];
+    // [A-Za-z0-9_\-.]
+    private static boolean isKeyChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '_' || c == '-' || c == '.';
+    }
+
+    // regex \s
+    private static boolean isSpace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    // chars regex '.' does not match
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private static boolean hasLineTerminator(CharSequence line, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (isLineTerminator(line.charAt(i))) return true;
+        }
+        return false;
     }
 }
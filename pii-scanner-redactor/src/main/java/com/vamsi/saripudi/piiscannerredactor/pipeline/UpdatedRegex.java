@@ -1,6 +1,8 @@
 package com.vamsi.saripudi.piiscannerredactor.pipeline;
 import com.vamsi.saripudi.piiscannerredactor.model.DetectionResult;
 import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
@@ -10,8 +12,10 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Component
-public class UpdatedRegex {
+public class UpdatedRegex implements PiiDetector {
     private final Map<MatchType, Pattern> patterns = new EnumMap<>(MatchType.class);
+    // Allocation-free replacements for the fixed-shape numeric patterns (scan.detect.numeric-scanners)
+    private final Map<MatchType, SpanScanner> scanners = new EnumMap<>(MatchType.class);
 
     // Tunable base scores by type (kept small; final scorer can add context/entropy)
     private static final Map<MatchType, Double> BASE_SCORES = Map.ofEntries(
@@ -27,6 +31,11 @@ public class UpdatedRegex {
     );
 
     public UpdatedRegex() {
+        this(true);
+    }
+
+    @Autowired
+    public UpdatedRegex(@Value("${scan.detect.numeric-scanners:true}") boolean numericScanners) {
         // EMAIL: require TLD 2-24 chars, avoid trailing dot, allow +, subdomains
         patterns.put(MatchType.EMAIL, Pattern.compile(
                 "(?<![A-Za-z0-9._%+-])" +                              // no word char just before
@@ -85,19 +94,37 @@ public class UpdatedRegex {
                         "(?:St|Street|Ave|Avenue|Rd|Road|Blvd|Boulevard|Dr|Drive|Ln|Lane|Ct|Court|Pl|Place|Way|Pkwy|Parkway)\\b",
                 Pattern.CASE_INSENSITIVE
         ));
+
+        if (numericScanners) {
+            for (SpanScanner sc : List.of(new SsnScanner(), new PhoneScanner(), new CreditCardScanner(), new Ipv4Scanner())) {
+                scanners.put(sc.type(), sc);
+            }
+        }
     }
 
     public Map<MatchType, Pattern> patterns() {
         return patterns;
     }
 
-    public List<DetectionResult> matchesToken(String token, Path file, int lineNo, int offset) {
-        if (token == null || token.isEmpty()) return List.of();
+    /** Types whose pattern is replaced by a hand-written scanner (same spans as the pattern). */
+    Map<MatchType, SpanScanner> scanners() {
+        return scanners;
+    }
+
+    @Override
+    public List<DetectionResult> matchesToken(String token, Path file, int lineNo, int offset, int candidates) {
+        if (token == null || token.isEmpty() || candidates == 0) return List.of();
 
         // Collect raw matches first
         List<DetectionResult> raw = new ArrayList<>();
         for (Map.Entry<MatchType, Pattern> entry : patterns.entrySet()) {
             MatchType type = entry.getKey();
+            if (!TokenPrefilter.allows(candidates, type)) continue;
+            SpanScanner scanner = scanners.get(type);
+            if (scanner != null) {
+                scan(scanner, token, file, lineNo, offset, raw);
+                continue;
+            }
             Pattern pattern = entry.getValue();
             Matcher matcher = pattern.matcher(token);
 
@@ -109,7 +136,7 @@ public class UpdatedRegex {
                 // Type-specific validation / suppression
                 if (!passesPostValidation(type, matched)) continue;
 
-                double score = BASE_SCORES.getOrDefault(type, 2.0);
+                double score = baseScore(type);
                 raw.add(DetectionResult.builder()
                         .filePath(file)
                         .line(lineNo)
@@ -123,8 +150,14 @@ public class UpdatedRegex {
         }
 
         if (raw.isEmpty()) return raw;
+        return keepLongest(raw);
+    }
 
-        // De-duplicate overlaps: keep the longest span; if tie, prefer higher BASE_SCORES
+    /**
+     * De-duplicate overlaps of {@code raw} (every type's matches, each type's in find() order):
+     * keep the longest span; if tie, prefer higher BASE_SCORES.
+     */
+    static List<DetectionResult> keepLongest(List<DetectionResult> raw) {
         raw.sort(Comparator
                 .comparingInt((DetectionResult r) -> r.getStartCol())
                 .thenComparingInt(r -> -r.getEndCol())); // longer first when same start
@@ -157,16 +190,44 @@ public class UpdatedRegex {
 
     // ---------------- helpers ----------------
 
+    // Same loop as Matcher.find(): a rejected span still resumes the search at its end
+    private static void scan(SpanScanner scanner, String token, Path file, int lineNo, int offset, List<DetectionResult> out) {
+        MatchType type = scanner.type();
+        int n = token.length();
+        int i = 0;
+        while (i < n) {
+            int e = scanner.matchAt(token, i);
+            if (e < 0) {
+                i++;
+                continue;
+            }
+            if (scanner.isValid(token, i, e)) {
+                out.add(DetectionResult.builder()
+                        .filePath(file)
+                        .line(lineNo)
+                        .startCol(offset + i)
+                        .endCol(offset + e)
+                        .type(type)
+                        .value(token.substring(i, e))
+                        .score(baseScore(type))
+                        .build());
+            }
+            i = e;
+        }
+    }
+
+    static double baseScore(MatchType type) {
+        return BASE_SCORES.getOrDefault(type, 2.0);
+    }
+
     private static boolean spansOverlap(int aStart, int aEnd, int bStart, int bEnd) {
         return aStart < bEnd && bStart < aEnd;
     }
 
-    private static boolean passesPostValidation(MatchType type, String value) {
+    static boolean passesPostValidation(MatchType type, String value) {
         switch (type) {
             case CREDIT_CARD:
-                String digits = value.replaceAll("[^0-9]", "");
-                if (digits.length() < 13 || digits.length() > 19) return false;
-                return luhn(digits);
+                return LuhnValidator.check(value, 0, value.length());
 
             case JWT:
                 return looksLikeValidJwt(value);
@@ -179,22 +240,6 @@ public class UpdatedRegex {
         }
     }
 
-    // Luhn mod-10
-    private static boolean luhn(String digits) {
-        int sum = 0;
-        boolean alt = false;
-        for (int i = digits.length() - 1; i >= 0; i--) {
-            int n = digits.charAt(i) - '0';
-            if (alt) {
-                n *= 2;
-                if (n > 9) n -= 9;
-            }
-            sum += n;
-            alt = !alt;
-        }
-        return sum % 10 == 0;
-    }
-
     // JWT quick sanity: 3 segments, header/payload base64url-decodable, header JSON contains {"alg":..., "typ":...} (heuristic)
     private static boolean looksLikeValidJwt(String token) {
         String[] parts = token.split("\\.");
@@ -0,0 +1,173 @@
+package com.vamsi.saripudi.piiscannerredactor.service;
+
+import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Layout of findings.bin, shared by {@link FindingsBinaryWriter} and {@link FindingsReader}.
+ *
+ * <pre>
+ * header   magic(4) version(1)
+ * block*   columns of up to BLOCK_ROWS rows:
+ *            fileId+1   varint          (index into the footer's path table, 0 = none)
+ *            line       zigzag varint   (delta to the previous row of the block)
+ *            startCol   varint
+ *            endCol     zigzag varint   (delta to startCol)
+ *            type       byte            (MatchType ordinal, -1 = none)
+ *            score      8-byte double
+ *            valueLen+1 varint          (0 = null); then the UTF-8 value heap
+ * footer   path table, then per block: offset, length, rows, file id range, line range,
+ *          per-type row counts; then per-type totals
+ * trailer  footerOffset(8) footerLength(4) magic(4)
+ * </pre>
+ * Integers in header and trailer are big-endian. A file without a trailer was not closed
+ * (job still running or aborted) and is not readable.
+ */
+final class FindingsBinaryFormat {
+
+    static final int MAGIC = 0x50494942;          // "PIIB"
+    static final byte VERSION = 1;
+    static final int HEADER_BYTES = 5;
+    static final int TRAILER_BYTES = 16;
+    static final int BLOCK_ROWS = 4096;
+    static final int TYPES = MatchType.values().length;
+
+    private FindingsBinaryFormat() {
+    }
+
+    /** Footer entry of one block. */
+    record BlockMeta(long offset, int length, int rows,
+                     int minFile, int maxFile, int minLine, int maxLine, int[] typeCounts) {
+
+        boolean singleFile() {
+            return minFile == maxFile;
+        }
+    }
+
+    // ---------------- encoding ----------------
+
+    /** Growable byte buffer; reused across blocks by the writer. */
+    static final class ByteSink {
+        private byte[] buf;
+        private int size;
+
+        ByteSink(int capacity) {
+            buf = new byte[Math.max(16, capacity)];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        void put(int b) {
+            ensure(1);
+            buf[size++] = (byte) b;
+        }
+
+        void putInt(int v) {
+            ensure(4);
+            for (int s = 24; s >= 0; s -= 8) buf[size++] = (byte) (v >>> s);
+        }
+
+        void putLong(long v) {
+            ensure(8);
+            for (int s = 56; s >= 0; s -= 8) buf[size++] = (byte) (v >>> s);
+        }
+
+        void putDouble(double v) {
+            putLong(Double.doubleToRawLongBits(v));
+        }
+
+        void putVarInt(int v) {
+            ensure(5);
+            while ((v & ~0x7F) != 0) {
+                buf[size++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[size++] = (byte) v;
+        }
+
+        void putVarLong(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[size++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[size++] = (byte) v;
+        }
+
+        void putZigZag(int v) {
+            putVarInt((v << 1) ^ (v >> 31));
+        }
+
+        void putBytes(byte[] b, int off, int len) {
+            ensure(len);
+            System.arraycopy(b, off, buf, size, len);
+            size += len;
+        }
+
+        /** UTF-8 prefixed by length+1 (0 = null). */
+        void putString(String s) {
+            if (s == null) {
+                put(0);
+                return;
+            }
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            putVarInt(b.length + 1);
+            putBytes(b, 0, b.length);
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            out.write(buf, 0, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + extra));
+        }
+    }
+
+    // ---------------- decoding ----------------
+
+    static int getVarInt(ByteBuffer b) {
+        int v = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte x = b.get();
+            v |= (x & 0x7F) << shift;
+            if (x >= 0) return v;
+            if (shift >= 28) throw new IllegalStateException("malformed varint");
+        }
+    }
+
+    static long getVarLong(ByteBuffer b) {
+        long v = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte x = b.get();
+            v |= (long) (x & 0x7F) << shift;
+            if (x >= 0) return v;
+            if (shift >= 63) throw new IllegalStateException("malformed varint");
+        }
+    }
+
+    static int getZigZag(ByteBuffer b) {
+        int v = getVarInt(b);
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    static String getString(ByteBuffer b) {
+        int len = getVarInt(b) - 1;
+        if (len < 0) return null;
+        String s = new String(b.array(), b.arrayOffset() + b.position(), len,
+                StandardCharsets.UTF_8);
+        b.position(b.position() + len);
+        return s;
+    }
+}
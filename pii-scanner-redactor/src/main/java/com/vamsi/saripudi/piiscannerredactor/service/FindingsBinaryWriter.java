@@ -0,0 +1,175 @@
+package com.vamsi.saripudi.piiscannerredactor.service;
+
+import com.vamsi.saripudi.piiscannerredactor.model.FindingsBuffer;
+import com.vamsi.saripudi.piiscannerredactor.service.FindingsBinaryFormat.BlockMeta;
+import com.vamsi.saripudi.piiscannerredactor.service.FindingsBinaryFormat.ByteSink;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.vamsi.saripudi.piiscannerredactor.service.FindingsBinaryFormat.*;
+
+/**
+ * Appends findings to findings.bin (see {@link FindingsBinaryFormat}).
+ * Rows are buffered column-wise until a block is full; the footer is written on close.
+ * Single-threaded: only the FindingsWriter thread calls it.
+ */
+final class FindingsBinaryWriter implements Closeable {
+
+    private final OutputStream out;
+    private long position;
+
+    private final Map<Path, Integer> fileIds = new HashMap<>();
+    private final List<String> files = new ArrayList<>();
+    private final List<BlockMeta> blocks = new ArrayList<>();
+    private final long[] totals = new long[TYPES];
+
+    // current block, one array per column
+    private final int[] fileCol = new int[BLOCK_ROWS];
+    private final int[] lineCol = new int[BLOCK_ROWS];
+    private final int[] startCol = new int[BLOCK_ROWS];
+    private final int[] endCol = new int[BLOCK_ROWS];
+    private final byte[] typeCol = new byte[BLOCK_ROWS];
+    private final double[] scoreCol = new double[BLOCK_ROWS];
+    private final int[] valueLen = new int[BLOCK_ROWS];      // UTF-8 bytes in valueBytes, -1 = null
+    private int rows;
+
+    private final ByteSink columns = new ByteSink(BLOCK_ROWS * 16);
+    private final ByteSink valueBytes = new ByteSink(BLOCK_ROWS * 16);     // the block's value heap, filled as rows come
+    private boolean closed;
+
+    FindingsBinaryWriter(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        this.out = new BufferedOutputStream(Files.newOutputStream(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE), 1 << 16);
+        ByteSink header = new ByteSink(HEADER_BYTES);
+        header.putInt(MAGIC);
+        header.put(VERSION);
+        write(header);
+    }
+
+    /** Row i of a file's buffer; {@code fileId} from {@link #fileId} once per buffer. The value bytes are copied as they are. */
+    void add(FindingsBuffer b, int i, int fileId) throws IOException {
+        int j = rows;
+        fileCol[j] = fileId;
+        lineCol[j] = b.line(i);
+        startCol[j] = b.startCol(i);
+        endCol[j] = b.endCol(i);
+        typeCol[j] = (byte) b.typeOrdinal(i);
+        scoreCol[j] = b.score(i);
+        int n = b.valueLength(i);
+        valueLen[j] = n;
+        if (n > 0) valueBytes.putBytes(b.utf8(), b.valueOffset(i), n);
+        if (++rows == BLOCK_ROWS) writeBlock();
+    }
+
+    /** Pushes completed blocks to disk; the open block stays buffered until it fills or close(). */
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            if (rows > 0) writeBlock();
+            writeFooter();
+        } finally {
+            out.close();
+        }
+    }
+
+    int fileId(Path file) {
+        if (file == null) return -1;
+        Integer id = fileIds.get(file);
+        if (id == null) {
+            id = files.size();
+            fileIds.put(file, id);
+            files.add(file.toString());
+        }
+        return id;
+    }
+
+    private void writeBlock() throws IOException {
+        int n = rows;
+        int minFile = Integer.MAX_VALUE, maxFile = -1;
+        int minLine = Integer.MAX_VALUE, maxLine = Integer.MIN_VALUE;
+        int[] typeCounts = new int[TYPES];
+
+        columns.reset();
+        for (int i = 0; i < n; i++) {
+            int f = fileCol[i];
+            columns.putVarInt(f + 1);
+            if (f >= 0) {
+                minFile = Math.min(minFile, f);
+                maxFile = Math.max(maxFile, f);
+            }
+        }
+        int prevLine = 0;
+        for (int i = 0; i < n; i++) {
+            columns.putZigZag(lineCol[i] - prevLine);
+            prevLine = lineCol[i];
+            minLine = Math.min(minLine, lineCol[i]);
+            maxLine = Math.max(maxLine, lineCol[i]);
+        }
+        for (int i = 0; i < n; i++) columns.putVarInt(startCol[i]);
+        for (int i = 0; i < n; i++) columns.putZigZag(endCol[i] - startCol[i]);
+        for (int i = 0; i < n; i++) {
+            columns.put(typeCol[i]);
+            if (typeCol[i] >= 0) typeCounts[typeCol[i]]++;
+        }
+        for (int i = 0; i < n; i++) columns.putDouble(scoreCol[i]);
+        for (int i = 0; i < n; i++) columns.putVarInt(valueLen[i] + 1);
+
+        long offset = position;
+        write(columns);
+        write(valueBytes);
+        valueBytes.reset();
+        for (int t = 0; t < TYPES; t++) totals[t] += typeCounts[t];
+        blocks.add(new BlockMeta(offset, (int) (position - offset), n,
+                maxFile < 0 ? -1 : minFile, maxFile, minLine, maxLine, typeCounts));
+        rows = 0;
+    }
+
+    private void writeFooter() throws IOException {
+        ByteSink footer = new ByteSink(1024 + files.size() * 64 + blocks.size() * 48);
+        footer.putVarInt(files.size());
+        for (String f : files) footer.putString(f);
+        footer.putVarInt(blocks.size());
+        for (BlockMeta b : blocks) {
+            footer.putVarLong(b.offset());
+            footer.putVarInt(b.length());
+            footer.putVarInt(b.rows());
+            footer.putVarInt(b.minFile() + 1);
+            footer.putVarInt(b.maxFile() + 1);
+            footer.putZigZag(b.minLine());
+            footer.putZigZag(b.maxLine());
+            for (int c : b.typeCounts()) footer.putVarInt(c);
+        }
+        for (long t : totals) footer.putVarLong(t);
+
+        long footerOffset = position;
+        write(footer);
+        ByteSink trailer = new ByteSink(TRAILER_BYTES);
+        trailer.putLong(footerOffset);
+        trailer.putInt(footer.size());
+        trailer.putInt(MAGIC);
+        write(trailer);
+    }
+
+    private void write(ByteSink sink) throws IOException {
+        sink.writeTo(out);
+        position += sink.size();
+    }
+}
@@ -0,0 +1,247 @@
+package com.vamsi.saripudi.piiscannerredactor.service;
+
+import com.vamsi.saripudi.piiscannerredactor.model.DetectionResult;
+import com.vamsi.saripudi.piiscannerredactor.model.FindingsPage;
+import com.vamsi.saripudi.piiscannerredactor.model.FindingsQuery;
+import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
+import com.vamsi.saripudi.piiscannerredactor.service.FindingsBinaryFormat.BlockMeta;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.vamsi.saripudi.piiscannerredactor.service.FindingsBinaryFormat.*;
+
+/**
+ * Read side of findings.bin (see {@link FindingsBinaryFormat}).
+ *
+ * Only the footer is held in memory. Queries use the per-block type counts, file id range and
+ * line range to skip blocks without reading them, and to skip whole blocks for the page offset
+ * when every row of a block matches. Other blocks are read and decoded one at a time.
+ * Not thread-safe; open one reader per request.
+ */
+public final class FindingsReader implements Closeable {
+
+    private static final MatchType[] TYPE_VALUES = MatchType.values();
+
+    private final FileChannel channel;
+    private final String[] fileNames;
+    private final Path[] files;
+    private final Map<String, Integer> fileIds;
+    private final List<BlockMeta> blocks;
+    private final long[] totals;
+
+    // decoded block, reused
+    private ByteBuffer buf = ByteBuffer.allocate(1 << 16);
+    private final int[] fileCol = new int[BLOCK_ROWS];
+    private final int[] lineCol = new int[BLOCK_ROWS];
+    private final int[] startCol = new int[BLOCK_ROWS];
+    private final int[] endCol = new int[BLOCK_ROWS];
+    private final byte[] typeCol = new byte[BLOCK_ROWS];
+    private final double[] scoreCol = new double[BLOCK_ROWS];
+    private final int[] valueOff = new int[BLOCK_ROWS];        // -1 = null
+    private final int[] valueLen = new int[BLOCK_ROWS];
+
+    private FindingsReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        if (size < HEADER_BYTES + TRAILER_BYTES) throw new IOException("findings file is incomplete");
+        ByteBuffer trailer = read(size - TRAILER_BYTES, TRAILER_BYTES);
+        long footerOffset = trailer.getLong();
+        int footerLength = trailer.getInt();
+        if (trailer.getInt() != MAGIC || footerOffset < HEADER_BYTES || footerOffset + footerLength + TRAILER_BYTES != size) {
+            throw new IOException("findings file is incomplete or not a findings file");
+        }
+        ByteBuffer header = read(0, HEADER_BYTES);
+        if (header.getInt() != MAGIC || header.get() != VERSION) throw new IOException("unsupported findings file");
+
+        ByteBuffer footer = read(footerOffset, footerLength);
+        this.fileNames = new String[getVarInt(footer)];
+        this.files = new Path[fileNames.length];
+        this.fileIds = new HashMap<>(fileNames.length * 2);
+        for (int i = 0; i < fileNames.length; i++) {
+            fileNames[i] = getString(footer);
+            files[i] = Path.of(fileNames[i]);
+            fileIds.put(fileNames[i], i);
+        }
+        int blockCount = getVarInt(footer);
+        this.blocks = new ArrayList<>(blockCount);
+        for (int b = 0; b < blockCount; b++) {
+            long offset = getVarLong(footer);
+            int length = getVarInt(footer);
+            int rows = getVarInt(footer);
+            int minFile = getVarInt(footer) - 1;
+            int maxFile = getVarInt(footer) - 1;
+            int minLine = getZigZag(footer);
+            int maxLine = getZigZag(footer);
+            int[] typeCounts = new int[TYPES];
+            for (int t = 0; t < TYPES; t++) typeCounts[t] = getVarInt(footer);
+            blocks.add(new BlockMeta(offset, length, rows, minFile, maxFile, minLine, maxLine, typeCounts));
+        }
+        this.totals = new long[TYPES];
+        for (int t = 0; t < TYPES; t++) totals[t] = getVarLong(footer);
+    }
+
+    public static FindingsReader open(Path path) throws IOException {
+        FileChannel ch = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new FindingsReader(ch);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    public long totalRows() {
+        long n = 0;
+        for (BlockMeta b : blocks) n += b.rows();
+        return n;
+    }
+
+    public long count(MatchType type) {
+        return totals[type.ordinal()];
+    }
+
+    public FindingsPage query(FindingsQuery q) throws IOException {
+        int limit = Math.max(0, q.getLimit());
+        int fileId = -1;
+        if (q.getFile() != null) {
+            fileId = indexOf(q.getFile());
+            if (fileId < 0) return FindingsPage.builder().findings(List.of()).offset(q.getOffset()).total(0L).build();
+        }
+
+        List<DetectionResult> out = new ArrayList<>(Math.min(limit, 1024));
+        long skip = Math.max(0, q.getOffset());
+        boolean more = false;
+        scan:
+        for (BlockMeta b : blocks) {
+            if (!mayMatch(b, q, fileId)) continue;
+            int whole = wholeBlockMatches(b, q, fileId);
+            if (whole >= 0 && skip >= whole) {
+                skip -= whole;
+                continue;
+            }
+            decode(b);
+            for (int i = 0; i < b.rows(); i++) {
+                if (!matches(i, q, fileId)) continue;
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                if (out.size() == limit) {
+                    more = true;
+                    break scan;
+                }
+                out.add(row(i, new DetectionResult()));
+            }
+        }
+        return FindingsPage.builder()
+                .findings(out)
+                .offset(q.getOffset())
+                .hasMore(more)
+                .total(indexedTotal(q))
+                .build();
+    }
+
+    /** Writes every finding as findings.csv (same columns as {@link FindingsWriter}). */
+    public void exportCsv(Path csv) throws IOException {
+        Path parent = csv.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        try (BufferedWriter w = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            w.write(FindingsWriter.CSV_HEADER);
+            w.newLine();
+            DetectionResult r = new DetectionResult();
+            for (BlockMeta b : blocks) {
+                decode(b);
+                for (int i = 0; i < b.rows(); i++) FindingsWriter.writeCsvRow(w, row(i, r));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // ---------------- index ----------------
+
+    private int indexOf(String file) {
+        return fileIds.getOrDefault(file, -1);
+    }
+
+    private static boolean mayMatch(BlockMeta b, FindingsQuery q, int fileId) {
+        if (q.getType() != null && b.typeCounts()[q.getType().ordinal()] == 0) return false;
+        if (fileId >= 0 && (fileId < b.minFile() || fileId > b.maxFile())) return false;
+        if (q.getFromLine() != null && b.maxLine() < q.getFromLine()) return false;
+        return q.getToLine() == null || b.minLine() <= q.getToLine();
+    }
+
+    /** Matching rows of the block when the footer alone proves it, else -1. */
+    private static int wholeBlockMatches(BlockMeta b, FindingsQuery q, int fileId) {
+        if (!q.matchesLine(b.minLine()) || !q.matchesLine(b.maxLine())) return -1;
+        if (fileId >= 0 && !(b.singleFile() && b.minFile() == fileId)) return -1;
+        return q.getType() == null ? b.rows() : b.typeCounts()[q.getType().ordinal()];
+    }
+
+    private Long indexedTotal(FindingsQuery q) {
+        if (q.getFile() != null || q.getFromLine() != null || q.getToLine() != null) return null;
+        return q.getType() == null ? totalRows() : count(q.getType());
+    }
+
+    // ---------------- blocks ----------------
+
+    private boolean matches(int i, FindingsQuery q, int fileId) {
+        if (q.getType() != null && typeCol[i] != q.getType().ordinal()) return false;
+        if (fileId >= 0 && fileCol[i] != fileId) return false;
+        return q.matchesLine(lineCol[i]);
+    }
+
+    private void decode(BlockMeta b) throws IOException {
+        ByteBuffer in = read(b.offset(), b.length());
+        int n = b.rows();
+        for (int i = 0; i < n; i++) fileCol[i] = getVarInt(in) - 1;
+        int line = 0;
+        for (int i = 0; i < n; i++) lineCol[i] = line += getZigZag(in);
+        for (int i = 0; i < n; i++) startCol[i] = getVarInt(in);
+        for (int i = 0; i < n; i++) endCol[i] = startCol[i] + getZigZag(in);
+        for (int i = 0; i < n; i++) typeCol[i] = in.get();
+        for (int i = 0; i < n; i++) scoreCol[i] = in.getDouble();
+        for (int i = 0; i < n; i++) valueLen[i] = getVarInt(in) - 1;
+        int heap = in.position();
+        for (int i = 0; i < n; i++) {
+            valueOff[i] = valueLen[i] < 0 ? -1 : heap;
+            heap += Math.max(0, valueLen[i]);
+        }
+    }
+
+    private DetectionResult row(int i, DetectionResult r) {
+        r.setFilePath(fileCol[i] < 0 ? null : files[fileCol[i]]);
+        r.setLine(lineCol[i]);
+        r.setStartCol(startCol[i]);
+        r.setEndCol(endCol[i]);
+        r.setType(typeCol[i] < 0 ? null : TYPE_VALUES[typeCol[i]]);
+        r.setValue(valueOff[i] < 0 ? null : new String(buf.array(), valueOff[i], valueLen[i], StandardCharsets.UTF_8));
+        r.setScore(scoreCol[i]);
+        return r;
+    }
+
+    /** Reads {@code length} bytes at {@code position} into the reused buffer. */
+    private ByteBuffer read(long position, int length) throws IOException {
+        if (buf.capacity() < length) buf = ByteBuffer.allocate(Math.max(length, buf.capacity() * 2));
+        buf.clear().limit(length);
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, position + buf.position()) < 0) throw new IOException("findings file is truncated");
+        }
+        return buf.flip();
+    }
+}
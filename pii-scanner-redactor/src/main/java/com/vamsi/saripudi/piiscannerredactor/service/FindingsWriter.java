@@ -0,0 +1,329 @@
+package com.vamsi.saripudi.piiscannerredactor.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.vamsi.saripudi.piiscannerredactor.model.DetectionResult;
+import com.vamsi.saripudi.piiscannerredactor.model.FindingsBuffer;
+import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Findings output of one job.
+ *
+ * findings.csv, findings.jsonl and findings.bin (each optional) stay open for the job's lifetime.
+ * Workers hand over batches through a lock-free queue; a single writer thread drains it and flushes
+ * in groups: once {@code flushRows} rows are pending or {@code flushMillis} have passed since the
+ * last flush.
+ * Jobs each have their own writer, so they never contend with each other.
+ *
+ * JSONL goes through one long-lived JsonGenerator per job. Fields are emitted by hand with
+ * pre-encoded names, so a row costs no reflection and no intermediate String.
+ *
+ * Batches are {@link FindingsBuffer}s: rows are written from their columns, the file path is
+ * formatted once per batch and values go out as the buffer's UTF-8 bytes.
+ */
+public final class FindingsWriter implements Closeable {
+
+    static final String CSV_HEADER = "file,line,startCol,endCol,type,value,score";
+
+    // No separator between root values: each row ends with its own '\n'
+    private static final JsonFactory JSON = new JsonFactoryBuilder()
+            .rootValueSeparator((String) null)
+            .enable(StreamWriteFeature.USE_FAST_DOUBLE_WRITER)
+            .build();
+
+    private static final SerializableString F_FILE = new SerializedString("filePath");
+    private static final SerializableString F_LINE = new SerializedString("line");
+    private static final SerializableString F_START = new SerializedString("startCol");
+    private static final SerializableString F_END = new SerializedString("endCol");
+    private static final SerializableString F_TYPE = new SerializedString("type");
+    private static final SerializableString F_VALUE = new SerializedString("value");
+    private static final SerializableString F_SCORE = new SerializedString("score");
+    private static final SerializableString[] TYPE_NAMES = new SerializableString[MatchType.values().length];
+
+    static {
+        for (MatchType t : MatchType.values()) TYPE_NAMES[t.ordinal()] = new SerializedString(t.name());
+    }
+
+    private final ConcurrentLinkedQueue<FindingsBuffer> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean sleeping = new AtomicBoolean(false);
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final BufferedWriter csv;         // null when the job has no CSV path
+    private final JsonGenerator jsonl;        // null when the job has no JSONL path
+    private final FindingsBinaryWriter bin;   // null when the job has no binary path
+    private final int flushRows;
+    private final long flushNanos;
+    private final Thread thread;
+    private char[] csvChars = new char[256];  // writer thread: ASCII values widened for the CSV writer
+
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    FindingsWriter(String name, Path csvPath, Path jsonlPath, int flushRows, long flushMillis) throws IOException {
+        this(name, csvPath, jsonlPath, null, flushRows, flushMillis);
+    }
+
+    FindingsWriter(String name, Path csvPath, Path jsonlPath, Path binPath,
+                   int flushRows, long flushMillis) throws IOException {
+        this.flushRows = Math.max(1, flushRows);
+        this.flushNanos = Math.max(1L, flushMillis) * 1_000_000L;
+        this.csv = csvPath == null ? null : open(csvPath);
+        this.jsonl = jsonlPath == null ? null : JSON.createGenerator(openStream(jsonlPath), JsonEncoding.UTF8);
+        this.bin = binPath == null ? null : new FindingsBinaryWriter(binPath);
+        if (csv != null && Files.size(csvPath) == 0) {
+            csv.write(CSV_HEADER);
+            csv.newLine();
+        }
+        this.thread = Thread.ofPlatform().daemon().name("findings-" + name).start(this::run);
+    }
+
+    /** Queue one file's findings; never blocks on I/O. Reports an earlier write failure. */
+    public void submit(FindingsBuffer batch) throws IOException {
+        checkFailure();
+        if (closed) throw new IOException("findings writer is closed");
+        if (batch == null || batch.isEmpty()) return;
+        queue.add(batch);
+        if (sleeping.compareAndSet(true, false)) LockSupport.unpark(thread);
+    }
+
+    /** Queue findings as objects: one buffer per run of rows with the same path. */
+    public void submit(List<DetectionResult> batch) throws IOException {
+        if (batch == null) return;
+        FindingsBuffer run = null;
+        for (DetectionResult r : batch) {
+            if (run == null || !Objects.equals(run.file(), r.getFilePath())) {
+                submit(run);
+                run = new FindingsBuffer(r.getFilePath());
+            }
+            run.add(r);
+        }
+        submit(run);
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    /** Drain what is queued, flush and close the files. */
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted while closing findings writer");
+            } finally {
+                closeQuietly(csv);
+                closeQuietly(jsonl);
+                closeQuietly(bin);
+            }
+        }
+        checkFailure();
+    }
+
+    // ---------------- writer thread ----------------
+
+    private void run() {
+        long lastFlush = System.nanoTime();
+        int pending = 0;                      // rows written since the last flush
+        try {
+            while (true) {
+                FindingsBuffer batch = queue.poll();
+                if (batch != null) {
+                    writeBatch(batch);
+                    pending += batch.size();
+                    rowsWritten.addAndGet(batch.size());
+                    if (pending >= flushRows) {
+                        flush();
+                        pending = 0;
+                        lastFlush = System.nanoTime();
+                    }
+                    continue;
+                }
+
+                long now = System.nanoTime();
+                if (pending > 0 && now - lastFlush >= flushNanos) {
+                    flush();
+                    pending = 0;
+                    lastFlush = now;
+                }
+                if (closed) {
+                    if (!queue.isEmpty()) continue;
+                    break;
+                }
+
+                sleeping.set(true);
+                if (queue.isEmpty() && !closed) {
+                    LockSupport.parkNanos(this, pending > 0 ? flushNanos - (now - lastFlush) : flushNanos);
+                }
+                sleeping.set(false);
+            }
+            flush();
+        } catch (IOException e) {
+            failure = e;
+        } catch (RuntimeException e) {
+            failure = new IOException("findings writer failed", e);
+        }
+    }
+
+    private void writeBatch(FindingsBuffer b) throws IOException {
+        Path file = b.file();
+        String path = file == null ? null : file.toString();
+        if (csv != null) {
+            String csvPath = escapeCsv(path);
+            for (int i = 0; i < b.size(); i++) writeCsvRow(csv, csvPath, b, i);
+        }
+        if (jsonl != null) {
+            for (int i = 0; i < b.size(); i++) writeJson(path, b, i);
+        }
+        if (bin != null) {
+            int fileId = bin.fileId(file);
+            for (int i = 0; i < b.size(); i++) bin.add(b, i, fileId);
+        }
+    }
+
+    private void writeCsvRow(Writer w, String csvPath, FindingsBuffer b, int i) throws IOException {
+        w.write(csvPath);
+        w.write(',');
+        w.write(Integer.toString(b.line(i)));
+        w.write(',');
+        w.write(Integer.toString(b.startCol(i)));
+        w.write(',');
+        w.write(Integer.toString(b.endCol(i)));
+        w.write(',');
+        MatchType t = b.type(i);
+        w.write(t == null ? "" : escapeCsv(t.name()));
+        w.write(',');
+        writeCsvValue(w, b, i);
+        w.write(',');
+        w.write(Double.toString(b.score(i)));
+        w.write(System.lineSeparator());
+    }
+
+    // Plain ASCII (the usual value) is widened straight from the UTF-8 bytes; anything else goes through escapeCsv
+    private void writeCsvValue(Writer w, FindingsBuffer b, int i) throws IOException {
+        int n = b.valueLength(i);
+        if (n <= 0) return;
+        byte[] utf8 = b.utf8();
+        int off = b.valueOffset(i);
+        if (n > csvChars.length) csvChars = new char[Math.max(n, csvChars.length * 2)];
+        char[] out = csvChars;
+        for (int k = 0; k < n; k++) {
+            byte c = utf8[off + k];
+            if (c < 0 || c == ',' || c == '"' || c == '\n' || c == '\r') {
+                w.write(escapeCsv(b.value(i)));
+                return;
+            }
+            out[k] = (char) c;
+        }
+        w.write(out, 0, n);
+    }
+
+    private void writeJson(String path, FindingsBuffer b, int i) throws IOException {
+        JsonGenerator g = jsonl;
+        g.writeStartObject();
+        g.writeFieldName(F_FILE);
+        g.writeString(path);
+        g.writeFieldName(F_LINE);
+        g.writeNumber(b.line(i));
+        g.writeFieldName(F_START);
+        g.writeNumber(b.startCol(i));
+        g.writeFieldName(F_END);
+        g.writeNumber(b.endCol(i));
+        g.writeFieldName(F_TYPE);
+        int t = b.typeOrdinal(i);
+        if (t < 0) g.writeNull();
+        else g.writeString(TYPE_NAMES[t]);
+        g.writeFieldName(F_VALUE);
+        int n = b.valueLength(i);
+        if (n < 0) g.writeNull();
+        else g.writeUTF8String(b.utf8(), b.valueOffset(i), n);     // escaped like writeString
+        g.writeFieldName(F_SCORE);
+        g.writeNumber(b.score(i));
+        g.writeEndObject();
+        g.writeRaw('\n');
+    }
+
+    static void writeCsvRow(Writer w, DetectionResult r) throws IOException {
+        w.write(escapeCsv(r.getFilePath() == null ? "" : r.getFilePath().toString()));
+        w.write(',');
+        w.write(Integer.toString(r.getLine()));
+        w.write(',');
+        w.write(Integer.toString(r.getStartCol()));
+        w.write(',');
+        w.write(Integer.toString(r.getEndCol()));
+        w.write(',');
+        w.write(escapeCsv(r.getType() == null ? "" : r.getType().name()));
+        w.write(',');
+        w.write(escapeCsv(r.getValue()));
+        w.write(',');
+        w.write(Double.toString(r.getScore()));
+        w.write(System.lineSeparator());
+    }
+
+    private void flush() throws IOException {
+        if (csv != null) csv.flush();
+        if (jsonl != null) jsonl.flush();
+        if (bin != null) bin.flush();
+    }
+
+    private void checkFailure() throws IOException {
+        IOException f = failure;
+        if (f != null) throw new IOException("findings writer failed: " + f.getMessage(), f);
+    }
+
+    private static BufferedWriter open(Path path) throws IOException {
+        return Files.newBufferedWriter(createParent(path), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    // The generator buffers on its own, so it gets the raw stream
+    private static OutputStream openStream(Path path) throws IOException {
+        return Files.newOutputStream(createParent(path), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static Path createParent(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        return path;
+    }
+
+    private static void closeQuietly(Closeable w) {
+        if (w == null) return;
+        try {
+            w.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    static String escapeCsv(String s) {
+        if (s == null) return "";
+        boolean needsQuote = s.contains(",") || s.contains("\"") || s.contains("\n") || s.contains("\r");
+        String out = s.replace("\"", "\"\"");
+        return needsQuote ? ("\"" + out + "\"") : out;
+    }
+}
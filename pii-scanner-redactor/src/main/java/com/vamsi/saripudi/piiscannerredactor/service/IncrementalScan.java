@@ -0,0 +1,156 @@
+package com.vamsi.saripudi.piiscannerredactor.service;
+
+import com.vamsi.saripudi.piiscannerredactor.model.DetectionResult;
+import com.vamsi.saripudi.piiscannerredactor.model.FileSummary;
+import com.vamsi.saripudi.piiscannerredactor.model.FindingsQuery;
+import com.vamsi.saripudi.piiscannerredactor.model.ScanJob;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Reuse / record side of one incremental job.
+ *
+ * A file is unchanged when its size matches the previous manifest and either its mtime matches
+ * or (mtime touched, or verify-hash on) its CRC32C does. Unchanged files get their old findings
+ * from the previous job's findings.bin and a copy of the old redacted file instead of a rescan.
+ * The CRC32C of a scanned file comes from the bytes the scan read; chunked files and large
+ * binaries have none (-1), so they are hashed separately when verify-hash is on, and rescanned
+ * when only their mtime was touched otherwise.
+ *
+ * Nothing is reused if the previous job redacted with other settings (policy, token prefix,
+ * IV mode), as its redacted copies would not be what this job writes. Every file of this job,
+ * reused or scanned, goes into the next manifest, which is saved only if the job completes.
+ */
+final class IncrementalScan implements Closeable {
+
+    private final ScanManifest previous;
+    private final ScanManifest next;
+    private final boolean verifyHash;
+    private final boolean sameSettings;                 // previous job redacted the way this one does
+    private final String findingsBin;                   // this job's store, referenced by the next manifest
+    // Previous stores by path: idle readers (a reader serves one query at a time, so workers reusing
+    // files of the same store each borrow one), every reader opened, stores that failed to open
+    private final Map<String, Queue<FindingsReader>> idleReaders = new ConcurrentHashMap<>();
+    private final Queue<FindingsReader> openedReaders = new ConcurrentLinkedQueue<>();
+    private final Set<String> unreadable = ConcurrentHashMap.newKeySet();
+
+    /** @param settings this job's redaction settings ({@code Redactor.settings}) */
+    IncrementalScan(ScanJob job, boolean verifyHash, String settings) {
+        this.previous = ScanManifest.load(job.getManifest());
+        this.next = ScanManifest.empty(job.getManifest());
+        this.next.setSettings(settings);
+        this.verifyHash = verifyHash;
+        this.sameSettings = previous.getSettings().equals(next.getSettings());
+        this.findingsBin = job.getFindingsBin().toAbsolutePath().toString();
+    }
+
+    /** The previous results of {@code file} if it is unchanged (redacted copy already in place), else null. */
+    FileSummary reuse(ScanJob job, Path file, BasicFileAttributes attrs, ReportingService reporting) throws IOException {
+        if (!sameSettings) return null;
+        ScanManifest.Entry prior = previous.get(file);
+        if (prior == null || prior.size() != attrs.size()) return null;
+        long mtime = attrs.lastModifiedTime().toMillis();
+        if ((mtime != prior.mtimeMillis() || verifyHash)
+                && (prior.crc32c() < 0 || ScanManifest.crc32c(file) != prior.crc32c())) return null;
+
+        if (prior.binary()) {
+            next.put(file, new ScanManifest.Entry(file.toString(), attrs.size(), mtime, prior.crc32c(),
+                    true, 0, null, null));
+            return FileSummary.binary(file, attrs.size());
+        }
+
+        List<DetectionResult> findings = priorFindings(prior);
+        if (findings == null) return null;
+        Path target = reporting.redactedTarget(job, file);
+        if (target != null) {
+            if (prior.redacted() == null) return null;
+            Path source = Path.of(prior.redacted());
+            if (!Files.isRegularFile(source)) return null;
+            Path parent = target.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            if (!source.toAbsolutePath().normalize().equals(target.toAbsolutePath().normalize())) {
+                Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        for (DetectionResult r : findings) r.setFilePath(file);
+
+        next.put(file, new ScanManifest.Entry(file.toString(), attrs.size(), mtime, prior.crc32c(), false,
+                findings.size(), findingsBin, target == null ? null : target.toAbsolutePath().toString()));
+        return FileSummary.text(file, attrs.size(), findings, target);
+    }
+
+    /**
+     * Add a freshly scanned file; skipped if it changed or disappeared while being scanned (it is
+     * rescanned next time).
+     */
+    void record(Path file, BasicFileAttributes before, FileSummary summary) throws IOException {
+        long crc = summary.getCrc32c();
+        BasicFileAttributes after;
+        try {
+            if (crc < 0 && verifyHash) crc = ScanManifest.crc32c(file);
+            after = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        if (after.size() != before.size() || !after.lastModifiedTime().equals(before.lastModifiedTime())) return;
+
+        Path redacted = summary.getRedactedFile();
+        next.put(file, new ScanManifest.Entry(file.toString(), before.size(), before.lastModifiedTime().toMillis(),
+                crc, summary.isBinary(), summary.getFindingCount(),
+                summary.isBinary() ? null : findingsBin,
+                redacted == null ? null : redacted.toAbsolutePath().toString()));
+    }
+
+    void save() throws IOException {
+        next.save();
+    }
+
+    @Override
+    public void close() {
+        for (FindingsReader r; (r = openedReaders.poll()) != null; ) {
+            try {
+                r.close();
+            } catch (IOException ignored) {
+            }
+        }
+        idleReaders.clear();
+    }
+
+    /** All rows of the file in the previous store, or null if they cannot be trusted any more. */
+    private List<DetectionResult> priorFindings(ScanManifest.Entry prior) throws IOException {
+        if (prior.findings() == 0) return List.of();
+        if (prior.findingsBin() == null || unreadable.contains(prior.findingsBin())) return null;
+        Queue<FindingsReader> idle = idleReaders.computeIfAbsent(prior.findingsBin(), k -> new ConcurrentLinkedQueue<>());
+        FindingsReader r = idle.poll();
+        if (r == null) {
+            try {
+                r = FindingsReader.open(Path.of(prior.findingsBin()));
+            } catch (IOException e) {
+                unreadable.add(prior.findingsBin());    // old job deleted or never finished: rescan its files
+                return null;
+            }
+            openedReaders.add(r);
+        }
+        try {
+            List<DetectionResult> rows = r.query(FindingsQuery.builder()
+                    .file(prior.scannedPath())
+                    .limit(Integer.MAX_VALUE)
+                    .build()).getFindings();
+            return rows.size() == prior.findings() ? rows : null;
+        } finally {
+            idle.offer(r);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.vamsi.saripudi.piiscannerredactor.service;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Redacted mirror of one input file, written line by line while the file is scanned.
+ *
+ * Output goes to a hidden temp file next to the target; {@link #commit()} renames it into
+ * place atomically, {@link #close()} without a commit deletes it, so readers never see a
+ * half-written file. Large files scanned in chunks write one {@link #openPart() part} per
+ * chunk and {@link #append} them in file order. Without a target (job has no redacted
+ * root) everything written is discarded.
+ */
+public final class RedactedOutput implements Closeable {
+
+    private static final int BUFFER_CHARS = 64 * 1024;
+
+    private final Path target;        // null for parts and discarded output
+    private final Path temp;          // null when discarding
+    private final OutputStream out;
+    private final Writer writer;
+    private boolean done;
+
+    private RedactedOutput(Path target, Path temp, OutputStream out) {
+        this.target = target;
+        this.temp = temp;
+        this.out = out;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_CHARS);
+    }
+
+    static RedactedOutput open(Path target) throws IOException {
+        if (target == null) return new RedactedOutput(null, null, OutputStream.nullOutputStream());
+        Path dir = target.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, "." + target.getFileName(), ".part");
+        return new RedactedOutput(target, temp, Files.newOutputStream(temp));
+    }
+
+    public Writer writer() {
+        return writer;
+    }
+
+    /** Separate temp file for one chunk, in the same directory. */
+    public RedactedOutput openPart() throws IOException {
+        if (temp == null) return new RedactedOutput(null, null, OutputStream.nullOutputStream());
+        Path part = Files.createTempFile(temp.getParent(), temp.getFileName().toString(), ".chunk");
+        return new RedactedOutput(null, part, Files.newOutputStream(part));
+    }
+
+    /** Copy a finished part to the end of this output and delete it. */
+    public void append(RedactedOutput part) throws IOException {
+        part.writer.close();
+        part.done = true;
+        writer.flush();
+        if (part.temp != null) {
+            Files.copy(part.temp, out);
+            Files.deleteIfExists(part.temp);
+        }
+    }
+
+    /** Flush, close and move the temp file onto the target. */
+    public void commit() throws IOException {
+        writer.close();
+        done = true;
+        if (target == null) return;
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (done) return;
+        done = true;
+        try {
+            writer.close();
+        } finally {
+            if (temp != null) Files.deleteIfExists(temp);
+        }
+    }
+}
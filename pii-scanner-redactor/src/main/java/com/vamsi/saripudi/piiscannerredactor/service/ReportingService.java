@@ -2,49 +2,99 @@ package com.vamsi.saripudi.piiscannerredactor.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
-import com.vamsi.saripudi.piiscannerredactor.model.DetectionResult;
 import com.vamsi.saripudi.piiscannerredactor.model.FileSummary;
+import com.vamsi.saripudi.piiscannerredactor.model.FindingsFormat;
 import com.vamsi.saripudi.piiscannerredactor.model.ScanJob;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.UncheckedIOException;
 import java.nio.file.*;
-import java.util.List;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class ReportingService {
 
-    private final ReentrantLock csvLock = new ReentrantLock();
-    private final ReentrantLock jsonlLock = new ReentrantLock();
     private final ObjectMapper mapper = new ObjectMapper()
             .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
+    // One open writer per running job (no lock shared across jobs)
+    private final Map<String, FindingsWriter> writers = new ConcurrentHashMap<>();
+
+    // Used when the job does not choose its own format (csv | jsonl | both)
+    @Value("${scan.findings.format:both}")
+    private String defaultFormat;
+
+    @Value("${scan.findings.flush-rows:4096}")
+    private int flushRows;
+
+    @Value("${scan.findings.flush-millis:200}")
+    private long flushMillis;
+
 
     /**
      * Merge a single file's results into the job outputs.
-     * - Appends findings to CSV and JSONL
-     * - Writes the redacted file to the mirrored path (if present)
+     * - Queues findings on the job's FindingsWriter (findings.bin, plus JSONL per {@link #formatOf})
+     * (the redacted file was already streamed into place by the worker, see {@link #openRedacted})
      */
     public void merge(ScanJob job, FileSummary summary) throws IOException {
-        // 1) Append findings
-        appendFindings(job.getFindingsCsv(), job.getFindingsJsonl(), summary.getFindings());
-
-        // 2) Write redacted file (if this was a text file)
-        if (summary.getRedactedContent() != null) {
-            Path target = job.getRedactedRoot().resolve(relativizeSafe(summary.getFile()));
-            Files.createDirectories(target.getParent());
-            try (BufferedWriter bw = Files.newBufferedWriter(
-                    target, StandardCharsets.UTF_8,
-                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
-                bw.write(summary.getRedactedContent());
+        if (summary.getFindingCount() == 0) return;
+        openFindings(job).submit(summary.getFindingsBuffer());
+    }
+
+    /** The job's findings writer, opened on first use; files stay open until {@link #closeFindings}. */
+    public FindingsWriter openFindings(ScanJob job) throws IOException {
+        try {
+            return writers.computeIfAbsent(job.getId(), id -> {
+                FindingsFormat format = formatOf(job);
+                Path bin = job.getFindingsBin();
+                try {
+                    // with a binary store the CSV is exported from it in closeFindings
+                    return new FindingsWriter(id,
+                            format.writesCsv() && bin == null ? job.getFindingsCsv() : null,
+                            format.writesJsonl() ? job.getFindingsJsonl() : null,
+                            bin, flushRows, flushMillis);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** The job's own findings format, else {@code scan.findings.format}. */
+    public FindingsFormat formatOf(ScanJob job) {
+        if (job.getFindingsFormat() != null) return job.getFindingsFormat();
+        FindingsFormat configured = FindingsFormat.parse(defaultFormat);
+        return configured == null ? FindingsFormat.BOTH : configured;
+    }
+
+    /** Flush and close the job's findings files (job completed, failed or cancelled), then export the CSV. */
+    public void closeFindings(ScanJob job) throws IOException {
+        FindingsWriter w = writers.remove(job.getId());
+        if (w == null) return;
+        w.close();
+        if (job.getFindingsBin() != null && job.getFindingsCsv() != null && formatOf(job).writesCsv()) {
+            try (FindingsReader reader = FindingsReader.open(job.getFindingsBin())) {
+                reader.exportCsv(job.getFindingsCsv());
             }
         }
     }
 
+    /** Mirrored path of the redacted copy of {@code file}, or null if the job has no redacted root. */
+    public Path redactedTarget(ScanJob job, Path file) {
+        if (job.getRedactedRoot() == null) return null;
+        return job.getRedactedRoot().resolve(relativizeSafe(file));
+    }
+
+    /** Streaming writer for the redacted copy of {@code file}; commit() moves it into place. */
+    public RedactedOutput openRedacted(ScanJob job, Path file) throws IOException {
+        return RedactedOutput.open(redactedTarget(job, file));
+    }
+
     /**
      * Called once after all file futures have been collected.
      * Writes a summary.json file with job stats and findings summary.
@@ -122,64 +172,6 @@ public class ReportingService {
 //    }
 
 
-    private void appendFindings(Path csv, Path jsonl, List<DetectionResult> findings) throws IOException {
-        if (findings == null || findings.isEmpty()) return;
-
-        // CSV lock
-        csvLock.lock();
-        try {
-            boolean writeHeader = !Files.exists(csv);
-            try (BufferedWriter w = Files.newBufferedWriter(
-                    csv, StandardCharsets.UTF_8,
-                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
-                if (writeHeader) {
-                    w.write("file,line,startCol,endCol,type,value,score");
-                    w.newLine();
-                }
-                for (DetectionResult r : findings) {
-                    w.write(escapeCsv(r.getFilePath() == null ? "" : r.getFilePath().toString()));
-                    w.write(',');
-                    w.write(Integer.toString(r.getLine()));
-                    w.write(',');
-                    w.write(Integer.toString(r.getStartCol()));
-                    w.write(',');
-                    w.write(Integer.toString(r.getEndCol()));
-                    w.write(',');
-                    w.write(escapeCsv(r.getType() == null ? "" : r.getType().name()));
-                    w.write(',');
-                    w.write(escapeCsv(r.getValue()));
-                    w.write(',');
-                    w.write(Double.toString(r.getScore()));
-                    w.newLine();
-                }
-            }
-        } finally {
-            csvLock.unlock();
-        }
-
-//        // JSONL (guarded)
-//        jsonlLock.lock();
-//        try (BufferedWriter w = Files.newBufferedWriter(
-//                jsonl, StandardCharsets.UTF_8,
-//                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
-//
-//            for (DetectionResult r : findings) {
-//                w.write(mapper.writeValueAsString(r));
-//                w.newLine();
-//            }
-//        } finally {
-//            jsonlLock.unlock();
-//        }
-    }
-
-    private static String escapeCsv(String s) {
-        if (s == null) return "";
-        boolean needsQuote = s.contains(",") || s.contains("\"") || s.contains("\n") || s.contains("\r");
-        String out = s.replace("\"", "\"\"");
-        return needsQuote ? ("\"" + out + "\"") : out;
-    }
-
-
     private static Path relativizeSafe(Path file) {
         Path p = file.toAbsolutePath().normalize();
         if (p.getParent() == null) return Path.of(p.getFileName().toString());
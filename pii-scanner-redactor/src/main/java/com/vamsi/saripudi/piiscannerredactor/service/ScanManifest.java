@@ -0,0 +1,177 @@
+package com.vamsi.saripudi.piiscannerredactor.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+
+/**
+ * Per-input-set record of what the last incremental job scanned: for every file its size, mtime,
+ * CRC32C and where its findings and redacted copy were written, plus the redaction settings the
+ * redacted copies were written with (a job with other settings reuses nothing).
+ *
+ * One manifest per set of input paths, named after a hash of the normalized inputs, so the next
+ * job over the same inputs finds it whatever its own output root is. Thread-safe for put/get;
+ * saved atomically (temp file + move) only when a job completes.
+ */
+public final class ScanManifest {
+
+    private static final int MAGIC = 0x50494D46;      // "PIMF"
+    private static final int VERSION = 2;        // 2: redaction settings after the version
+
+    /**
+     * @param scannedPath path as the scanner recorded it in the findings (file filter for findings.bin)
+     * @param crc32c      CRC32C of the whole file (-1 if not computed)
+     * @param findingsBin findings.bin holding this file's rows (null for binaries)
+     * @param redacted    redacted copy (null if none was written)
+     */
+    public record Entry(String scannedPath, long size, long mtimeMillis, long crc32c, boolean binary,
+                        int findings, String findingsBin, String redacted) {
+    }
+
+    private final Path path;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile String settings = "";
+
+    private ScanManifest(Path path) {
+        this.path = path;
+    }
+
+    /** Manifest file for this set of inputs under {@code dir}. */
+    public static Path locate(Path dir, List<Path> inputs) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            inputs.stream().map(ScanManifest::key).sorted().forEach(k -> {
+                sha.update(k.getBytes(StandardCharsets.UTF_8));
+                sha.update((byte) 0);
+            });
+            return dir.resolve("manifest-" + HexFormat.of().formatHex(sha.digest(), 0, 12) + ".bin");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Empty manifest for {@code path}; nothing is read. */
+    public static ScanManifest empty(Path path) {
+        return new ScanManifest(path);
+    }
+
+    /** The saved manifest, or an empty one if there is none (or it is unreadable). */
+    public static ScanManifest load(Path path) {
+        ScanManifest m = new ScanManifest(path);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return m;
+            m.settings = in.readUTF();
+            int n = in.readInt();
+            for (int i = 0; i < n; i++) {
+                String key = in.readUTF();
+                m.entries.put(key, new Entry(in.readUTF(), in.readLong(), in.readLong(), in.readLong(),
+                        in.readBoolean(), in.readInt(), readNullable(in), readNullable(in)));
+            }
+        } catch (NoSuchFileException e) {
+            return m;
+        } catch (IOException e) {
+            // a damaged manifest only costs a full rescan
+            m.entries.clear();
+        }
+        return m;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /** Redaction settings of the job that wrote this manifest ("" if unknown). */
+    public String getSettings() {
+        return settings;
+    }
+
+    public void setSettings(String settings) {
+        this.settings = settings == null ? "" : settings;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public Entry get(Path file) {
+        return entries.get(key(file));
+    }
+
+    public void put(Path file, Entry entry) {
+        entries.put(key(file), entry);
+    }
+
+    public void save() throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(settings);
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                Entry v = e.getValue();
+                out.writeUTF(e.getKey());
+                out.writeUTF(v.scannedPath());
+                out.writeLong(v.size());
+                out.writeLong(v.mtimeMillis());
+                out.writeLong(v.crc32c());
+                out.writeBoolean(v.binary());
+                out.writeInt(v.findings());
+                writeNullable(out, v.findingsBin());
+                writeNullable(out, v.redacted());
+            }
+        }
+        try {
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /** CRC32C of the whole file (hardware-accelerated). */
+    public static long crc32c(Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buf = ByteBuffer.allocate(1 << 16);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (ch.read(buf) >= 0) {
+                buf.flip();
+                crc.update(buf);
+                buf.clear();
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static String key(Path file) {
+        return file.toAbsolutePath().normalize().toString();
+    }
+
+    private static void writeNullable(DataOutputStream out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) out.writeUTF(s);
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -1,8 +1,11 @@
 package com.vamsi.saripudi.piiscannerredactor.service;
 
+import com.vamsi.saripudi.piiscannerredactor.model.FindingsFormat;
 import com.vamsi.saripudi.piiscannerredactor.model.ScanJob;
 import com.vamsi.saripudi.piiscannerredactor.model.JobStatus;
+import com.vamsi.saripudi.piiscannerredactor.pipeline.RedactionPolicy;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
@@ -19,26 +22,27 @@ public class ScanOrchestrator {
     private final ExecutorService fileExecutor; // from ThreadConfig (virtual threads)
     private final JobRegistry registry;
     private final ScannerService scanner;
+    private final TailScanService tail;
 
+    @Value("${scan.incremental.enabled:false}")
+    private boolean incrementalByDefault;
 
-    public ScanJob submit(List<Path> inputs) throws IOException {
-        Path jobsRoot = Path.of("jobs");
-        Files.createDirectories(jobsRoot);
 
-        // Create ScanJob first to get the UUID
-        ScanJob job = ScanJob.create(inputs, Path.of("jobs"));
-
-        // Use the job ID to create the output folder
-        Path outputRoot = jobsRoot.resolve("job_" + job.getId());
-
-        // Set the output root and related paths
-        job.setOutputRoot(outputRoot);
-        job.setRedactedRoot(outputRoot.resolve("redacted"));
-        job.setFindingsCsv(outputRoot.resolve("findings.csv"));
-        job.setFindingsJsonl(outputRoot.resolve("findings.jsonl"));
+    public ScanJob submit(List<Path> inputs) throws IOException {
+        return submit(inputs, null, null, null);
+    }
 
-        Files.createDirectories(job.getOutputRoot());
-        Files.createDirectories(job.getRedactedRoot());
+    /**
+     * {@code findingsFormat} / {@code incremental} / {@code redactionPolicy} null = the configured default.
+     * Incremental jobs share one manifest per set of inputs under jobs/manifests.
+     */
+    public ScanJob submit(List<Path> inputs, FindingsFormat findingsFormat, Boolean incremental,
+                          RedactionPolicy redactionPolicy) throws IOException {
+        Path jobsRoot = Path.of("jobs");
+        ScanJob job = newJob(jobsRoot, inputs, findingsFormat, redactionPolicy);
+        if (incremental != null ? incremental : incrementalByDefault) {
+            job.setManifest(ScanManifest.locate(jobsRoot.resolve("manifests"), inputs));
+        }
         registry.create(job);
 
         fileExecutor.submit(() -> {
@@ -56,6 +60,31 @@ public class ScanOrchestrator {
         return job;
     }
 
+    /**
+     * Long-running job following {@code dir} (see {@link TailScanService}) until it is cancelled.
+     * Runs on its own daemon thread so it never holds one of the scan workers.
+     */
+    public ScanJob watch(Path dir, FindingsFormat findingsFormat, RedactionPolicy redactionPolicy) throws IOException {
+        if (!Files.isDirectory(dir)) throw new IllegalArgumentException("not a directory: " + dir);
+        ScanJob job = newJob(Path.of("jobs"), List.of(dir), findingsFormat, redactionPolicy);
+        job.setFindingsBin(null);
+        job.setWatch(true);
+        registry.create(job);
+
+        Thread.ofPlatform().daemon().name("watch-" + job.getId()).start(() -> {
+            try {
+                job.markRunning();
+                tail.run(job, dir);
+                job.markCompletedIfNotCanceled();
+            } catch (Throwable t) {
+                job.markFailed(t);
+            } finally {
+                registry.update(job);
+            }
+        });
+        return job;
+    }
+
     public void cancel(String jobId) {
         registry.get(jobId).ifPresent(ScanJob::requestCancel);
     }
@@ -63,4 +92,29 @@ public class ScanOrchestrator {
     public JobStatus statusOf(String jobId) {
         return registry.get(jobId).map(ScanJob::getStatus).orElse(null);
     }
+
+    /** New job with its output folder (jobs/job_<id>) and output paths created. */
+    private static ScanJob newJob(Path jobsRoot, List<Path> inputs, FindingsFormat findingsFormat,
+                                  RedactionPolicy redactionPolicy) throws IOException {
+        Files.createDirectories(jobsRoot);
+
+        // Create ScanJob first to get the UUID
+        ScanJob job = ScanJob.create(inputs, jobsRoot);
+
+        // Use the job ID to create the output folder
+        Path outputRoot = jobsRoot.resolve("job_" + job.getId());
+
+        // Set the output root and related paths
+        job.setOutputRoot(outputRoot);
+        job.setRedactedRoot(outputRoot.resolve("redacted"));
+        job.setFindingsCsv(outputRoot.resolve("findings.csv"));
+        job.setFindingsJsonl(outputRoot.resolve("findings.jsonl"));
+        job.setFindingsBin(outputRoot.resolve("findings.bin"));
+        job.setFindingsFormat(findingsFormat);
+        job.setRedactionPolicy(redactionPolicy);
+
+        Files.createDirectories(job.getOutputRoot());
+        Files.createDirectories(job.getRedactedRoot());
+        return job;
+    }
 }
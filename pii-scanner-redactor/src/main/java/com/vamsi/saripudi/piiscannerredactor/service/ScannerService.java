@@ -1,109 +1,486 @@
 package com.vamsi.saripudi.piiscannerredactor.service;
 
+import com.vamsi.saripudi.piiscannerredactor.encryption.TokenCache;
 import com.vamsi.saripudi.piiscannerredactor.model.DetectionResult;
+import com.vamsi.saripudi.piiscannerredactor.model.FindingsBuffer;
 import com.vamsi.saripudi.piiscannerredactor.model.FileSummary;
 import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
 import com.vamsi.saripudi.piiscannerredactor.model.ScanJob;
 import com.vamsi.saripudi.piiscannerredactor.pipeline.*;
 import com.vamsi.saripudi.piiscannerredactor.util.BinarySniffer;
+import com.vamsi.saripudi.piiscannerredactor.util.ChannelLineReader;
 import com.vamsi.saripudi.piiscannerredactor.util.FileWalker;
+import com.vamsi.saripudi.piiscannerredactor.util.LineReader;
+import com.vamsi.saripudi.piiscannerredactor.util.MappedLineReader;
+import com.vamsi.saripudi.piiscannerredactor.util.WalkFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+import java.util.zip.CRC32C;
 
 /**
  * Core scanning engine:
- *  - Walk input paths to files.
- *  - For each file, submit a virtual-thread task (file-level parallelism).
+ *  - Walk input paths to files (directories listed in parallel on the walk pool), submitting each file as it is found.
+ *  - For each file, submit a worker task (file-level parallelism), at most scan.max-in-flight at a time.
+ *  - Files above scan.chunk.threshold-bytes are split into newline-aligned chunks scanned on a fork-join pool.
+ *  - Files above scan.mmap.threshold-bytes (and all chunks) are read from a memory map, not a Reader.
  *  - For each line, tokenize (space-first w/ tiny key=value support), detect, redact left->right.
- *  - Merge findings to CSV/JSONL and write redacted mirror via ReportingService.
+ *  - Stream redacted lines to a temp file in the mirror tree (renamed into place when the file is done).
+ *  - Merge findings via ReportingService as files complete (scan.ordered-merge: in submission order).
+ *  - Incremental jobs (a manifest is set on the job) reuse the previous results of unchanged files.
  */
 @Service
 public class ScannerService {
 
+    private static final int READ_BUFFER_BYTES = 64 * 1024;     // first read of a small file (usually all of it)
+
     private final ExecutorService fileExecutor;     // virtual threads
+    private final int inFlightLimit;                // files submitted but not yet merged
+    private final boolean orderedMerge;             // merge in submission order instead of completion order
+    private final ForkJoinPool chunkPool;           // chunks of one large file
+    private final ForkJoinPool walkPool;            // directory listing (FileWalker.walk)
+    private final WalkFilter walkFilter;            // hidden files, include / exclude globs
+    private final int walkQueueCapacity;            // found files waiting to be submitted
+    private final long chunkThresholdBytes;         // <= 0 disables chunking
+    private final long chunkSizeBytes;
+    private final long mmapThresholdBytes;          // <= 0 disables the mapped reader
     private final ReportingService reporting;
     private final BinarySniffer sniffer;
 //    private final RegexMatcher regex;
-    private final UpdatedRegex regex;
+    private final PiiDetector regex;                // UpdatedRegex or MultiPatternEngine (scan.detect.engine)
+    private final TokenPrefilter prefilter;
+    private final boolean prefilterEnabled;
+    private final DetectionMode detectionMode;
     private final EntropyScorer entropy;
+    private final KeyHintDictionary keyHints;       // key=value tiers: classify / skip / boost (scan.keys)
     private final Redactor redactor;
+    private final RedactionPolicy redactionPolicy;  // jobs without their own (scan.redact.policy)
     private final LuhnValidator luhn;
+    private final boolean incrementalVerifyHash;   // re-hash files even when size and mtime match
 
     @Autowired
     public ScannerService(@Qualifier("fileExecutor") ExecutorService fileExecutor,
+                         @Qualifier("chunkPool") ForkJoinPool chunkPool,
+                         @Qualifier("walkPool") ForkJoinPool walkPool,
+                         WalkFilter walkFilter,
                          ReportingService reporting,
                          BinarySniffer sniffer,
                          UpdatedRegex regex,
+                         MultiPatternEngine multiPattern,
+                         TokenPrefilter prefilter,
                          EntropyScorer entropy,
+                         KeyHintDictionary keyHints,
                          Redactor redactor,
-                         LuhnValidator luhn) {
+                         LuhnValidator luhn,
+                         @Value("${scan.detect.engine:regex}") String engine,
+                         @Value("${scan.detect.prefilter:true}") boolean prefilterEnabled,
+                         @Value("${scan.detect.mode:token}") String detectionMode,
+                         @Value("${scan.redact.policy:enc}") String redactionPolicy,
+                         @Value("${scan.chunk.threshold-bytes:67108864}") long chunkThresholdBytes,
+                         @Value("${scan.chunk.size-bytes:8388608}") long chunkSizeBytes,
+                         @Value("${scan.mmap.threshold-bytes:4194304}") long mmapThresholdBytes,
+                         @Value("${thread.count}") int threadCount,
+                         @Value("${scan.max-in-flight:0}") int maxInFlight,
+                         @Value("${scan.ordered-merge:false}") boolean orderedMerge,
+                         @Value("${scan.incremental.verify-hash:false}") boolean incrementalVerifyHash,
+                         @Value("${scan.walk.queue-capacity:65536}") int walkQueueCapacity) {
         this.fileExecutor = fileExecutor;
+        this.inFlightLimit = maxInFlight > 0 ? maxInFlight : 2 * Math.max(1, threadCount);
+        this.orderedMerge = orderedMerge;
+        this.chunkPool = chunkPool;
+        this.walkPool = walkPool;
+        this.walkFilter = walkFilter;
+        this.walkQueueCapacity = walkQueueCapacity;
+        this.chunkThresholdBytes = chunkThresholdBytes;
+        // a chunk is read into one byte[]
+        this.chunkSizeBytes = Math.max(1L, chunkSizeBytes);
+        this.mmapThresholdBytes = mmapThresholdBytes;
         this.reporting = reporting;
         this.sniffer = sniffer;
-        this.regex = regex;
+        this.regex = "multi".equalsIgnoreCase(engine) ? multiPattern : regex;
+        this.prefilter = prefilter;
+        this.prefilterEnabled = prefilterEnabled;
+        this.detectionMode = DetectionMode.valueOf(detectionMode.trim().toUpperCase(Locale.ROOT));
         this.entropy = entropy;
+        this.keyHints = keyHints;
         this.redactor = redactor;
+        this.redactionPolicy = RedactionPolicy.parse(redactionPolicy);
         this.luhn = luhn;
+        this.incrementalVerifyHash = incrementalVerifyHash;
     }
 
     /** Run a scan job across all files under the given inputs. */
     public void scan(ScanJob job, List<Path> inputs) throws Exception {
-        List<Path> files = FileWalker.listFiles(inputs);
-        job.setFilesTotal(files.size());
+        scan(job, inputs, orderedMerge);
+    }
 
-        var futures = files.stream()
-                .map(p -> fileExecutor.submit(() -> processOne(job, p)))
-                .collect(Collectors.toList());
+    void scan(ScanJob job, List<Path> inputs, boolean ordered) throws Exception {
+        // Files are submitted while the walk is still going; filesTotal counts up until it is done.
+        // Ordered merge walks sequentially, so submission (and CSV) order stays Files.walk order.
+        job.setFilesTotal(0);
+        FileWalker.Walk walk = FileWalker.walk(inputs, walkFilter, walkPool, !ordered,
+                walkQueueCapacity, job::raiseFilesTotal);
+
+        // Bounded window: a file is submitted only when a slot frees up, so pending tasks, futures and
+        // unmerged summaries never exceed inFlightLimit whatever the job size.
+        // Completion order: whichever file finishes first is merged first, so one big file does not hold
+        // back the results (and progress counters) of everything submitted after it.
+        Set<Future<FileSummary>> window = new LinkedHashSet<>();          // iteration = submission order
+        CompletionService<FileSummary> completed = ordered ? null : new ExecutorCompletionService<>(fileExecutor);
+        // Incremental needs somewhere to reuse findings from (findings.bin)
+        IncrementalScan incremental = job.getManifest() != null && job.getFindingsBin() != null
+                ? new IncrementalScan(job, incrementalVerifyHash, redactor.settings(redactionPolicyOf(job))) : null;
+        reporting.openFindings(job);
+        Throwable failure = null;
+        try {
+            for (Path next = walk.next(); next != null && !job.isCancelRequested(); next = walk.next()) {
+                Path p = next;
+                if (window.size() >= inFlightLimit) mergeNext(job, window, completed);
+                Callable<FileSummary> task = incremental == null
+                        ? () -> processOne(job, p)
+                        : () -> processIncremental(job, p, incremental);
+                window.add(ordered ? fileExecutor.submit(task) : completed.submit(task));
+                job.addInFlight(1);
+            }
+            if (!job.isCancelRequested()) job.setFilesTotal(walk.found());
+            while (!window.isEmpty() && !job.isCancelRequested()) {
+                mergeNext(job, window, completed);
+            }
+        } catch (Throwable t) {
+            failure = t;
+            throw t;
+        } finally {
+            walk.cancel();
+            // Cancelled or failed: only the window is left to stop, not the whole backlog
+            for (Future<FileSummary> f : window) f.cancel(true);
+            job.addInFlight(-window.size());
+            try {
+                reporting.closeFindings(job);
+            } catch (IOException | RuntimeException e) {
+                // a failed job keeps its own cause; the close failure rides along
+                if (failure == null) throw e;
+                failure.addSuppressed(e);
+            } finally {
+                if (incremental != null) incremental.close();
+            }
+        }
+        // Only a complete job may become the baseline of the next one
+        if (incremental != null && !job.isCancelRequested()) incremental.save();
 
-        for (var f : futures) {
-            if (job.isCancelRequested()) break;
-            FileSummary summary = f.get();
-            reporting.merge(job, summary);
-            job.incFilesScanned();
-            job.addBytes(summary.getBytes());
+//        reporting.finalizeOutputs(job);
+    }
+
+    private RedactionPolicy redactionPolicyOf(ScanJob job) {
+        return job.getRedactionPolicy() != null ? job.getRedactionPolicy() : redactionPolicy;
+    }
 
+    /** Merge the next finished file (completion order), or wait for the oldest one when completed is null. */
+    private void mergeNext(ScanJob job, Set<Future<FileSummary>> window,
+                           CompletionService<FileSummary> completed) throws Exception {
+        Future<FileSummary> f = completed != null ? completed.take() : window.iterator().next();
+        window.remove(f);
+        FileSummary summary;
+        try {
+            summary = f.get();
+        } finally {
+            job.addInFlight(-1);
         }
+        reporting.merge(job, summary);
+        job.incFilesScanned();
+        job.addBytes(summary.getBytes());
+    }
 
-//        reporting.finalizeOutputs(job);
+    /** Reuse the previous results of an unchanged file, otherwise scan it and record it for the next job. */
+    FileSummary processIncremental(ScanJob job, Path file, IncrementalScan incremental) throws IOException {
+        BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return FileSummary.binary(file, 0L);        // gone since the walk: nothing to scan or record
+        }
+        FileSummary reused = incremental.reuse(job, file, attrs, reporting);
+        if (reused != null) {
+            job.addSkipped(reused.getBytes());
+            return reused;
+        }
+        FileSummary summary = processOne(job, file, true);
+        if (!job.isCancelRequested()) incremental.record(file, attrs, summary);
+        return summary;
     }
 
-    /** Process a single file sequentially (line by line). */
-    private FileSummary processOne(ScanJob job, Path file) throws IOException {
-        long size = Files.isRegularFile(file) ? Files.size(file) : 0L;
+    /**
+     * Process a single file: line by line, or in parallel chunks when it is large.
+     * The file is opened once: its size comes from the open channel, and the first buffer read is
+     * both sniffed for binary content and handed to the line reader.
+     */
+    FileSummary processOne(ScanJob job, Path file) throws IOException {
+        return processOne(job, file, false);
+    }
 
-        if (sniffer.isBinary(file)) {
-            // Skip binaries; still count bytes and mark as binary summary
-            return FileSummary.binary(file, size);
+    /**
+     * {@code checksum}: also take the file's CRC32C from the bytes read for the scan (incremental
+     * manifest). Not available for chunked files and binaries bigger than the first read.
+     */
+    FileSummary processOne(ScanJob job, Path file, boolean checksum) throws IOException {
+        FileChannel ch;
+        try {
+            ch = FileChannel.open(file, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            return FileSummary.binary(file, 0L);        // gone since the walk: nothing to scan
         }
+        try (ch) {
+            long size = ch.size();
+            if (mmapThresholdBytes > 0 && size >= mmapThresholdBytes
+                    || chunkThresholdBytes > 0 && size >= chunkThresholdBytes) {
+                byte[] header = new byte[(int) Math.min(size, sniffer.headerBytes())];
+                int n = readFully(ch, header, header.length);
+                if (sniffer.isBinary(header, n)) return FileSummary.binary(file, size);
+                if (chunkThresholdBytes > 0 && size >= chunkThresholdBytes) {
+                    return processChunked(job, file, size, chunkSizeBytes);
+                }
+                CRC32C crc = checksum ? new CRC32C() : null;
+                return scanFile(job, file, size, MappedLineReader.over(ch, 0, size, crc), crc);
+            }
 
-        List<DetectionResult> findings = new ArrayList<>();
-        StringBuilder redacted = new StringBuilder(Math.min((int) Math.max(4096, size), 1 << 20));
+            // small file: all of it in one read (bytes appended after the size lookup are not scanned)
+            byte[] buf = new byte[(int) Math.min(Math.max(size, 1), READ_BUFFER_BYTES)];
+            int n = readFully(ch, buf, size);
+            if (sniffer.isBinary(buf, n)) {
+                if (!checksum || n < size) return FileSummary.binary(file, size);
+                CRC32C crc = new CRC32C();
+                crc.update(buf, 0, n);
+                return FileSummary.binary(file, size, crc.getValue());
+            }
+            CRC32C crc = checksum ? new CRC32C() : null;
+            return scanFile(job, file, size, new ChannelLineReader(ch, buf, n, n >= size, crc), crc);
+        }
+    }
 
-        try (BufferedReader br = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
-            String line;
-            int lineNo = 0;
-            while ((line = br.readLine()) != null) {
-                lineNo++;
-                LineResult lr = processLine(file, lineNo, line, "ENC"); // default mode; make configurable
-                findings.addAll(lr.findings);
-                redacted.append(lr.redacted).append('\n');
+    /** {@code crc}: fed by the reader (null = none); read once every line has been read. */
+    private FileSummary scanFile(ScanJob job, Path file, long size, LineReader reader, CRC32C crc) throws IOException {
+        FindingsBuffer findings = new FindingsBuffer(file);
+        ScanCounters counters = new ScanCounters();
 
-                if (job.isCancelRequested()) break;
+        // Heap per file stays constant: redacted lines go straight to disk
+        try (RedactedOutput redacted = reporting.openRedacted(job, file);
+             LineReader lines = reader) {
+            scanLines(job, file, lines, 0, findings, redacted.writer(), counters);
+            redacted.commit();
+        }
+        job.addRegexInvocations(counters.regexRun, counters.regexSkipped);
+        job.addTokenCacheLookups(counters.tokenCache.hits(), counters.tokenCache.misses());
+
+        return FileSummary.text(file, size, findings, reporting.redactedTarget(job, file),
+                crc == null ? -1L : crc.getValue());
+    }
+
+    /** Reads from position 0 until {@code buf} is full, {@code limit} bytes are in or the file ends. */
+    private static int readFully(FileChannel ch, byte[] buf, long limit) throws IOException {
+        ByteBuffer bb = ByteBuffer.wrap(buf, 0, (int) Math.min(buf.length, limit));
+        while (bb.hasRemaining()) {
+            if (ch.read(bb, bb.position()) < 0) break;
+        }
+        return bb.position();
+    }
+
+    /**
+     * Lines appended to a tailed file: numbered after {@code lineBase}, findings added to
+     * {@code findings}, redacted lines written to {@code redacted}. Returns the number of lines read.
+     */
+    int scanAppended(ScanJob job, Path file, LineReader lines, int lineBase,
+                     FindingsBuffer findings, Writer redacted) throws IOException {
+        ScanCounters counters = new ScanCounters();
+        int n = scanLines(job, file, lines, lineBase, findings, redacted, counters);
+        job.addRegexInvocations(counters.regexRun, counters.regexSkipped);
+        job.addTokenCacheLookups(counters.tokenCache.hits(), counters.tokenCache.misses());
+        return n;
+    }
+
+    /** Detect + redact every line of the reader (numbered after lineBase); returns the number of lines read. */
+    private int scanLines(ScanJob job, Path file, LineReader br, int lineBase,
+                          FindingsBuffer findings, Writer redacted, ScanCounters counters) throws IOException {
+        RedactionPolicy policy = redactionPolicyOf(job);
+        String line;
+        int lineNo = lineBase;
+        while ((line = br.readLine()) != null) {
+            lineNo++;
+            if (!line.isEmpty()) {
+                List<DetectionResult> hits = detectLine(file, lineNo, line, detectionMode, counters);
+                // Rows go in by offsets: the values are encoded from the line itself
+                for (DetectionResult r : hits) {
+                    findings.add(lineNo, r.getStartCol(), r.getEndCol(), r.getType().ordinal(), r.getScore(), line);
+                }
+                redacted.write(redactLeftToRight(line, hits, file, lineNo, policy, counters));
             }
+            redacted.write('\n');
+
+            if (job.isCancelRequested()) break;
+        }
+        return lineNo - lineBase;
+    }
+
+    // ---- intra-file parallelism (large files) ----
+
+    /** One chunk's output; finding line numbers are chunk-relative until stitched. */
+    private record ChunkResult(FindingsBuffer findings, RedactedOutput redacted, int lines, ScanCounters counters) {}
+
+    /**
+     * Split the file at newline boundaries near every {@code chunkSize} bytes, scan the chunks on the
+     * fork-join pool, then stitch them back in file order: line numbers are shifted by the lines of all
+     * earlier chunks (prefix sum) and the chunks' redacted part files are appended in order.
+     */
+    FileSummary processChunked(ScanJob job, Path file, long size, long chunkSize) throws IOException {
+        long[] bounds;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            bounds = chunkBounds(ch, size, chunkSize);
         }
 
-        return FileSummary.text(file, size, findings, redacted.toString());
+        FindingsBuffer findings = new FindingsBuffer(file);
+        ScanCounters counters = new ScanCounters();
+        Queue<RedactedOutput> opened = new ConcurrentLinkedQueue<>();   // every part, for cleanup on failure
+        try (RedactedOutput redacted = reporting.openRedacted(job, file)) {
+            List<ChunkResult> parts;
+            try {
+                parts = chunkPool.invoke(new ChunkTask(job, file, redacted, opened, bounds, 0, bounds.length - 1));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            int lineBase = 0;
+            for (ChunkResult part : parts) {
+                findings.addAll(part.findings, lineBase);
+                redacted.append(part.redacted);
+                lineBase += part.lines;
+                counters.regexRun += part.counters.regexRun;
+                counters.regexSkipped += part.counters.regexSkipped;
+                counters.tokenCache.add(part.counters.tokenCache);
+            }
+            redacted.commit();
+        } finally {
+            for (RedactedOutput part : opened) {
+                try {
+                    part.close();           // no-op for parts already appended
+                } catch (IOException ignored) {
+                }
+            }
+        }
+        job.addRegexInvocations(counters.regexRun, counters.regexSkipped);
+        job.addTokenCacheLookups(counters.tokenCache.hits(), counters.tokenCache.misses());
+
+        return FileSummary.text(file, size, findings, reporting.redactedTarget(job, file));
+    }
+
+    /**
+     * Chunk start offsets plus {@code size} as the last entry. Every start except 0 is the byte after a
+     * '\n', so no line (and no \r\n pair or UTF-8 sequence) is split; a chunk may exceed chunkSize when
+     * a line does.
+     */
+    static long[] chunkBounds(FileChannel ch, long size, long chunkSize) throws IOException {
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer buf = ByteBuffer.allocate(8192);
+        long pos = chunkSize;
+        while (pos < size) {
+            long next = -1;
+            // find the first '\n' at or after pos
+            while (next < 0 && pos < size) {
+                buf.clear();
+                int n = ch.read(buf, pos);
+                if (n <= 0) break;
+                for (int i = 0; i < n; i++) {
+                    if (buf.get(i) == '\n') {
+                        next = pos + i + 1;
+                        break;
+                    }
+                }
+                if (next < 0) pos += n;
+            }
+            if (next < 0 || next >= size) break;
+            bounds.add(next);
+            pos = next + chunkSize;
+        }
+        bounds.add(size);
+
+        long[] out = new long[bounds.size()];
+        for (int i = 0; i < out.length; i++) out[i] = bounds.get(i);
+        return out;
+    }
+
+    /** Scan one chunk with the normal line pipeline, straight from the mapped bytes. */
+    private ChunkResult scanChunk(ScanJob job, Path file, RedactedOutput part, long from, long to) throws IOException {
+        FindingsBuffer findings = new FindingsBuffer(file);
+        ScanCounters counters = new ScanCounters();
+        int lines;
+        try (LineReader lr = MappedLineReader.open(file, from, to)) {
+            lines = scanLines(job, file, lr, 0, findings, part.writer(), counters);
+        }
+        return new ChunkResult(findings, part, lines, counters);
+    }
+
+    /** Halves the chunk range until one chunk is left; results come back in file order. */
+    private final class ChunkTask extends RecursiveTask<List<ChunkResult>> {
+        private final ScanJob job;
+        private final Path file;
+        private final RedactedOutput output;
+        private final Queue<RedactedOutput> opened;
+        private final long[] bounds;
+        private final int lo, hi;       // chunk indexes [lo, hi)
+
+        ChunkTask(ScanJob job, Path file, RedactedOutput output, Queue<RedactedOutput> opened,
+                  long[] bounds, int lo, int hi) {
+            this.job = job;
+            this.file = file;
+            this.output = output;
+            this.opened = opened;
+            this.bounds = bounds;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected List<ChunkResult> compute() {
+            if (hi - lo == 1) {
+                try {
+                    RedactedOutput part = output.openPart();
+                    opened.add(part);
+                    if (job.isCancelRequested()) return List.of(new ChunkResult(new FindingsBuffer(file), part, 0, new ScanCounters()));
+                    return List.of(scanChunk(job, file, part, bounds[lo], bounds[lo + 1]));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            int mid = (lo + hi) >>> 1;
+            ChunkTask left = new ChunkTask(job, file, output, opened, bounds, lo, mid);
+            ChunkTask right = new ChunkTask(job, file, output, opened, bounds, mid, hi);
+            left.fork();
+            List<ChunkResult> r = right.compute();
+            List<ChunkResult> out = new ArrayList<>(hi - lo);
+            out.addAll(left.join());
+            out.addAll(r);
+            return out;
+        }
     }
 
     // ---- per-line pipeline (space-first tokenization) ----
@@ -113,41 +490,100 @@ public class ScannerService {
 //        Tok(String t, int s, int e, String key) { text = t; start = s; end = e; keyHint = key; }
 //    }
 
-    private record LineResult(String redacted, List<DetectionResult> findings) {}
-
-    /**
-     * Tokenize -> detect -> merge -> redact (left->right).
-     * Tokenization: split by spaces, but keep quoted segments intact; emit value side of key=value with keyHint.
-     */
-    private LineResult processLine(Path file, int lineNo, String line, String mode) {
-        if (line == null || line.isEmpty()) return new LineResult("", List.of());
+    /** Per-file counters, folded into the ScanJob once the file is done (no shared atomics per token). */
+    static final class ScanCounters {
+        long regexRun;
+        long regexSkipped;
+        final TokenCache.Stats tokenCache = new TokenCache.Stats();
+    }
 
-        List<Tokenizer.Token> tokens = Tokenizer.tokenize(line);
+    /** All findings of one line, sorted by start column. */
+    List<DetectionResult> detectLine(Path file, int lineNo, String line, DetectionMode mode, ScanCounters counters) {
+        // Offsets into the line (this thread's buffers): a token is only cut out when a detector needs the String
+        Tokenizer.Offsets tokens = Tokenizer.offsets(line);
         ArrayList<DetectionResult> hits = new ArrayList<>();
 
-        for (Tokenizer.Token t : tokens) {
-            // Regex against token (detector returns line-relative offsets via supplied offset)
-            List<DetectionResult> rx = regex.matchesToken(t.text, file, lineNo, t.start);
-            // Yet to implement this feature
-//            if (t.keyHint != null && !t.keyHint.isBlank()) {
-//                regex.maybeBoostByKeyContext(rx, t.keyHint);
-//            }
+        if (mode == DetectionMode.LINE) {
+            // One regex pass over the whole line: columns are already line columns (offset 0)
+            List<DetectionResult> rx = detect(line, 0, line.length(), file, lineNo, counters);
+            hits.addAll(rx);
+
+            // Tokens only feed the entropy scorer; skip the ones a pattern already claimed
+            for (int i = 0; i < tokens.count(); i++) {
+                int start = tokens.start(i), end = tokens.end(i);
+                KeyHintDictionary.Hint hint = keyHint(tokens, i);
+                if (hint != null && hint.tier() != KeyHintDictionary.Tier.BOOST) {
+                    // the key decides: whatever the line pass found inside the value is dropped
+                    hits.removeIf(r -> r.getStartCol() >= start && r.getEndCol() <= end);
+                    classify(line, start, end, hint, file, lineNo, hits);
+                    continue;
+                }
+                if (hint != null) keyHints.boost(hits, hint, start, end);
+                if (overlapsAny(rx, start, end)) continue;
+                hits.addAll(entropy.evaluateToken(line, start, end, file, lineNo));
+            }
+            hits.removeIf(r -> r.getType() == MatchType.CREDIT_CARD && !luhn.isValid(r.getValue()));
+        } else {
+            for (int i = 0; i < tokens.count(); i++) {
+                int start = tokens.start(i), end = tokens.end(i);
+                KeyHintDictionary.Hint hint = keyHint(tokens, i);
+                if (hint != null && hint.tier() != KeyHintDictionary.Tier.BOOST) {
+                    // password=..., token=... are findings as they stand; level=..., ts=... are not scanned
+                    counters.regexSkipped += TokenPrefilter.skippedBy(0);
+                    classify(line, start, end, hint, file, lineNo, hits);
+                    continue;
+                }
+                // Regex against token (detector returns line-relative offsets via supplied offset)
+                List<DetectionResult> rx = detect(line, start, end, file, lineNo, counters);
+
+                // Entropy detector (token-wise)
+                List<DetectionResult> en = entropy.evaluateToken(line, start, end, file, lineNo);
+                if (rx.isEmpty() && en.isEmpty()) continue;
+
+                // Merge and dedupe overlaps (same type: keep longer/higher score)
+                List<DetectionResult> merged = new ArrayList<>(mergeAndDedupe(rx, en));
+                // Luhn-gate credit cards
+                merged.removeIf(r -> r.getType() == MatchType.CREDIT_CARD && !luhn.isValid(r.getValue()));
+                // A dense window straddling a pattern hit is cut back to the part outside it
+                if (!rx.isEmpty() && !en.isEmpty()) clipStraddlingWindows(line, merged);
+                // email=..., ssn=...: findings of the type the key names are more certain
+                if (hint != null) keyHints.boost(merged, hint, start, end);
+
+                hits.addAll(merged);
+            }
+        }
 
-            // Entropy detector (token-wise)
-            List<DetectionResult> en = entropy.evaluateToken(t.text, file, lineNo, t.start);
+        hits.sort(Comparator.comparingInt(DetectionResult::getStartCol));
+        return hits;
+    }
 
-            // Merge and dedupe overlaps (same type: keep longer/higher score)
-            List<DetectionResult> merged = new ArrayList<>(mergeAndDedupe(rx, en));
-            // Luhn-gate credit cards
-            merged.removeIf(r -> r.getType() == MatchType.CREDIT_CARD && !luhn.isValid(r.getValue()));
+    private KeyHintDictionary.Hint keyHint(Tokenizer.Offsets tokens, int i) {
+        return tokens.hasKey(i) ? keyHints.find(tokens.line(), tokens.keyStart(i), tokens.keyEnd(i)) : null;
+    }
 
-            hits.addAll(merged);
-        }
+    private void classify(String line, int start, int end, KeyHintDictionary.Hint hint, Path file, int lineNo,
+                          List<DetectionResult> hits) {
+        if (hint.tier() != KeyHintDictionary.Tier.CLASSIFY) return;
+        DetectionResult r = keyHints.classify(line, start, end, hint, file, lineNo);
+        if (r != null) hits.add(r);
+    }
 
-        hits.sort(Comparator.comparingInt(DetectionResult::getStartCol));
-        String red = redactLeftToRight(line, hits, file, lineNo, mode);
+    /** Prefilter + pattern detector over line[start, end) (a token, or the whole line). */
+    private List<DetectionResult> detect(String line, int start, int end, Path file, int lineNo, ScanCounters counters) {
+        // Prefilter: only patterns whose required chars/literals are present get a Matcher
+        int candidates = prefilterEnabled ? prefilter.candidateMask(line, start, end) : TokenPrefilter.ALL;
+        counters.regexRun += TokenPrefilter.evaluatedBy(candidates);
+        counters.regexSkipped += TokenPrefilter.skippedBy(candidates);
+        if (candidates == 0 || start == end) return List.of();
+        String text = start == 0 && end == line.length() ? line : line.substring(start, end);
+        return regex.matchesToken(text, file, lineNo, start, candidates);
+    }
 
-        return new LineResult(red, hits);
+    private static boolean overlapsAny(List<DetectionResult> spans, int start, int end) {
+        for (DetectionResult r : spans) {
+            if (r.getStartCol() < end && start < r.getEndCol()) return true;
+        }
+        return false;
     }
 
     /** Space-first tokenizer with two carve-outs: quoted strings and key=value (emit value token w/ key hint). */
@@ -226,19 +662,35 @@ public class ScannerService {
         return out;
     }
 
+    /**
+     * HIGH_ENTROPY spans that run into (or out of) a pattern hit of another type are cut back to the
+     * part outside that hit, so the two redact side by side; a span left empty is dropped. Spans that
+     * nest are left as they are: {@link Redactor#splice}
+     * replaces the outer one.
+     */
+    private static void clipStraddlingWindows(String line, List<DetectionResult> hits) {
+        for (int i = 0; i < hits.size(); i++) {
+            DetectionResult w = hits.get(i);
+            if (w.getType() != MatchType.HIGH_ENTROPY) continue;
+            int s = w.getStartCol(), e = w.getEndCol();
+            for (DetectionResult r : hits) {
+                if (r.getType() == MatchType.HIGH_ENTROPY || r.getEndCol() <= s || r.getStartCol() >= e) continue;
+                if (r.getStartCol() <= s && r.getEndCol() < e) s = r.getEndCol();          // covers the head
+                else if (r.getStartCol() > s && r.getEndCol() >= e) e = r.getStartCol();   // covers the tail
+            }
+            if (s == w.getStartCol() && e == w.getEndCol()) continue;
+            if (s >= e) {
+                hits.remove(i--);
+                continue;
+            }
+            hits.set(i, DetectionResult.builder().filePath(w.getFilePath()).line(w.getLine())
+                    .startCol(s).endCol(e).type(w.getType()).value(line.substring(s, e)).score(w.getScore()).build());
+        }
+    }
+
     /** Build redacted string by splicing replacements left->right (avoid index shifts). */
     private String redactLeftToRight(String line, List<DetectionResult> hits,
-                                     Path file, int lineNo, String mode) {
-        StringBuilder sb = new StringBuilder(line.length() + 32);
-        int cursor = 0;
-        for (DetectionResult r : hits) {
-            int s = r.getStartCol(), e = r.getEndCol();
-            if (s < cursor) continue;                 // already replaced by previous span
-            if (s > cursor) sb.append(line, cursor, s);
-            sb.append(redactor.encryptToken(r.getValue(), r.getType() ,file));
-            cursor = e;
-        }
-        if (cursor < line.length()) sb.append(line, cursor, line.length());
-        return sb.toString();
+                                     Path file, int lineNo, RedactionPolicy policy, ScanCounters counters) {
+        return redactor.redact(line, hits, policy, counters.tokenCache);
     }
 }
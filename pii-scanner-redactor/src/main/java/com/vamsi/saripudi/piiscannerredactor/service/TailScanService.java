@@ -0,0 +1,41 @@
+package com.vamsi.saripudi.piiscannerredactor.service;
+
+import com.vamsi.saripudi.piiscannerredactor.model.ScanJob;
+import com.vamsi.saripudi.piiscannerredactor.util.BinarySniffer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Watch mode: follows an append-only log directory and scans only the bytes appended to it
+ * (see {@link TailSession}). Findings are streamed to the job's CSV / JSONL as they are found.
+ */
+@Service
+@RequiredArgsConstructor
+public class TailScanService {
+
+    private final ScannerService scanner;
+    private final ReportingService reporting;
+    private final BinarySniffer sniffer;
+
+    // Longest wait for a change event before the next check / directory sweep
+    @Value("${scan.watch.poll-millis:250}")
+    private long pollMillis;
+
+    // false = files already present when the watch starts are followed from their end
+    @Value("${scan.watch.from-start:true}")
+    private boolean fromStart;
+
+
+    /** Follows {@code dir} until the job is cancelled; the findings files are closed on the way out. */
+    public void run(ScanJob job, Path dir) throws IOException {
+        try (TailSession session = new TailSession(job, dir, scanner, reporting, sniffer, pollMillis)) {
+            session.run(fromStart);
+        } finally {
+            reporting.closeFindings(job);
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.vamsi.saripudi.piiscannerredactor.service;
+
+import com.vamsi.saripudi.piiscannerredactor.model.FileSummary;
+import com.vamsi.saripudi.piiscannerredactor.model.FindingsBuffer;
+import com.vamsi.saripudi.piiscannerredactor.model.ScanJob;
+import com.vamsi.saripudi.piiscannerredactor.util.BinarySniffer;
+import com.vamsi.saripudi.piiscannerredactor.util.MappedLineReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * One watch job: follows every regular file under a directory and scans only what is appended.
+ *
+ * Each file is tracked by identity (the file key, i.e. inode, where the file system has one)
+ * with an open channel, the byte offset of the first unscanned line and the number of lines
+ * seen. Only complete lines are scanned; a trailing partial line waits for its newline unless
+ * the file is going away. Appended lines are redacted onto the end of the file's mirror under
+ * the redacted root, and their findings go straight to the job's findings writer.
+ *
+ * Rotation: a file renamed inside its directory keeps its offset and line numbers, and its
+ * mirror is renamed with it; a new file at the old name starts from line 1 with a fresh mirror.
+ * A truncated file (copytruncate) restarts from line 1 as well. A deleted file is drained
+ * through its still open channel, then dropped. Checkpoints live only as long as the job.
+ *
+ * Change events come from a WatchService; a full walk every poll interval catches anything it
+ * missed (overflow, polling implementations, directories created before they were registered).
+ * Single-threaded: everything runs on the job's thread.
+ */
+final class TailSession implements Closeable {
+
+    private static final int TAIL_PROBE_BYTES = 8192;
+
+    private final ScanJob job;
+    private final Path root;
+    private final ScannerService scanner;
+    private final ReportingService reporting;
+    private final BinarySniffer sniffer;
+    private final long pollMillis;
+
+    private final WatchService watcher;
+    private final Set<Path> watchedDirs = new HashSet<>();
+    private final Map<Object, TailedFile> byKey = new HashMap<>();
+    private final Map<Path, TailedFile> byPath = new HashMap<>();
+    private int sweepNo;
+
+    private static final class TailedFile {
+        final Object key;
+        Path path;
+        FileChannel channel;
+        long offset;                  // start of the first unscanned line
+        int lines;                    // lines scanned so far (line number base)
+        boolean binary;
+        boolean sniffed;
+        Path mirrorPath;
+        Writer mirror;
+        int seen;                     // last sweep that found it
+
+        TailedFile(Object key, Path path) {
+            this.key = key;
+            this.path = path;
+        }
+    }
+
+    TailSession(ScanJob job, Path root, ScannerService scanner, ReportingService reporting,
+                BinarySniffer sniffer, long pollMillis) throws IOException {
+        this.job = job;
+        this.root = root.toAbsolutePath().normalize();
+        this.scanner = scanner;
+        this.reporting = reporting;
+        this.sniffer = sniffer;
+        this.pollMillis = Math.max(10, pollMillis);
+        this.watcher = this.root.getFileSystem().newWatchService();
+    }
+
+    /** Follows the directory until the job is cancelled or the thread is interrupted. */
+    void run(boolean fromStart) throws IOException {
+        sweep(!fromStart);
+        long nextSweep = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pollMillis);
+        try {
+            while (!job.isCancelRequested()) {
+                WatchKey key = watcher.poll(pollMillis, TimeUnit.MILLISECONDS);
+                Set<Path> dirty = new LinkedHashSet<>();
+                boolean overflow = false;
+                for (; key != null; key = watcher.poll()) {
+                    Path dir = (Path) key.watchable();
+                    for (WatchEvent<?> e : key.pollEvents()) {
+                        if (e.kind() == OVERFLOW) {
+                            overflow = true;
+                            continue;
+                        }
+                        Path p = dir.resolve((Path) e.context());
+                        if (Files.isDirectory(p, LinkOption.NOFOLLOW_LINKS)) {
+                            overflow |= e.kind() == ENTRY_CREATE;       // new directory: walk it
+                        } else {
+                            dirty.add(p);
+                        }
+                    }
+                    if (!key.reset()) watchedDirs.remove(dir);
+                }
+                for (Path p : dirty) {
+                    if (job.isCancelRequested()) break;
+                    follow(p, false);
+                }
+                if (overflow || System.nanoTime() >= nextSweep) {
+                    sweep(false);
+                    nextSweep = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pollMillis);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // closed under us: stop like a cancel
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (TailedFile t : new ArrayList<>(byKey.values())) drop(t);
+        watcher.close();
+    }
+
+    // ---------------- discovery ----------------
+
+    /** Walks the tree: registers new directories, follows every file, drops files that are gone. */
+    private void sweep(boolean startAtEnd) throws IOException {
+        sweepNo++;
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> s = Files.walk(root)) {
+            s.forEach(p -> {
+                if (Files.isDirectory(p, LinkOption.NOFOLLOW_LINKS)) register(p);
+                else files.add(p);
+            });
+        } catch (NoSuchFileException e) {
+            // root removed: everything below is gone
+        } catch (UncheckedIOException e) {
+            return;                             // a directory vanished mid-walk: try again next time
+        }
+        for (Path p : files) {
+            if (job.isCancelRequested()) return;
+            follow(p, startAtEnd);
+        }
+        for (TailedFile t : new ArrayList<>(byKey.values())) {
+            if (t.seen != sweepNo) drop(t);
+        }
+        job.setFilesTotal(byKey.size());
+    }
+
+    private void register(Path dir) {
+        if (!watchedDirs.add(dir)) return;
+        try {
+            dir.register(watcher, ENTRY_CREATE, ENTRY_MODIFY);
+        } catch (IOException e) {
+            watchedDirs.remove(dir);            // unreadable / already gone: the sweep still covers it
+        }
+    }
+
+    /** Scans whatever was appended to the file now at {@code p}, picking up renames and replacements. */
+    private void follow(Path p, boolean startAtEnd) throws IOException {
+        BasicFileAttributes a;
+        try {
+            a = Files.readAttributes(p, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+            return;                             // dropped by the next sweep
+        }
+        if (!a.isRegularFile()) return;
+        Object key = identity(p, a);
+
+        TailedFile t = byKey.get(key);
+        TailedFile occupant = byPath.get(p);
+        if (occupant != null && occupant != t) relocate(occupant);
+        if (t == null) {
+            t = open(p, key, startAtEnd);
+            if (t == null) return;
+        } else if (!t.path.equals(p)) {
+            moveTo(t, p);
+        }
+        t.seen = sweepNo;
+        read(t, false);
+    }
+
+    /** Another file took {@code t}'s path: find where {@code t} went (rotation), else drop it. */
+    private void relocate(TailedFile t) throws IOException {
+        byPath.remove(t.path, t);
+        Path dir = t.path.getParent();
+        Path moved = null;
+        if (dir != null) {
+            try (Stream<Path> s = Files.list(dir)) {
+                for (Path p : (Iterable<Path>) s::iterator) {
+                    try {
+                        BasicFileAttributes a = Files.readAttributes(p, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                        if (a.isRegularFile() && t.key.equals(identity(p, a))) {
+                            moved = p;
+                            break;
+                        }
+                    } catch (NoSuchFileException ignored) {
+                    }
+                }
+            } catch (NoSuchFileException ignored) {
+            }
+        }
+        if (moved == null) {
+            drop(t);
+            return;
+        }
+        TailedFile occupant = byPath.get(moved);
+        if (occupant != null && occupant != t) relocate(occupant);
+        moveTo(t, moved);
+    }
+
+    private TailedFile open(Path p, Object key, boolean startAtEnd) throws IOException {
+        FileChannel ch;
+        try {
+            ch = FileChannel.open(p, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        TailedFile t = new TailedFile(key, p);
+        t.channel = ch;
+        if (startAtEnd) {
+            t.offset = lineStartBefore(ch, ch.size());
+            t.lines = countLines(ch, t.offset);
+        }
+        openMirror(t, false);
+        byKey.put(key, t);
+        byPath.put(p, t);
+        job.incFilesScanned();
+        job.setFilesTotal(byKey.size());
+        return t;
+    }
+
+    /** {@code t} was renamed to {@code p}: its mirror follows. */
+    private void moveTo(TailedFile t, Path p) throws IOException {
+        byPath.remove(t.path, t);
+        t.path = p;
+        byPath.put(p, t);
+        Path target = reporting.redactedTarget(job, p);
+        if (t.mirror != null && target != null && !target.equals(t.mirrorPath)) {
+            t.mirror.close();
+            Files.createDirectories(target.toAbsolutePath().getParent());
+            Files.move(t.mirrorPath, target, StandardCopyOption.REPLACE_EXISTING);
+            t.mirrorPath = target;
+            openMirror(t, true);
+        }
+    }
+
+    /** Drains the rest of the file (partial last line included) and stops following it. */
+    private void drop(TailedFile t) throws IOException {
+        try {
+            if (!job.isCancelRequested()) read(t, true);
+        } finally {
+            byKey.remove(t.key, t);
+            byPath.remove(t.path, t);
+            t.channel.close();
+            if (t.mirror != null) t.mirror.close();
+        }
+    }
+
+    // ---------------- reading ----------------
+
+    /** Scans the complete lines appended since the last read (every remaining byte if {@code drain}). */
+    private void read(TailedFile t, boolean drain) throws IOException {
+        long size = t.channel.size();
+        if (size < t.offset) {
+            // truncated in place: start over, like a new file
+            t.offset = 0;
+            t.lines = 0;
+            if (t.mirror != null) {
+                t.mirror.close();
+                openMirror(t, false);
+            }
+        }
+        if (size == t.offset) return;
+        if (!t.sniffed) {
+            t.sniffed = true;
+            t.binary = sniffer.isBinary(header(t.channel, t.offset, size));
+        }
+        if (t.binary) {
+            t.offset = size;
+            return;
+        }
+
+        long end = drain ? size : lineStartBefore(t.channel, size);
+        if (end <= t.offset) return;
+
+        FindingsBuffer findings = new FindingsBuffer(t.path);
+        Writer mirror = t.mirror != null ? t.mirror : Writer.nullWriter();
+        try (MappedLineReader lines = MappedLineReader.over(t.channel, t.offset, end)) {
+            t.lines += scanner.scanAppended(job, t.path, lines, t.lines, findings, mirror);
+        }
+        mirror.flush();
+        reporting.merge(job, FileSummary.text(t.path, end - t.offset, findings, t.mirrorPath));
+        job.addBytes(end - t.offset);
+        t.offset = end;
+    }
+
+    private void openMirror(TailedFile t, boolean append) throws IOException {
+        if (t.mirrorPath == null) t.mirrorPath = reporting.redactedTarget(job, t.path);
+        if (t.mirrorPath == null) return;
+        Path parent = t.mirrorPath.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        t.mirror = Files.newBufferedWriter(t.mirrorPath, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /** Offset just past the last '\n' before {@code size}, or 0 if there is none. */
+    private static long lineStartBefore(FileChannel ch, long size) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(TAIL_PROBE_BYTES);
+        long to = size;
+        while (to > 0) {
+            long from = Math.max(0, to - TAIL_PROBE_BYTES);
+            buf.clear().limit((int) (to - from));
+            while (buf.hasRemaining()) {
+                if (ch.read(buf, from + buf.position()) < 0) break;
+            }
+            for (int i = buf.position() - 1; i >= 0; i--) {
+                if (buf.get(i) == '\n') return from + i + 1;
+            }
+            to = from;
+        }
+        return 0;
+    }
+
+    /** Number of '\n' in [0, to): the line numbers already behind a file followed from its end. */
+    private static int countLines(FileChannel ch, long to) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(1 << 16);
+        int n = 0;
+        for (long pos = 0; pos < to; ) {
+            buf.clear().limit((int) Math.min(buf.capacity(), to - pos));
+            int r = ch.read(buf, pos);
+            if (r < 0) break;
+            for (int i = 0; i < r; i++) if (buf.get(i) == '\n') n++;
+            pos += r;
+        }
+        return n;
+    }
+
+    private static byte[] header(FileChannel ch, long from, long size) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate((int) Math.min(TAIL_PROBE_BYTES, size - from));
+        while (buf.hasRemaining()) {
+            if (ch.read(buf, from + buf.position()) < 0) break;
+        }
+        byte[] out = new byte[buf.position()];
+        buf.flip().get(out);
+        return out;
+    }
+
+    /** Inode-style file key where the file system has one, else path + creation time (no rename tracking). */
+    private static Object identity(Path p, BasicFileAttributes a) {
+        Object key = a.fileKey();
+        return key != null ? key : p.toAbsolutePath().normalize() + "@" + a.creationTime().toMillis();
+    }
+}
@@ -7,7 +7,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Set;
 
 /**
  * Heuristic binary detector to avoid scanning non-text files.
@@ -17,6 +16,7 @@ import java.util.Set;
  *  2) Null byte present in the header window → binary.
  *  3) Control-char ratio (excluding \t, \r, \n) ≥ threshold → binary.
  *
+ * Rules 2 and 3 are one pass over the header, eight bytes at a time ({@link ByteClassifier}).
  * Defaults: read up to 4 KiB, control threshold = 0.15 (15%).
  * Tunable via constructor.
  */
@@ -26,11 +26,6 @@ public class BinarySniffer {
     private static final int DEFAULT_HEADER_BYTES = 4096;
     private static final double DEFAULT_CONTROL_RATIO_THRESHOLD = 0.15;
 
-    // Allowed control characters to not count as "bad"
-    private static final Set<Byte> ALLOWED_CONTROLS = Set.of(
-            (byte) '\t', (byte) '\r', (byte) '\n'
-    );
-
     private final int headerBytes;
     private final double controlRatioThreshold;
 
@@ -50,45 +45,34 @@ public class BinarySniffer {
         if (!Files.isRegularFile(path)) return true;
         try (InputStream in = Files.newInputStream(path)) {
             byte[] buf = readHeader(in, headerBytes);
-            if (buf.length == 0) return false;
-
-            if (matchesKnownBinaryMagic(buf)) return true;
-
-            for (byte b : buf) {
-                if (b == 0x00) return true;
-            }
-
-            int controlCount = 0;
-            for (byte b : buf) {
-                int ub = b & 0xFF;
-                if (ub < 0x20 || ub == 0x7F) {
-                    if (!ALLOWED_CONTROLS.contains(b)) {
-                        controlCount++;
-                    }
-                }
-            }
-            double ratio = (double) controlCount / buf.length;
-            return ratio >= controlRatioThreshold;
+            return sniff(buf, buf.length);
         }
     }
 
     public boolean isBinary(byte[] header) {
-        if (header == null || header.length == 0) return false;
-        if (matchesKnownBinaryMagic(header)) return true;
-        for (byte b : header) {
-            if (b == 0x00) return true;
-        }
-        int controlCount = 0;
-        for (byte b : header) {
-            int ub = b & 0xFF;
-            if (ub < 0x20 || ub == 0x7F) {
-                if (!ALLOWED_CONTROLS.contains(b)) controlCount++;
-            }
-        }
-        double ratio = (double) controlCount / header.length;
+        return header != null && sniff(header, header.length);
+    }
+
+    /** Sniffs the first {@code min(len, header window)} bytes of a buffer the caller already read. */
+    public boolean isBinary(byte[] buf, int len) {
+        return sniff(buf, Math.min(len, headerBytes));
+    }
+
+    /** One pass: any NUL byte, or too many control bytes other than \t, \r, \n. */
+    private boolean sniff(byte[] buf, int n) {
+        if (n <= 0) return false;
+        if (matchesKnownBinaryMagic(buf, n)) return true;
+        long counts = ByteClassifier.controlCounts(buf, 0, n);
+        if (ByteClassifier.nulCount(counts) > 0) return true;
+        double ratio = (double) ByteClassifier.controlCount(counts) / n;
         return ratio >= controlRatioThreshold;
     }
 
+    /** How many leading bytes {@link #isBinary(byte[], int)} looks at. */
+    public int headerBytes() {
+        return headerBytes;
+    }
+
     private static byte[] readHeader(InputStream in, int max) throws IOException {
         byte[] buf = new byte[max];
         int off = 0;
@@ -103,30 +87,30 @@ public class BinarySniffer {
         return exact;
     }
 
-    private static boolean matchesKnownBinaryMagic(byte[] b) {
-        return  startsWith(b, "%PDF-")                  || // PDF
-                startsWith(b, new byte[]{(byte)0x89, 'P','N','G', 0x0D, 0x0A, 0x1A, 0x0A}) || // PNG
-                startsWith(b, new byte[]{(byte)0xFF, (byte)0xD8}) || // JPEG
-                startsWith(b, "GIF87a") || startsWith(b, "GIF89a") || // GIF
-                startsWith(b, "PK\u0003\u0004") || // ZIP/JAR/DOCX/XLSX
-                startsWith(b, new byte[]{0x1F, (byte)0x8B}) || // GZIP
-                startsWith(b, "BZh") || // BZIP2
-                startsWith(b, new byte[]{'7','z',(byte)0xBC,(byte)0xAF,0x27,0x1C}) || // 7z
-                startsWith(b, "Rar!") || // RAR
-                startsWith(b, "MZ"); // Windows EXE/DLL
+    private static boolean matchesKnownBinaryMagic(byte[] b, int len) {
+        return  startsWith(b, len, "%PDF-")                  || // PDF
+                startsWith(b, len, new byte[]{(byte)0x89, 'P','N','G', 0x0D, 0x0A, 0x1A, 0x0A}) || // PNG
+                startsWith(b, len, new byte[]{(byte)0xFF, (byte)0xD8}) || // JPEG
+                startsWith(b, len, "GIF87a") || startsWith(b, len, "GIF89a") || // GIF
+                startsWith(b, len, "PK\u0003\u0004") || // ZIP/JAR/DOCX/XLSX
+                startsWith(b, len, new byte[]{0x1F, (byte)0x8B}) || // GZIP
+                startsWith(b, len, "BZh") || // BZIP2
+                startsWith(b, len, new byte[]{'7','z',(byte)0xBC,(byte)0xAF,0x27,0x1C}) || // 7z
+                startsWith(b, len, "Rar!") || // RAR
+                startsWith(b, len, "MZ"); // Windows EXE/DLL
     }
 
-    private static boolean startsWith(byte[] data, byte[] prefix) {
-        if (data.length < prefix.length) return false;
+    private static boolean startsWith(byte[] data, int len, byte[] prefix) {
+        if (len < prefix.length) return false;
         for (int i = 0; i < prefix.length; i++) {
             if (data[i] != prefix[i]) return false;
         }
         return true;
     }
 
-    private static boolean startsWith(byte[] data, String asciiPrefix) {
+    private static boolean startsWith(byte[] data, int len, String asciiPrefix) {
         byte[] p = asciiPrefix.getBytes(java.nio.charset.StandardCharsets.US_ASCII);
-        return startsWith(data, p);
+        return startsWith(data, len, p);
     }
 }
 
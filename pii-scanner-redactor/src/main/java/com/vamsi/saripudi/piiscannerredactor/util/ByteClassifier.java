@@ -0,0 +1,134 @@
+package com.vamsi.saripudi.piiscannerredactor.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Byte classification eight bytes at a time (SWAR: one long holds eight bytes, per-byte
+ * results end up in each byte's high bit).
+ *
+ * All per-byte tests are exact, no carries cross byte boundaries, so the flag masks can be
+ * counted with {@link Long#bitCount} and the first hit found with
+ * {@link Long#numberOfTrailingZeros} (words are read little-endian: lowest byte first).
+ * Buffers are handled as a word loop plus a scalar tail.
+ */
+public final class ByteClassifier {
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH = 0x8080808080808080L;
+    private static final long LOW7 = 0x7F7F7F7F7F7F7F7FL;
+
+    private static final long LF = '\n' * ONES;
+    private static final long CR = '\r' * ONES;
+    private static final long TAB = '\t' * ONES;
+    private static final long DEL = 0x7F * ONES;
+    private static final long BELOW_SPACE = (0x80 - 0x20) * ONES;
+
+    private ByteClassifier() {
+    }
+
+    /** NUL bytes and control bytes other than \t, \n, \r of one header, packed as (nul << 32) | controls. */
+    public static long controlCounts(byte[] b, int off, int len) {
+        int nul = 0, controls = 0;
+        int i = off, end = off + len;
+        for (; i + 8 <= end; i += 8) {
+            long x = (long) LONGS.get(b, i);
+            nul += Long.bitCount(zeros(x));
+            controls += Long.bitCount(disallowedControls(x));
+        }
+        for (; i < end; i++) {
+            int ub = b[i] & 0xFF;
+            if (ub == 0) nul++;
+            if ((ub < 0x20 || ub == 0x7F) && ub != '\t' && ub != '\n' && ub != '\r') controls++;
+        }
+        return ((long) nul << 32) | controls;
+    }
+
+    public static int nulCount(long counts) {
+        return (int) (counts >>> 32);
+    }
+
+    public static int controlCount(long counts) {
+        return (int) counts;
+    }
+
+    /** True if no byte in [off, off + len) has its high bit set. */
+    public static boolean isAscii(byte[] b, int off, int len) {
+        int i = off, end = off + len;
+        long acc = 0;
+        for (; i + 8 <= end; i += 8) acc |= (long) LONGS.get(b, i);
+        if ((acc & HIGH) != 0) return false;
+        for (; i < end; i++) {
+            if (b[i] < 0) return false;
+        }
+        return true;
+    }
+
+    /** Same for a buffer region (absolute indexes, buffer position untouched). */
+    public static boolean isAscii(ByteBuffer b, int from, int to) {
+        int i = from;
+        long acc = 0;
+        for (; i + 8 <= to; i += 8) acc |= b.getLong(i);
+        if ((acc & HIGH) != 0) return false;
+        for (; i < to; i++) {
+            if (b.get(i) < 0) return false;
+        }
+        return true;
+    }
+
+    /** Index of the first '\n' or '\r' in [from, to), or -1. */
+    public static int indexOfLineEnd(byte[] b, int from, int to) {
+        int i = from;
+        for (; i + 8 <= to; i += 8) {
+            long hit = lineEnds((long) LONGS.get(b, i));
+            if (hit != 0) return i + (Long.numberOfTrailingZeros(hit) >>> 3);
+        }
+        for (; i < to; i++) {
+            if (b[i] == '\n' || b[i] == '\r') return i;
+        }
+        return -1;
+    }
+
+    /** Same for a buffer region (absolute indexes; either byte order). */
+    public static int indexOfLineEnd(ByteBuffer b, int from, int to) {
+        boolean little = b.order() == ByteOrder.LITTLE_ENDIAN;
+        int i = from;
+        for (; i + 8 <= to; i += 8) {
+            long hit = lineEnds(b.getLong(i));
+            if (hit != 0) {
+                return i + ((little ? Long.numberOfTrailingZeros(hit) : Long.numberOfLeadingZeros(hit)) >>> 3);
+            }
+        }
+        for (; i < to; i++) {
+            byte c = b.get(i);
+            if (c == '\n' || c == '\r') return i;
+        }
+        return -1;
+    }
+
+    // ---- per-word masks: high bit of each byte that passes ----
+
+    /** Bytes equal to zero (exact: the low seven bits are summed without crossing into the next byte). */
+    static long zeros(long x) {
+        return ~(((x & LOW7) + LOW7) | x | LOW7);
+    }
+
+    static long equalTo(long x, long repeated) {
+        return zeros(x ^ repeated);
+    }
+
+    static long lineEnds(long x) {
+        return equalTo(x, LF) | equalTo(x, CR);
+    }
+
+    /** Bytes below 0x20 or equal to 0x7F, except \t, \n and \r. */
+    static long disallowedControls(long x) {
+        long below = ~(((x & LOW7) + BELOW_SPACE) | x) & HIGH;       // high bit clear and low 7 bits < 0x20
+        long allowed = equalTo(x, TAB) | equalTo(x, LF) | equalTo(x, CR);
+        return (below | equalTo(x, DEL)) & ~allowed;
+    }
+}
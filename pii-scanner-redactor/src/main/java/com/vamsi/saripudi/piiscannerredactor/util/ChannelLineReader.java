@@ -0,0 +1,122 @@
+package com.vamsi.saripudi.piiscannerredactor.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Checksum;
+
+/**
+ * {@link LineReader} over an open channel, starting from bytes the caller has already read.
+ *
+ * The scanner reads a file's first buffer once, sniffs it for binary content and hands the same
+ * buffer over here, so a small file is opened once and read once. Lines are found in the bytes
+ * the same way {@link MappedLineReader} does: line ends and ASCII checked eight bytes at a time
+ * ({@link ByteClassifier}), ASCII lines copied as Latin-1, others decoded as UTF-8, malformed
+ * input reported. The buffer is refilled from the channel and grows when a line does not fit.
+ * The channel belongs to the caller and is not closed here. An optional checksum is updated with
+ * every byte read, so a caller that reads to the end gets the file's checksum without a second read.
+ */
+public final class ChannelLineReader implements LineReader {
+
+    private final FileChannel channel;
+    private final CharsetDecoder utf8 = StandardCharsets.UTF_8.newDecoder();
+    private final Checksum checksum;  // null = none
+
+    private byte[] buf;
+    private int pos;                  // next unread byte
+    private int limit;                // end of valid bytes
+    private long channelPos;          // channel offset of buf[limit]
+    private boolean eof;
+
+    /**
+     * @param buf    first {@code filled} bytes of the channel (from position 0)
+     * @param eof    true if {@code filled} is the whole file
+     */
+    public ChannelLineReader(FileChannel channel, byte[] buf, int filled, boolean eof) {
+        this(channel, buf, filled, eof, null);
+    }
+
+    /** @param checksum updated with {@code buf[0, filled)} and every byte read after it */
+    public ChannelLineReader(FileChannel channel, byte[] buf, int filled, boolean eof, Checksum checksum) {
+        this.channel = channel;
+        this.checksum = checksum;
+        if (checksum != null) checksum.update(buf, 0, filled);
+        this.buf = buf.length == 0 ? new byte[256] : buf;
+        this.limit = filled;
+        this.channelPos = filled;
+        this.eof = eof;
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        int from = pos;
+        int i = from;
+        while (true) {
+            int eol = ByteClassifier.indexOfLineEnd(buf, i, limit);
+            i = eol < 0 ? limit : eol;
+            if (i < limit) {
+                int next = i + 1;
+                if (buf[i] == '\r') {
+                    if (next == limit && !eof) {
+                        // can't tell if \n follows yet
+                        int shift = fill();
+                        from -= shift;
+                        i -= shift;
+                        continue;
+                    }
+                    if (next < limit && buf[next] == '\n') next++;
+                }
+                pos = next;
+                return toString(from, i - from);
+            }
+            if (eof) {
+                if (from == limit) return null;
+                pos = limit;
+                return toString(from, limit - from);
+            }
+            int shift = fill();
+            from -= shift;
+            i -= shift;
+        }
+    }
+
+    @Override
+    public void close() {
+        buf = null;
+    }
+
+    /**
+     * Moves the unread bytes to the front (growing the buffer if they fill it) and reads more.
+     * Returns how far the bytes moved left.
+     */
+    private int fill() throws IOException {
+        int shift = pos;
+        int keep = limit - pos;
+        if (keep == buf.length) {
+            byte[] bigger = new byte[buf.length * 2];
+            System.arraycopy(buf, pos, bigger, 0, keep);
+            buf = bigger;
+        } else if (shift > 0) {
+            System.arraycopy(buf, pos, buf, 0, keep);
+        }
+        pos = 0;
+        limit = keep;
+        int r = channel.read(ByteBuffer.wrap(buf, limit, buf.length - limit), channelPos);
+        if (r < 0) {
+            eof = true;
+        } else {
+            if (checksum != null) checksum.update(buf, limit, r);
+            limit += r;
+            channelPos += r;
+        }
+        return shift;
+    }
+
+    private String toString(int offset, int len) throws IOException {
+        if (len == 0) return "";
+        if (ByteClassifier.isAscii(buf, offset, len)) return new String(buf, offset, len, StandardCharsets.ISO_8859_1);
+        return utf8.reset().decode(ByteBuffer.wrap(buf, offset, len)).toString();
+    }
+}
@@ -2,23 +2,115 @@ package com.vamsi.saripudi.piiscannerredactor.util;
 
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+
+/**
+ * Shannon entropy (bits per character) over the ASCII characters of a string.
+ *
+ * With counts f over n characters, H = log2(n) - sum(f * log2 f) / n, so the only logarithms
+ * needed are k * log2(k) for small k, taken from a table. Histograms are per thread and
+ * cleared after use: scoring allocates nothing. H never exceeds log2(distinct characters),
+ * which gives a cheap lower bound on the length a string needs to reach a threshold.
+ */
 //@Component
 public class EntropyUtil {
 
+    /** k * log2(k) for k below this comes from the table. */
+    static final int TABLE_SIZE = 4096;
+    private static final double[] NLOG2N = new double[TABLE_SIZE];
+    private static final ThreadLocal<int[]> HISTOGRAM = ThreadLocal.withInitial(() -> new int[128]);
+
+    static {
+        for (int k = 1; k < TABLE_SIZE; k++) NLOG2N[k] = k * (Math.log(k) / Math.log(2));
+    }
+
+    /** Receives one run of high-entropy windows: chars [start, end) and the best window score. */
+    @FunctionalInterface
+    public interface WindowSink {
+        void accept(int start, int end, double score);
+    }
+
     public static double shannonEntropy(String s) {
         if (s == null || s.isEmpty()) return 0.0;
-        int[] freq = new int[128];
+        return shannonEntropy(s, 0, s.length());
+    }
+
+    public static double shannonEntropy(CharSequence s, int from, int to) {
+        int[] freq = HISTOGRAM.get();
         int n = 0;
-        for (char c : s.toCharArray()) {
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
             if (c < 128) { freq[c]++; n++; }
         }
         if (n == 0) return 0.0;
-        double h = 0.0;
-        for (int f : freq) {
-            if (f == 0) continue;
-            double p = (double) f / n;
-            h -= p * (Math.log(p) / Math.log(2));
+        double sum = 0.0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < 128 && freq[c] != 0) {
+                sum += nlog2n(freq[c]);
+                freq[c] = 0;                    // counted once, and the histogram is clean for the next call
+            }
         }
-        return h;
+        return (nlog2n(n) - sum) / n;
+    }
+
+    /** Fewest characters a string needs for an entropy of {@code bits} (H <= log2 of the distinct count). */
+    public static int minLengthFor(double bits) {
+        return bits <= 0 ? 0 : (int) Math.ceil(Math.pow(2, bits));
+    }
+
+    /**
+     * Slides a window of {@code window} chars over [from, to), updating the histogram and
+     * sum(f * log2 f) by one character in and one out per step (O(1) each). Windows scoring at
+     * least {@code bits} that overlap or touch are merged into one run, reported with its best
+     * score. Columns are absolute. Nothing is reported when the range is shorter than a window.
+     */
+    public static void highEntropyWindows(CharSequence s, int from, int to, int window, double bits, WindowSink sink) {
+        if (window <= 0 || window >= TABLE_SIZE || to - from < window) return;
+        int[] freq = HISTOGRAM.get();
+        double sum = 0.0;
+        int n = 0;
+        int runStart = -1, runEnd = -1;
+        double best = 0.0;
+        try {
+            for (int i = from; i < to; i++) {
+                char in = s.charAt(i);
+                if (in < 128) {
+                    int f = freq[in]++;
+                    sum += NLOG2N[f + 1] - NLOG2N[f];
+                    n++;
+                }
+                int first = i - window + 1;
+                if (first > from) {
+                    char out = s.charAt(first - 1);
+                    if (out < 128) {
+                        int f = freq[out]--;
+                        sum -= NLOG2N[f] - NLOG2N[f - 1];
+                        n--;
+                    }
+                }
+                if (first < from || n == 0) continue;
+                double h = (NLOG2N[n] - sum) / n;
+                if (h < bits) continue;
+                if (runStart >= 0 && first > runEnd) {
+                    sink.accept(runStart, runEnd, best);
+                    runStart = -1;
+                }
+                if (runStart < 0) {
+                    runStart = first;
+                    best = h;
+                } else {
+                    best = Math.max(best, h);
+                }
+                runEnd = i + 1;
+            }
+        } finally {
+            Arrays.fill(freq, 0);
+        }
+        if (runStart >= 0) sink.accept(runStart, runEnd, best);
+    }
+
+    static double nlog2n(int k) {
+        return k < TABLE_SIZE ? NLOG2N[k] : k * (Math.log(k) / Math.log(2));
     }
 }
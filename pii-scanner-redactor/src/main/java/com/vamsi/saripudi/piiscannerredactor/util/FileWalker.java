@@ -1,25 +1,40 @@
 package com.vamsi.saripudi.piiscannerredactor.util;
 
-import lombok.Builder;
 import lombok.Data;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
 
 @Data
 @Component
 public class FileWalker {
 
     public static List<Path> listFiles(List<Path> inputs) throws IOException {
+        return listFiles(inputs, WalkFilter.DEFAULT);
+    }
+
+    /** Every file under the inputs, in {@link Files#walk} order. */
+    public static List<Path> listFiles(List<Path> inputs, WalkFilter filter) throws IOException {
         List<Path> result = new ArrayList<>();
         for (Path input : inputs) {
             if (Files.isDirectory(input)) {
                 try (var stream = Files.walk(input)) {
                     stream.filter(Files::isRegularFile)
-                            .filter(p -> !p.getFileName().toString().startsWith("."))
+                            .filter(p -> underAcceptedDirs(input, p, filter))
+                            .filter(p -> filter.acceptsFile(input.relativize(p)))
                             .forEach(result::add);
                 }
             } else if (Files.isRegularFile(input)) {
@@ -28,4 +43,155 @@ public class FileWalker {
         }
         return result;
     }
+
+    /**
+     * Starts walking the inputs on {@code pool} and hands back files as they are found, so
+     * scanning starts with the first file instead of after the last directory.
+     *
+     * Parallel: every subdirectory is its own fork-join task, files arrive in no particular order.
+     * Sequential: one task, files arrive in {@link #listFiles} order. Either way at most
+     * {@code queueCapacity} found files wait for the consumer; the walker blocks beyond that.
+     * {@code onFound} gets the running number of files found (from walker threads).
+     */
+    public static Walk walk(List<Path> inputs, WalkFilter filter, ForkJoinPool pool, boolean parallel,
+                            int queueCapacity, IntConsumer onFound) {
+        Walk walk = new Walk(filter, parallel, Math.max(1, queueCapacity), onFound);
+        pool.execute(() -> walk.run(inputs));
+        return walk;
+    }
+
+    /** Files of one running walk. Single consumer; {@link #cancel()} stops the walker. */
+    public static final class Walk {
+
+        private static final Path END = Path.of("");
+
+        private final WalkFilter filter;
+        private final boolean parallel;
+        private final IntConsumer onFound;
+        private final BlockingQueue<Path> queue;
+        private final AtomicInteger found = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile IOException failure;
+        private boolean ended;
+
+        private Walk(WalkFilter filter, boolean parallel, int queueCapacity, IntConsumer onFound) {
+            this.filter = filter;
+            this.parallel = parallel;
+            this.onFound = onFound;
+            this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        }
+
+        /** Next file, waiting for the walker; null once the walk is complete (or cancelled). */
+        public Path next() throws IOException, InterruptedException {
+            if (ended) return null;
+            Path p = queue.take();
+            if (p != END) return p;
+            ended = true;
+            if (failure != null) throw failure;
+            return null;
+        }
+
+        /** Files found so far (all of them once {@link #next()} returned null). */
+        public int found() {
+            return found.get();
+        }
+
+        public void cancel() {
+            cancelled = true;
+            queue.clear();
+        }
+
+        private void run(List<Path> inputs) {
+            try {
+                List<DirTask> dirs = new ArrayList<>();
+                for (Path input : inputs) {
+                    if (cancelled) break;
+                    if (Files.isDirectory(input)) {
+                        DirTask t = new DirTask(input, input);
+                        if (parallel) dirs.add(t);
+                        else t.compute();
+                    } else if (Files.isRegularFile(input)) {
+                        publish(input);
+                    }
+                }
+                ForkJoinTask.invokeAll(dirs);
+            } catch (UncheckedIOException e) {
+                failure = e.getCause();
+            } catch (RuntimeException e) {
+                failure = new IOException(e);
+            } finally {
+                while (true) {
+                    try {
+                        queue.put(END);
+                        break;
+                    } catch (InterruptedException e) {
+                        cancelled = true;
+                        queue.clear();
+                    }
+                }
+            }
+        }
+
+        private void publish(Path file) {
+            try {
+                while (!cancelled && !queue.offer(file, 100, TimeUnit.MILLISECONDS)) {
+                    // consumer is behind: wait, but notice a cancel
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelled = true;
+                return;
+            }
+            if (!cancelled) onFound.accept(found.incrementAndGet());
+        }
+
+        /** One directory: its files are published, its subdirectories forked (or walked in place). */
+        private final class DirTask extends RecursiveAction {
+            private final Path root;
+            private final Path dir;
+
+            DirTask(Path root, Path dir) {
+                this.root = root;
+                this.dir = dir;
+            }
+
+            @Override
+            protected void compute() {
+                List<DirTask> subdirs = new ArrayList<>();
+                try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+                    for (Path p : entries) {
+                        if (cancelled) return;
+                        BasicFileAttributes a;
+                        try {
+                            a = Files.readAttributes(p, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                        } catch (NoSuchFileException e) {
+                            continue;                   // deleted while we were listing
+                        }
+                        Path relative = root.relativize(p);
+                        if (a.isDirectory()) {
+                            if (!filter.acceptsDir(relative)) continue;
+                            DirTask t = new DirTask(root, p);
+                            if (parallel) subdirs.add(t);
+                            else t.compute();
+                        } else if ((a.isRegularFile() || a.isSymbolicLink() && Files.isRegularFile(p))
+                                && filter.acceptsFile(relative)) {
+                            publish(p);                 // links to files are scanned, links to directories not followed
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                invokeAll(subdirs);
+            }
+        }
+    }
+
+    private static boolean underAcceptedDirs(Path input, Path file, WalkFilter filter) {
+        Path relative = input.relativize(file).getParent();
+        if (relative == null) return true;
+        for (int i = 1; i <= relative.getNameCount(); i++) {
+            if (!filter.acceptsDir(relative.subpath(0, i))) return false;
+        }
+        return true;
+    }
 }
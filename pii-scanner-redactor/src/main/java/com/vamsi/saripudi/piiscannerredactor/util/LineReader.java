@@ -0,0 +1,28 @@
+package com.vamsi.saripudi.piiscannerredactor.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Line source for the scanner: same contract as {@link BufferedReader#readLine()}
+ * (terminators \n, \r or \r\n are stripped; null at end of input).
+ */
+public interface LineReader extends Closeable {
+
+    String readLine() throws IOException;
+
+    static LineReader of(BufferedReader br) {
+        return new LineReader() {
+            @Override
+            public String readLine() throws IOException {
+                return br.readLine();
+            }
+
+            @Override
+            public void close() throws IOException {
+                br.close();
+            }
+        };
+    }
+}
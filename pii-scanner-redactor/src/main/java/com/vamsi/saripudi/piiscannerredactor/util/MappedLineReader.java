@@ -0,0 +1,161 @@
+package com.vamsi.saripudi.piiscannerredactor.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.Checksum;
+
+/**
+ * {@link LineReader} over a memory-mapped byte range of a file.
+ *
+ * Line boundaries are found directly in the mapped bytes, eight at a time
+ * ({@link ByteClassifier}), and the copied line is checked for pure ASCII the same way.
+ * ASCII lines become Strings with a plain byte copy (ISO-8859-1, stored compactly by the
+ * JVM), only lines with high bytes go through a UTF-8 decoder. Malformed UTF-8 is reported
+ * like the BufferedReader path does.
+ *
+ * The range is mapped in windows of at most {@code windowBytes}; a line crossing the end of
+ * a window is re-read from a new window starting at that line. An optional checksum is updated
+ * with the bytes read so far whenever a window is let go, and with the rest at the end.
+ */
+public final class MappedLineReader implements LineReader {
+
+    public static final int DEFAULT_WINDOW_BYTES = 256 << 20;
+
+    private final FileChannel channel;
+    private final long end;
+    private final int windowBytes;
+    private final boolean ownsChannel;
+    private final CharsetDecoder utf8 = StandardCharsets.UTF_8.newDecoder();
+    private final Checksum checksum;  // null = none
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long pos;                 // absolute offset of the next line
+    private long checksummed;         // absolute offset up to which the checksum has the bytes
+    private byte[] scratch = new byte[256];
+
+    MappedLineReader(FileChannel channel, long from, long to, int windowBytes) {
+        this(channel, from, to, windowBytes, true, null);
+    }
+
+    MappedLineReader(FileChannel channel, long from, long to, int windowBytes, boolean ownsChannel,
+                     Checksum checksum) {
+        this.channel = channel;
+        this.ownsChannel = ownsChannel;
+        this.checksum = checksum;
+        this.pos = from;
+        this.checksummed = from;
+        this.end = to;
+        this.windowBytes = Math.max(1, windowBytes);
+    }
+
+    /** Whole file. */
+    public static MappedLineReader open(Path file) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.READ);
+        return new MappedLineReader(ch, 0, ch.size(), DEFAULT_WINDOW_BYTES);
+    }
+
+    /** Bytes [from, to) of the file; from must be a line start. */
+    public static MappedLineReader open(Path file, long from, long to) throws IOException {
+        return new MappedLineReader(FileChannel.open(file, StandardOpenOption.READ), from, to, DEFAULT_WINDOW_BYTES);
+    }
+
+    /** Bytes [from, to) of an already open channel, which stays open after {@link #close()}. */
+    public static MappedLineReader over(FileChannel channel, long from, long to) {
+        return over(channel, from, to, null);
+    }
+
+    /** Like {@link #over(FileChannel, long, long)}; {@code checksum} gets bytes [from, to) once all lines are read. */
+    public static MappedLineReader over(FileChannel channel, long from, long to, Checksum checksum) {
+        return new MappedLineReader(channel, from, to, DEFAULT_WINDOW_BYTES, false, checksum);
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        if (pos >= end) {
+            checksumTo(pos);
+            return null;
+        }
+        int size = windowBytes;
+        while (true) {
+            if (window == null || pos < windowStart || pos >= windowStart + window.limit()) {
+                map(size);
+            }
+            int p = (int) (pos - windowStart);
+            int limit = window.limit();
+            boolean lastWindow = windowStart + limit >= end;
+
+            int eol = ByteClassifier.indexOfLineEnd(window, p, limit);
+            int i = eol < 0 ? limit : eol;
+
+            if (i < limit) {
+                int next = i + 1;
+                if (window.get(i) == '\r') {
+                    if (next == limit && !lastWindow) {
+                        // can't tell if \n follows: re-read this line from a fresh window
+                        size = grow(size, limit - p);
+                        checksumTo(pos);
+                        window = null;
+                        continue;
+                    }
+                    if (next < limit && window.get(next) == '\n') next++;
+                }
+                String line = toString(p, i - p);
+                pos = windowStart + next;
+                return line;
+            }
+            if (lastWindow) {
+                String line = toString(p, limit - p);
+                pos = end;
+                return line;
+            }
+            // line runs past the window
+            size = grow(size, limit - p);
+            checksumTo(pos);
+            window = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        checksumTo(pos);
+        window = null;
+        if (ownsChannel) channel.close();
+    }
+
+    private void map(int size) throws IOException {
+        checksumTo(pos);
+        long len = Math.min(size, end - pos);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, pos, len);
+        window.order(ByteOrder.LITTLE_ENDIAN);
+        windowStart = pos;
+    }
+
+    // bytes [checksummed, to) of the current window into the checksum
+    private void checksumTo(long to) {
+        if (checksum == null || window == null || to <= checksummed) return;
+        checksum.update(window.slice((int) (checksummed - windowStart), (int) (to - checksummed)));
+        checksummed = to;
+    }
+
+    private static int grow(int size, int seen) {
+        long next = Math.max((long) size, (long) seen * 2 + 1);
+        if (next > Integer.MAX_VALUE - 8) throw new IllegalStateException("line longer than 2 GB");
+        return (int) next;
+    }
+
+    private String toString(int offset, int len) throws IOException {
+        if (len == 0) return "";
+        if (scratch.length < len) scratch = new byte[Math.max(len, scratch.length * 2)];
+        window.get(offset, scratch, 0, len);
+        if (ByteClassifier.isAscii(scratch, 0, len)) return new String(scratch, 0, len, StandardCharsets.ISO_8859_1);
+        return utf8.reset().decode(ByteBuffer.wrap(scratch, 0, len)).toString();
+    }
+}
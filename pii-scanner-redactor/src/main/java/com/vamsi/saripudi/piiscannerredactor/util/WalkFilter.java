@@ -0,0 +1,72 @@
+package com.vamsi.saripudi.piiscannerredactor.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.List;
+
+/**
+ * Which files under an input directory are scanned.
+ *
+ * Hidden files (name starting with '.') are skipped unless skip-hidden is off. Include / exclude
+ * are glob lists: a pattern without '/' matches the file name, any other pattern the path
+ * relative to the input directory ("**" crosses directories). A file must match an include
+ * pattern (when there are any) and no exclude pattern; a directory matching an exclude pattern
+ * is not entered at all. Inputs that are files are always scanned.
+ */
+@Component
+public class WalkFilter {
+
+    public static final WalkFilter DEFAULT = new WalkFilter(true, List.of(), List.of());
+
+    private final boolean skipHidden;
+    private final Glob[] include;
+    private final Glob[] exclude;
+
+    private record Glob(PathMatcher matcher, boolean nameOnly) {
+        boolean matches(Path relative) {
+            Path name = relative.getFileName();
+            return matcher.matches(nameOnly ? (name == null ? relative : name) : relative);
+        }
+    }
+
+    @Autowired
+    public WalkFilter(@Value("${scan.walk.skip-hidden:true}") boolean skipHidden,
+                      @Value("${scan.walk.include:}") List<String> include,
+                      @Value("${scan.walk.exclude:}") List<String> exclude) {
+        this.skipHidden = skipHidden;
+        this.include = compile(include);
+        this.exclude = compile(exclude);
+    }
+
+    /** {@code relative}: the file's path relative to the input directory. */
+    public boolean acceptsFile(Path relative) {
+        if (skipHidden && relative.getFileName().toString().startsWith(".")) return false;
+        if (include.length > 0 && !anyMatch(include, relative)) return false;
+        return !anyMatch(exclude, relative);
+    }
+
+    public boolean acceptsDir(Path relative) {
+        return !anyMatch(exclude, relative);
+    }
+
+    private static boolean anyMatch(Glob[] globs, Path relative) {
+        for (Glob g : globs) {
+            if (g.matches(relative)) return true;
+        }
+        return false;
+    }
+
+    private static Glob[] compile(List<String> patterns) {
+        if (patterns == null) return new Glob[0];
+        return patterns.stream()
+                .map(String::trim)
+                .filter(p -> !p.isEmpty())
+                .map(p -> new Glob(FileSystems.getDefault().getPathMatcher("glob:" + p), p.indexOf('/') < 0))
+                .toArray(Glob[]::new);
+    }
+}
@@ -0,0 +1,79 @@
+package com.vamsi.saripudi.piiscannerredactor.encryption;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CryptoServiceTest {
+
+    private static final byte[] KEY = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    public void testRoundTripAndFormat() throws Exception {
+        CryptoService crypto = new CryptoService(KEY);
+        for (String plain : List.of("", "a", "vamsi@gmail.com", "123-45-6789", "jürgen日本😀", "x".repeat(1000))) {
+            String token = crypto.encrypt(plain, null);
+            assertEquals(plain, crypto.decrypt(token, null));
+            assertEquals(plain, referenceDecrypt(token), "base64url(iv || ciphertext || tag) as before");
+            assertFalse(token.contains("=") || token.contains("+") || token.contains("/"), token);
+        }
+    }
+
+    @Test
+    public void testAppendsAtOffsets() {
+        CryptoService crypto = new CryptoService(KEY);
+        StringBuilder sb = new StringBuilder("pre:");
+        crypto.encryptor().encrypt("xx secret yy", 3, 9, sb);
+        assertTrue(sb.toString().startsWith("pre:"));
+        assertEquals("secret", crypto.decrypt(sb.substring(4), null));
+    }
+
+    @Test
+    public void testIvsNeverRepeatAcrossThreads() throws Exception {
+        CryptoService crypto = new CryptoService(KEY);
+        Set<String> ivs = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(pool.submit(() -> {
+                Set<String> mine = new HashSet<>();
+                for (int i = 0; i < 5000; i++) {
+                    String token = crypto.encrypt("same plaintext", null);
+                    byte[] packed = Base64.getUrlDecoder().decode(token);
+                    mine.add(Base64.getEncoder().encodeToString(Arrays.copyOf(packed, 12)));
+                    assertEquals("same plaintext", crypto.decrypt(token, null));
+                }
+                assertEquals(5000, mine.size());
+                ivs.addAll(mine);
+                return null;
+            }));
+        }
+        for (Future<?> f : futures) f.get();
+        pool.shutdown();
+        assertEquals(8 * 5000, ivs.size());
+    }
+
+    // the decryption as it was before the per-thread encryptors
+    private static String referenceDecrypt(String token) throws Exception {
+        byte[] packed = Base64.getUrlDecoder().decode(token);
+        Cipher c = Cipher.getInstance("AES/GCM/NoPadding");
+        c.init(Cipher.DECRYPT_MODE, new SecretKeySpec(KEY, "AES"),
+                new GCMParameterSpec(128, packed, 0, 12));
+        return new String(c.doFinal(packed, 12, packed.length - 12), StandardCharsets.UTF_8);
+    }
+}
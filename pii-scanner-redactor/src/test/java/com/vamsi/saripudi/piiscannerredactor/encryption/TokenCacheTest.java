@@ -0,0 +1,122 @@
+package com.vamsi.saripudi.piiscannerredactor.encryption;
+
+import com.vamsi.saripudi.piiscannerredactor.config.PiiCryptoProperties;
+import com.vamsi.saripudi.piiscannerredactor.model.DetectionResult;
+import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
+import com.vamsi.saripudi.piiscannerredactor.pipeline.RedactionMode;
+import com.vamsi.saripudi.piiscannerredactor.pipeline.RedactionPolicy;
+import com.vamsi.saripudi.piiscannerredactor.pipeline.Redactor;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenCacheTest {
+
+    private static final byte[] KEY = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    public void testBoundedWithLruOrFifoEviction() {
+        TokenCache lru = new TokenCache(100, TokenCache.Eviction.LRU);
+        TokenCache fifo = new TokenCache(100, TokenCache.Eviction.FIFO);
+        for (TokenCache c : List.of(lru, fifo)) {
+            for (int i = 0; i < 100; i++) putTwice(c, "v" + i, "t" + i);
+            assertEquals("t0", c.get("EMAIL", "v0", null));        // v0 is now the most recently used
+            for (int i = 100; i < 199; i++) putTwice(c, "v" + i, "t" + i);
+            assertEquals(100, c.size());
+            assertEquals(99, c.evictions());
+        }
+        assertEquals("t0", lru.get("EMAIL", "v0", null));
+        assertNull(fifo.get("EMAIL", "v0", null));
+        assertNull(lru.get("IPV4", "v150", null), "context is part of the key");
+
+        TokenCache big = new TokenCache(100_000, TokenCache.Eviction.LRU);
+        for (int i = 0; i < 300_000; i++) putTwice(big, "v" + i, "t");
+        assertTrue(big.size() <= 100_000 + 64, "bounded: " + big.size());
+    }
+
+    @Test
+    public void testHitsAndMissesCounted() {
+        TokenCache c = new TokenCache(10, TokenCache.Eviction.LRU);
+        TokenCache.Stats file = new TokenCache.Stats();
+        assertNull(c.get("SSN", "123-45-6789", file));
+        c.put("SSN", "123-45-6789", "tok");
+        assertNull(c.get("SSN", "123-45-6789", file), "admitted on the second miss");
+        c.put("SSN", "123-45-6789", "tok");
+        assertEquals("tok", c.get("SSN", "123-45-6789", file));
+        assertEquals("tok", c.get("SSN", "123-45-6789", null));
+
+        assertEquals(1, file.hits());
+        assertEquals(2, file.misses());
+        assertEquals(2, c.hits());
+        assertEquals(2, c.misses());
+
+        TokenCache.Stats job = new TokenCache.Stats();
+        job.add(file);
+        job.add(file);
+        assertEquals(2, job.hits());
+    }
+
+    @Test
+    public void testDeterministicRedactionRepeatsTokens() {
+        CryptoService crypto = new CryptoService(KEY);
+        PiiCryptoProperties props = new PiiCryptoProperties();
+        props.getEnc().setDeterministic(true);
+        Redactor redactor = new Redactor(crypto, props);
+        Path file = Path.of("a.log");
+
+        String email = redactor.encryptToken("vamsi@gmail.com", MatchType.EMAIL, file);
+        assertEquals(email, redactor.encryptToken("vamsi@gmail.com", MatchType.EMAIL, Path.of("b.log")));
+        assertNotEquals(email, redactor.encryptToken("other@gmail.com", MatchType.EMAIL, file));
+        assertEquals("vamsi@gmail.com", crypto.decrypt(email.split("::")[2], null));
+
+        // same token without the cache: the IV comes from the value, not from the cache
+        props.getEnc().getCache().setMaxEntries(0);
+        Redactor uncached = new Redactor(crypto, props);
+        assertNull(uncached.tokenCache());
+        assertEquals(email, uncached.encryptToken("vamsi@gmail.com", MatchType.EMAIL, file));
+        String asPassword = uncached.encryptToken("vamsi@gmail.com", MatchType.PASSWORD, file);
+        assertNotEquals(email.split("::")[2], asPassword.split("::")[2], "type is part of the IV input");
+
+        String line = "from=vamsi@gmail.com to=vamsi@gmail.com";
+        TokenCache.Stats stats = new TokenCache.Stats();
+        String out = redactor.encryptLine(line, List.of(hit(5, 20), hit(24, 39)), file, stats);
+        assertEquals("from=" + email + " to=" + email, out);
+        assertEquals(2, stats.hits());
+        assertEquals(0, stats.misses());
+
+        // default mode: random IVs, no cache
+        Redactor random = new Redactor(crypto, new PiiCryptoProperties());
+        assertNull(random.tokenCache());
+        assertNotEquals(random.encryptToken("vamsi@gmail.com", MatchType.EMAIL, file),
+                random.encryptToken("vamsi@gmail.com", MatchType.EMAIL, file));
+
+        // incremental jobs must not reuse random-IV copies once deterministic is on
+        RedactionPolicy enc = RedactionPolicy.uniform(RedactionMode.ENC);
+        assertNotEquals(random.settings(enc), redactor.settings(enc));
+        assertEquals(redactor.settings(enc), uncached.settings(enc));
+    }
+
+    @Test
+    public void testSeenOnceValuesAreNotCached() {
+        TokenCache c = new TokenCache(1000, TokenCache.Eviction.LRU);
+        for (int i = 0; i < 5000; i++) c.put("IPV4", "10.0.0." + i, "t");
+        assertEquals(0, c.size());
+        assertEquals(0, c.evictions());
+        c.put("IPV4", "10.0.0.4999", "t");
+        assertEquals("t", c.get("IPV4", "10.0.0.4999", null));
+    }
+
+    private static void putTwice(TokenCache c, String value, String token) {
+        c.put("EMAIL", value, token);
+        c.put("EMAIL", value, token);
+    }
+
+    private static DetectionResult hit(int start, int end) {
+        return DetectionResult.builder().line(1).startCol(start).endCol(end).type(MatchType.EMAIL)
+                .value("vamsi@gmail.com").build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.vamsi.saripudi.piiscannerredactor.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FindingsBufferTest {
+
+    private static final Path FILE = Path.of("logs", "app.log");
+
+    @Test
+    public void testRowsComeBackAsAdded() {
+        List<DetectionResult> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rows.add(row(i + 1, i % 80, MatchType.values()[i % MatchType.values().length], "v" + i + "-" + "x".repeat(i % 40)));
+        }
+        rows.add(row(1001, 0, null, null));
+        rows.add(row(1002, 4, MatchType.PASSWORD, ""));
+        rows.add(row(1003, 9, MatchType.EMAIL, "jürgen.müller@例え.jp"));
+        rows.add(row(1004, 9, MatchType.API_KEY, "emoji😀key,\"quoted\"\n"));
+
+        FindingsBuffer b = FindingsBuffer.of(FILE, rows);
+        assertEquals(rows.size(), b.size());
+        assertEquals(rows, b.toList());
+        assertNull(b.type(1000));
+        assertEquals(-1, b.typeOrdinal(1000));
+        assertNull(b.value(1000));
+        assertEquals(-1, b.valueLength(1000));
+        assertEquals("", b.value(1001));
+        assertEquals("jürgen.müller@例え.jp".getBytes(StandardCharsets.UTF_8).length, b.valueLength(1002));
+        assertThrows(IndexOutOfBoundsException.class, () -> b.get(b.size()));
+    }
+
+    @Test
+    public void testRowsAddedByOffsetsCutTheValueFromTheLine() {
+        String line = "to jürgen.müller@例え.jp ip 10.0.0.1 key emoji😀key";
+        int email = line.indexOf("jürgen"), ip = line.indexOf("10.0"), key = line.indexOf("emoji");
+        FindingsBuffer b = new FindingsBuffer(FILE);
+        b.add(4, email, email + 19, MatchType.EMAIL.ordinal(), 0.5, line);
+        b.add(4, ip, ip + 8, MatchType.IPV4.ordinal(), 0.5, new StringBuilder(line));
+        b.add(4, key, line.length(), -1, 0.5, line);
+
+        assertEquals(List.of(
+                row(4, email, MatchType.EMAIL, "jürgen.müller@例え.jp"),
+                row(4, ip, MatchType.IPV4, "10.0.0.1"),
+                DetectionResult.builder().filePath(FILE).line(4).startCol(key).endCol(line.length())
+                        .value("emoji😀key").score(0.5).build()), b.toList());
+        assertEquals("jürgen.müller@例え.jp".getBytes(StandardCharsets.UTF_8).length, b.valueLength(0));
+        assertEquals(b.valueOffset(0) + b.valueLength(0), b.valueOffset(1));
+    }
+
+    @Test
+    public void testRowsTakeTheBufferPath() {
+        DetectionResult r = row(3, 1, MatchType.SSN, "123-45-6789");
+        r.setFilePath(Path.of("elsewhere.log"));
+        assertEquals(FILE, FindingsBuffer.of(FILE, List.of(r)).get(0).getFilePath());
+        assertTrue(new FindingsBuffer(FILE).toList().isEmpty());
+    }
+
+    @Test
+    public void testAddAllShiftsLines() {
+        FindingsBuffer first = FindingsBuffer.of(FILE, List.of(row(1, 0, MatchType.EMAIL, "a@b.co"), row(2, 5, MatchType.IPV4, "10.0.0.1")));
+        FindingsBuffer second = FindingsBuffer.of(FILE, List.of(row(1, 2, MatchType.SSN, "123-45-6789"), row(7, 0, null, null)));
+
+        FindingsBuffer all = new FindingsBuffer(FILE);
+        all.addAll(first, 0);
+        all.addAll(new FindingsBuffer(FILE), 2);
+        all.addAll(second, 2);
+
+        List<DetectionResult> expected = new ArrayList<>(first.toList());
+        for (DetectionResult r : second.toList()) {
+            r.setLine(r.getLine() + 2);
+            expected.add(r);
+        }
+        assertEquals(expected, all.toList());
+        assertEquals(9, all.line(3));
+        assertEquals(1, second.line(0), "source buffer untouched");
+    }
+
+    private static DetectionResult row(int line, int start, MatchType type, String value) {
+        return DetectionResult.builder()
+                .filePath(FILE)
+                .line(line)
+                .startCol(start)
+                .endCol(start + (value == null ? 0 : value.length()))
+                .type(type)
+                .value(value)
+                .score(line / 8.0)
+                .build();
+    }
+}
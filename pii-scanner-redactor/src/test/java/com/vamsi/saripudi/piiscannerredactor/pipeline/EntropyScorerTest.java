@@ -0,0 +1,111 @@
+package com.vamsi.saripudi.piiscannerredactor.pipeline;
+
+import com.vamsi.saripudi.piiscannerredactor.model.DetectionResult;
+import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
+import com.vamsi.saripudi.piiscannerredactor.util.EntropyUtil;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EntropyScorerTest {
+
+    private static final String SECRET = "wJalrXUtnFEMI/K7MDENG/bPxRfiCYEXAMPLEKEY";
+    private static final Path FILE = Path.of("t.txt");
+
+    @Test
+    public void testSameScoresAsDirectFormula() {
+        Random rnd = new Random(18);
+        String alphabet = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789+/=-_.:é日";
+        for (int round = 0; round < 2000; round++) {
+            StringBuilder sb = new StringBuilder();
+            int len = rnd.nextInt(120);
+            int span = 1 + rnd.nextInt(alphabet.length());
+            for (int i = 0; i < len; i++) sb.append(alphabet.charAt(rnd.nextInt(span)));
+            String s = sb.toString();
+            assertEquals(reference(s), EntropyUtil.shannonEntropy(s), 1e-9, s);
+            assertEquals(reference(s), EntropyUtil.shannonEntropy(s), 1e-9, "histogram left dirty: " + s);
+        }
+        assertEquals(0.0, EntropyUtil.shannonEntropy(""));
+        assertEquals(0.0, EntropyUtil.shannonEntropy("日本語"));
+        assertEquals(23, EntropyUtil.minLengthFor(EntropyScorer.highThreshold()));
+    }
+
+    @Test
+    public void testWindowScoresMatchRecomputing() {
+        String token = "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa" + SECRET + "bbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbb";
+        int window = 32;
+        double best = 0;
+        int first = -1, last = -1;
+        for (int s = 0; s + window <= token.length(); s++) {
+            double h = reference(token.substring(s, s + window));
+            if (h >= 4.5) {
+                if (first < 0) first = s;
+                last = s + window;
+                best = Math.max(best, h);
+            }
+        }
+        List<double[]> runs = new ArrayList<>();
+        EntropyUtil.highEntropyWindows(token, 0, token.length(), window, 4.5, (s, e, b) -> runs.add(new double[]{s, e, b}));
+        assertEquals(1, runs.size());
+        assertEquals(first, (int) runs.get(0)[0]);
+        assertEquals(last, (int) runs.get(0)[1]);
+        assertEquals(best, runs.get(0)[2], 1e-9);
+    }
+
+    @Test
+    public void testSecretInsideLongTokenIsFound() {
+        EntropyScorer scorer = new EntropyScorer();
+        String token = "/home/user/home/user/home/user/cache?key=" + SECRET + "&x=aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa";
+        assertTrue(scorer.score(token) < EntropyScorer.highThreshold(), "whole token is diluted");
+
+        List<DetectionResult> hits = scorer.evaluateToken(token, FILE, 3, 100);
+        assertEquals(1, hits.size());
+        DetectionResult r = hits.get(0);
+        assertEquals(MatchType.HIGH_ENTROPY, r.getType());
+        assertEquals(token.substring(r.getStartCol() - 100, r.getEndCol() - 100), r.getValue());
+        assertTrue(r.getValue().contains("wJalrXUtnFEMI/K7MDENG/bPxRfiCY"), r.getValue());
+        assertTrue(r.getScore() >= EntropyScorer.highThreshold());
+
+        // whole tokens only: not found
+        assertEquals(List.of(), new EntropyScorer(0).evaluateToken(token, FILE, 3, 100));
+    }
+
+    @Test
+    public void testWholeTokenAndQuietTokens() {
+        EntropyScorer scorer = new EntropyScorer();
+        List<DetectionResult> hits = scorer.evaluateToken(SECRET, FILE, 1, 7);
+        assertEquals(1, hits.size());
+        assertEquals(7, hits.get(0).getStartCol());
+        assertEquals(7 + SECRET.length(), hits.get(0).getEndCol());
+        assertEquals(SECRET, hits.get(0).getValue());
+
+        for (String token : List.of("a", "password", "sshd[3615]:", "abcdefghijklmnopqrstuv",
+                "//www.example.com/products/category/electronics/laptops?page=2&sort=price_desc&filter=brand",
+                "/usr/share/java/commons-lang3-3.12.0.jar:/usr/share/java/guava-31.1.jar",
+                "123e4567-e89b-42d3-a456-426614174000,223e4567-e89b-42d3-a456-426614174001")) {
+            assertEquals(List.of(), scorer.evaluateToken(token, FILE, 1, 0), token);
+        }
+    }
+
+    /** The formula as it was computed before the table / histogram reuse. */
+    private static double reference(String s) {
+        int[] freq = new int[128];
+        int n = 0;
+        for (char c : s.toCharArray()) {
+            if (c < 128) { freq[c]++; n++; }
+        }
+        if (n == 0) return 0.0;
+        double h = 0.0;
+        for (int f : freq) {
+            if (f == 0) continue;
+            double p = (double) f / n;
+            h -= p * (Math.log(p) / Math.log(2));
+        }
+        return h;
+    }
+}
@@ -0,0 +1,75 @@
+package com.vamsi.saripudi.piiscannerredactor.pipeline;
+
+import com.vamsi.saripudi.piiscannerredactor.model.DetectionResult;
+import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeyHintDictionaryTest {
+
+    private final KeyHintDictionary dict = KeyHintDictionary.of(
+            Map.of(MatchType.PASSWORD, List.of("password", "pwd"),
+                    MatchType.API_KEY, List.of("token", "api_key", "Authorization")),
+            List.of("level", "ts", "service"),
+            Map.of(MatchType.EMAIL, List.of("email")),
+            5.0, 1.0);
+
+    @Test
+    public void testLookups() {
+        assertEquals(MatchType.PASSWORD, dict.find("PASSWORD").type());
+        assertEquals(KeyHintDictionary.Tier.CLASSIFY, dict.find("authorization").tier());
+        assertEquals(MatchType.API_KEY, dict.find("API-KEY").type());
+        assertEquals(KeyHintDictionary.Tier.SKIP, dict.find("Level").tier());
+        assertEquals(KeyHintDictionary.Tier.BOOST, dict.find("email").tier());
+
+        // trailing segments: classify / boost only
+        assertEquals(MatchType.PASSWORD, dict.find("db_password").type());
+        assertEquals(MatchType.API_KEY, dict.find("x-api-key").type());
+        assertEquals(MatchType.PASSWORD, dict.find("spring.datasource.password").type());
+        assertEquals(MatchType.EMAIL, dict.find("user_email").type());
+        assertNull(dict.find("log_level"));
+        assertNull(dict.find("passwords"));
+        assertNull(dict.find("tokenizer"));
+        assertNull(dict.find("user"));
+        assertNull(dict.find(""));
+
+        // in place: key inside a line
+        String line = "x=1 LOG_PWD=hunter2";
+        assertEquals(MatchType.PASSWORD, dict.find(line, 4, 11).type());
+    }
+
+    @Test
+    public void testEveryKeyHasItsOwnSlot() {
+        List<KeyHintDictionary.Hint> hints = new ArrayList<>();
+        for (int i = 0; i < 300; i++) hints.add(new KeyHintDictionary.Hint("key_" + i, KeyHintDictionary.Tier.SKIP, null));
+        KeyHintDictionary big = new KeyHintDictionary(hints, 5.0, 1.0);
+        for (int i = 0; i < 300; i++) assertEquals("key_" + i, big.find("KEY-" + i).key());
+        assertNull(big.find("key_300"));
+        assertNull(KeyHintDictionary.EMPTY.find("password"));
+    }
+
+    @Test
+    public void testClassifyAndBoost() {
+        Path file = Path.of("t.txt");
+        String line = "password='hunter2 x' email=a@b.co token=";
+        DetectionResult r = dict.classify(line, 9, 20, dict.find("password"), file, 3);
+        assertEquals("hunter2 x", r.getValue());
+        assertEquals(10, r.getStartCol());
+        assertEquals(19, r.getEndCol());
+        assertEquals(MatchType.PASSWORD, r.getType());
+        assertEquals(5.0, r.getScore());
+        assertNull(dict.classify(line, line.length(), line.length(), dict.find("token"), file, 3));
+
+        DetectionResult email = DetectionResult.builder().type(MatchType.EMAIL).startCol(27).endCol(33).score(3.0).build();
+        DetectionResult ip = DetectionResult.builder().type(MatchType.IPV4).startCol(27).endCol(33).score(3.0).build();
+        dict.boost(List.of(email, ip), dict.find("email"), 27, 33);
+        assertEquals(4.0, email.getScore());
+        assertEquals(3.0, ip.getScore());
+    }
+}
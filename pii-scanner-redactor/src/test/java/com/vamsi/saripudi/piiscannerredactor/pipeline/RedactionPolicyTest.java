@@ -0,0 +1,50 @@
+package com.vamsi.saripudi.piiscannerredactor.pipeline;
+
+import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RedactionPolicyTest {
+
+    @Test
+    public void testParseRequestMap() {
+        Map<String, String> request = new LinkedHashMap<>();
+        request.put("default", "Mask");
+        request.put("email", "hmac");
+        request.put("API_KEY", " remove ");
+        RedactionPolicy policy = RedactionPolicy.parse(request);
+
+        assertEquals(RedactionMode.HMAC, policy.modeOf(MatchType.EMAIL));
+        assertEquals(RedactionMode.REMOVE, policy.modeOf(MatchType.API_KEY));
+        assertEquals(RedactionMode.MASK, policy.modeOf(MatchType.SSN));
+
+        assertEquals(RedactionMode.ENC, RedactionPolicy.parse(Map.of("IPV4", "tag")).modeOf(MatchType.SSN));
+        assertNull(RedactionPolicy.parse(Map.of()));
+        assertNull(RedactionPolicy.parse((Map<String, String>) null));
+    }
+
+    @Test
+    public void testParseConfigSpec() {
+        RedactionPolicy policy = RedactionPolicy.parse("tag, EMAIL=mask ,JWT=enc");
+        assertEquals(RedactionMode.MASK, policy.modeOf(MatchType.EMAIL));
+        assertEquals(RedactionMode.ENC, policy.modeOf(MatchType.JWT));
+        assertEquals(RedactionMode.TAG, policy.modeOf(MatchType.PHONE));
+
+        RedactionPolicy enc = RedactionPolicy.parse("enc");
+        for (MatchType t : MatchType.values()) assertEquals(RedactionMode.ENC, enc.modeOf(t));
+        assertEquals(RedactionMode.MASK, RedactionPolicy.parse("SSN=mask").modeOf(MatchType.SSN));
+        assertEquals(RedactionMode.ENC, RedactionPolicy.parse("SSN=mask").modeOf(MatchType.EMAIL));
+    }
+
+    @Test
+    public void testRejectsUnknownNames() {
+        assertThrows(IllegalArgumentException.class, () -> RedactionPolicy.parse("shred"));
+        assertThrows(IllegalArgumentException.class, () -> RedactionPolicy.parse("enc,NAME=mask"));
+        assertThrows(IllegalArgumentException.class, () -> RedactionPolicy.parse(Map.of("EMAIL", "")));
+        assertThrows(IllegalArgumentException.class, () -> RedactionPolicy.parse(Map.of("default", "scramble")));
+    }
+}
@@ -0,0 +1,83 @@
+package com.vamsi.saripudi.piiscannerredactor.pipeline;
+
+import com.vamsi.saripudi.piiscannerredactor.config.PiiCryptoProperties;
+import com.vamsi.saripudi.piiscannerredactor.encryption.CryptoService;
+import com.vamsi.saripudi.piiscannerredactor.model.DetectionResult;
+import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * redactLine on lines with 1-500 findings: a quoted Pattern and a new line String per finding (as
+ * before) vs one splice at the findings' offsets into a reused builder.
+ * Run with: mvn test -Dtest=RedactorBenchmark -Dbench=true
+ */
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+public class RedactorBenchmark {
+
+    private static final byte[] KEY = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final Path FILE = Path.of("bench.log");
+    private static final long MILLIS = 1000;
+
+    @Test
+    public void findingsPerSecond() {
+        Redactor redactor = new Redactor(new CryptoService(KEY), new PiiCryptoProperties());
+        for (int perLine : new int[]{1, 10, 50, 200, 500}) {
+            StringBuilder sb = new StringBuilder();
+            List<DetectionResult> hits = new ArrayList<>();
+            for (int i = 0; i < perLine; i++) {
+                String ssn = String.format("%03d-45-%04d", i % 1000, i);
+                sb.append("user=u").append(i).append(" ssn=");
+                hits.add(DetectionResult.builder().filePath(FILE).line(1).startCol(sb.length())
+                        .endCol(sb.length() + ssn.length()).type(MatchType.SSN).value(ssn).build());
+                sb.append(ssn).append(' ');
+            }
+            String line = sb.toString();
+            for (String mode : new String[]{"TAG", "MASK", "ENC"}) {
+                double before = run(hits.size(), () -> perFinding(redactor, line, hits, mode).length());
+                double after = run(hits.size(), () -> redactor.redactLine(line, hits, FILE, 1, mode).length());
+                System.out.printf("findings/line=%3d chars=%6d %-4s per-finding=%,12.0f/s splice=%,12.0f/s (x%.1f)%n",
+                        perLine, line.length(), mode, before, after, after / before);
+            }
+        }
+    }
+
+    private static double run(int findings, java.util.function.IntSupplier work) {
+        long sink = 0, n = 0;
+        long end = System.nanoTime() + MILLIS / 4 * 1_000_000L;         // warm-up
+        while (System.nanoTime() < end) sink += work.getAsInt();
+        long t0 = System.nanoTime();
+        end = t0 + MILLIS * 1_000_000L;
+        while (System.nanoTime() < end) {
+            sink += work.getAsInt();
+            n++;
+        }
+        double secs = (System.nanoTime() - t0) / 1e9;
+        return (sink == 42 ? n + 1 : n) * findings / secs;
+    }
+
+    /** redactLine as it was (with the file comparison fixed): replace the first copy of each value. */
+    private static String perFinding(Redactor redactor, String line, List<DetectionResult> results, String mode) {
+        String out = line;
+        for (DetectionResult r : results) {
+            String replacement = switch (mode) {
+                case "TAG" -> "[REDACTED:" + r.getType().name() + "]";
+                case "ENC" -> redactor.encryptToken(r.getValue(), r.getType(), FILE);
+                default    -> redactor.mask(r.getValue(), r.getType());
+            };
+            Matcher m = Pattern.compile(Pattern.quote(r.getValue())).matcher(out);
+            if (m.find()) {
+                out = new StringBuilder(out.length() - r.getValue().length() + replacement.length())
+                        .append(out, 0, m.start()).append(replacement).append(out, m.end(), out.length()).toString();
+            }
+        }
+        return out;
+    }
+}
@@ -16,6 +16,7 @@ import org.springframework.stereotype.Component;
 
 import java.nio.file.Path;
 import java.util.Collections;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -111,6 +112,91 @@ public class RedactorTest {
         System.out.println(result);
     }
 
+    @Test
+    public void testEncryptLineSplicesEveryHit() {
+        Path file = Path.of("test.txt");
+        String line = "user=vamsi@gmail.com ssn 123-45-6789 done";
+        List<DetectionResult> hits = List.of(
+                hit(file, 5, 20, MatchType.EMAIL, "vamsi@gmail.com"),
+                hit(file, 10, 15, MatchType.EMAIL, "gmail"),              // overlaps the previous: left out
+                hit(file, 25, 36, MatchType.SSN, "123-45-6789"));
+        String out = redactor.encryptLine(line, hits, file);
+
+        String prefix = props.getToken().getPrefix();
+        assertTrue(out.startsWith("user=" + prefix + "::EMAIL::"), out);
+        assertTrue(out.endsWith("::6789 done"), out);
+        String[] words = out.split(" ");
+        assertEquals(4, words.length);
+        assertEquals("vamsi@gmail.com", cryptoService.decrypt(words[0].split("::")[2], ""));
+        assertEquals("gmail.com", words[0].split("::")[3]);
+        assertEquals("123-45-6789", cryptoService.decrypt(words[2].split("::")[2], ""));
+        assertSame(line, redactor.encryptLine(line, List.of(), file));
+    }
+
+    @Test
+    public void testRedactAppliesPolicyPerType() {
+        Path file = Path.of("test.txt");
+        String line = "a=vamsi@gmail.com b=123-45-6789 c=10.20.30.40 d=hunter22";
+        List<DetectionResult> hits = List.of(
+                hit(file, 2, 17, MatchType.EMAIL, "vamsi@gmail.com"),
+                hit(file, 20, 31, MatchType.SSN, "123-45-6789"),
+                hit(file, 34, 45, MatchType.IPV4, "10.20.30.40"),
+                hit(file, 48, 56, MatchType.PASSWORD, "hunter22"));
+        RedactionPolicy policy = RedactionPolicy.parse("mask,EMAIL=hmac,IPV4=tag,PASSWORD=remove");
+        String out = redactor.redact(line, hits, policy, null);
+
+        String prefix = props.getToken().getPrefix();
+        String[] words = out.split(" ");
+        assertTrue(words[0].startsWith("a=" + prefix + "::EMAIL::h:"), out);
+        assertEquals(2 + prefix.length() + "::EMAIL::h:".length() + 16, words[0].length());
+        assertEquals(out, redactor.redact(line, hits, policy, null), "pseudonyms are stable");
+        assertEquals("b=***-**-6789", words[1]);
+        assertEquals("c=[REDACTED:IPV4]", words[2]);
+        assertEquals("d=", words[3]);
+
+        String encrypted = redactor.redact(line, hits, RedactionPolicy.uniform(RedactionMode.ENC), null);
+        assertEquals("123-45-6789", cryptoService.decrypt(encrypted.split(" ")[1].split("::")[2], ""));
+    }
+
+    @Test
+    public void testRedactLineUsesOffsetsOfThisFileAndLine() {
+        Path file = Path.of("logs", "app.log");
+        String line = "from 123-45-6789 to 123-45-6789 ip 10.0.0.1";
+        List<DetectionResult> results = List.of(
+                hit(file, 35, 43, MatchType.IPV4, "10.0.0.1"),
+                hit(file, 20, 31, MatchType.SSN, "123-45-6789"),                      // the second copy only
+                hit(Path.of("logs", "other.log"), 5, 16, MatchType.SSN, "123-45-6789"),
+                DetectionResult.builder().filePath(file).line(2).startCol(5).endCol(16)
+                        .type(MatchType.SSN).value("123-45-6789").build());
+
+        assertEquals("from 123-45-6789 to [REDACTED:SSN] ip [REDACTED:IPV4]",
+                redactor.redactLine(line, results, Path.of("logs", "app.log"), 1, "tag"));
+        assertEquals("from 123-45-6789 to ***-**-6789 ip ***.***.***.***",
+                redactor.redactLine(line, results, file, 1, null));
+        assertEquals("from 123-45-6789 to  ip ", redactor.redactLine(line, results, file, 1, "REMOVE"));
+        assertSame(line, redactor.redactLine(line, results, file, 3, "tag"));
+    }
+
+    @Test
+    public void testOverlappingHitsOfOtherTypesAreRedactedAsTheirUnion() {
+        Path file = Path.of("test.txt");
+        String line = "u=jdoe@corp.example.com&k=Zx8Qp2Lr9Tv4Ws7Yb3Nc6Md1Fg5Hj0KqAbCdE&p=/x";
+        int at = line.indexOf("jdoe"), k = line.indexOf("Zx8");
+        List<DetectionResult> hits = List.of(
+                hit(file, at, at + 21, MatchType.EMAIL, "jdoe@corp.example.com"),
+                hit(file, at + 7, k + 37, MatchType.HIGH_ENTROPY, line.substring(at + 7, k + 37)));
+
+        assertEquals("u=[REDACTED:HIGH_ENTROPY]&p=/x",
+                redactor.redact(line, hits, RedactionPolicy.uniform(RedactionMode.TAG), null));
+        String encrypted = redactor.encryptLine(line, hits, file);
+        assertEquals(line.substring(at, k + 37), cryptoService.decrypt(encrypted.split("::")[2].replace("&p=/x", ""), ""));
+        assertFalse(encrypted.contains("Zx8") || encrypted.contains("com&"), encrypted);
+    }
+
+    private static DetectionResult hit(Path file, int start, int end, MatchType type, String value) {
+        return DetectionResult.builder().filePath(file).line(1).startCol(start).endCol(end).type(type).value(value).build();
+    }
+
     @Test
     public void testByteArrayForEncryptionKey(){
         byte[] input = keyB64.getBytes();
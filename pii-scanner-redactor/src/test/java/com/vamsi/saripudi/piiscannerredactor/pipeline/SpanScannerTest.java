@@ -0,0 +1,92 @@
+package com.vamsi.saripudi.piiscannerredactor.pipeline;
+
+import com.vamsi.saripudi.piiscannerredactor.model.DetectionResult;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpanScannerTest {
+
+    private final UpdatedRegex regexOnly = new UpdatedRegex(false);
+    private final UpdatedRegex withScanners = new UpdatedRegex(true);
+    private final Path file = Path.of("test.txt");
+
+    private static final List<String> FIXTURES = List.of(
+            "123-45-6789", "000-12-3456", "666-12-3456", "123-00-4567", "123-45-0000", "923-45-6789", "a123-45-6789",
+            "(555)123-4567", "+1-555-123-4567", "1 555 123 4567", "+15551234567", "15551234567", "555.123.4567x",
+            "4111 1111 1111 1111", "4111-1111-1111-1111", "4111111111111111", "4111111111111112",
+            "41111111111111111111111", "4111 1111 1111 1111 ", "4111-1111-1111-1111-",
+            "172.24.118.244", "0.0.0.0", "255.255.255.255", "01.2.3.4", "1.2.3.256", "1.2.3.4.5", "10.0.0.1a",
+            "ip=10.1.2.3,ssn=123-45-6789,cc=4111111111111111"
+    );
+
+    @Test
+    public void testScannersMatchPatternsOnFixtures() {
+        for (String s : FIXTURES) {
+            assertSameSpans(s);
+            assertEquals(regexOnly.matchesToken(s, file, 1, 5), withScanners.matchesToken(s, file, 1, 5), s);
+        }
+    }
+
+    @Test
+    public void testScannersMatchPatternsOnRandomInput() {
+        // Alphabet biased towards the separators and boundaries the grammars care about
+        String alphabet = "0123456789012345678901234567890123456789 -.()+1a_\t";
+        Random rnd = new Random(42);
+        for (int n = 0; n < 20_000; n++) {
+            StringBuilder sb = new StringBuilder();
+            int len = 5 + rnd.nextInt(40);
+            for (int k = 0; k < len; k++) sb.append(alphabet.charAt(rnd.nextInt(alphabet.length())));
+            String s = sb.toString();
+            assertSameSpans(s);
+            assertEquals(regexOnly.matchesToken(s, file, 1, 0), withScanners.matchesToken(s, file, 1, 0), s);
+        }
+    }
+
+    @Test
+    public void testMultiPatternEngineUsesScanners() {
+        MultiPatternEngine engine = new MultiPatternEngine(withScanners);
+        for (String s : FIXTURES) {
+            List<DetectionResult> expected = new MultiPatternEngine(regexOnly).matchesToken(s, file, 2, 0);
+            assertEquals(expected, engine.matchesToken(s, file, 2, 0), s);
+        }
+    }
+
+    @Test
+    public void testLuhnSkipsSeparators() {
+        assertTrue(LuhnValidator.check("4111-1111-1111-1111", 0, 19));
+        assertTrue(new LuhnValidator().isValid("4111 1111 1111 1111"));
+        assertFalse(new LuhnValidator().isValid("4111 1111 1111 1112"));
+        assertFalse(new LuhnValidator().isValid("411111111111"));      // 12 digits
+    }
+
+    /** Raw spans (before post-validation) from Matcher.find() vs the scanner's matchAt loop. */
+    private void assertSameSpans(String s) {
+        for (SpanScanner sc : withScanners.scanners().values()) {
+            Pattern p = regexOnly.patterns().get(sc.type());
+            List<String> expected = new ArrayList<>();
+            Matcher m = p.matcher(s);
+            while (m.find()) expected.add(m.start() + ":" + m.end());
+
+            List<String> actual = new ArrayList<>();
+            int i = 0;
+            while (i < s.length()) {
+                int e = sc.matchAt(s, i);
+                if (e < 0) {
+                    i++;
+                    continue;
+                }
+                actual.add(i + ":" + e);
+                i = e;
+            }
+            assertEquals(expected, actual, sc.type() + " in [" + s + "]");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.vamsi.saripudi.piiscannerredactor.pipeline;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Regex tokenizer (as it was) vs the Token list adapter vs offsets, over data-corpus/big_corpus lines.
+ * Run with: mvn test -Dtest=TokenizerBenchmark -Dbench=true
+ */
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+public class TokenizerBenchmark {
+
+    private static final Path CORPUS = Path.of("..", "data-corpus", "big_corpus");
+
+    @Test
+    public void compare() throws IOException {
+        assumeTrue(Files.isDirectory(CORPUS), "corpus not found: " + CORPUS.toAbsolutePath());
+        List<String> lines = new ArrayList<>();
+        try (Stream<Path> files = Files.list(CORPUS)) {
+            for (Path p : files.filter(Files::isRegularFile).sorted().toList()) {
+                lines.addAll(Files.readAllLines(p, StandardCharsets.UTF_8));
+            }
+        }
+
+        for (int round = 0; round < 5; round++) {
+            run("regex  ", lines, line -> TokenizerTest.RegexTokenizer.tokenize(line).size());
+            run("list   ", lines, line -> Tokenizer.tokenize(line).size());
+            run("offsets", lines, line -> Tokenizer.offsets(line).count());
+        }
+    }
+
+    private static void run(String name, List<String> lines, ToIntFunction<String> tokenizer) {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().threadId();
+        long a0 = threads.getThreadAllocatedBytes(id);
+        long t0 = System.nanoTime();
+        long tokens = 0;
+        for (String line : lines) tokens += tokenizer.applyAsInt(line);
+        long nanos = System.nanoTime() - t0;
+        long bytes = threads.getThreadAllocatedBytes(id) - a0;
+        System.out.printf("%s lines=%d tokens=%d %.0f ns/line %.0f B/line%n",
+                name, lines.size(), tokens, (double) nanos / lines.size(), (double) bytes / lines.size());
+    }
+}
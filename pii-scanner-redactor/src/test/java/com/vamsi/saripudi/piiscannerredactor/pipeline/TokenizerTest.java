@@ -4,7 +4,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -29,5 +33,82 @@ public class TokenizerTest {
         assertTrue(tokens.getLast().text.endsWith("W8\'"));
         tokens.forEach(token -> System.out.println(token.text));
     }
-}
 
+    @Test
+    public void testSameTokensAsRegexTokenizer() {
+        List<String> lines = new ArrayList<>(List.of(
+                "",
+                "   ",
+                "user=admin password:\"s3cr3t pass\" token = abc",
+                "say \"unterminated 'inner quoted' and `tick` done",
+                "esc \"a\\\"b c\" 'it\\'s fine' trailing\\",
+                "list=(a,b,c); call(x)}]) ,;",
+                "k=\"v \\\n w\" x",
+                "key= ",
+                "ip 10.0.0.1, mail=a@b.co\u2028 next nbsp \u0085x=y\u0085",
+                "a=b=c:d \"\"''`` \\\" \"\\"
+        ));
+        Random rnd = new Random(19);
+        String alphabet = "ab=:\"'`\\ ,;)]}\t\n\r.-_\u0085\u2028 é";
+        for (int round = 0; round < 20000; round++) {
+            StringBuilder sb = new StringBuilder();
+            int len = rnd.nextInt(40);
+            for (int i = 0; i < len; i++) sb.append(alphabet.charAt(rnd.nextInt(alphabet.length())));
+            lines.add(sb.toString());
+        }
+        Tokenizer.Offsets reused = new Tokenizer.Offsets();
+        for (String line : lines) {
+            List<String> expected = render(RegexTokenizer.tokenize(line));
+            assertEquals(expected, render(Tokenizer.tokenize(line)), line);
+
+            Tokenizer.Offsets o = Tokenizer.tokenize(line, reused);
+            List<String> fromOffsets = new ArrayList<>();
+            for (int i = 0; i < o.count(); i++) {
+                fromOffsets.add(new Tokenizer.Token(o.text(i), o.start(i), o.end(i), o.key(i)).toString());
+            }
+            assertEquals(expected, fromOffsets, line);
+        }
+    }
+
+    private static List<String> render(List<Tokenizer.Token> tokens) {
+        return tokens.stream().map(Tokenizer.Token::toString).toList();
+    }
+
+    /** The regex-based tokenizer the offset version replaced, kept as the reference. */
+    static final class RegexTokenizer {
+        private static final Pattern P_QUOTED = Pattern.compile("\"(?:[^\"\\\\]|\\\\.)*\"|'(?:[^'\\\\]|\\\\.)*'|`(?:[^`\\\\]|\\\\.)*`");
+        private static final Pattern P_KEYVAL = Pattern.compile("([A-Za-z0-9_\\-.]+)\\s*[:=]\\s*(.+)");
+
+        static List<Tokenizer.Token> tokenize(String line) {
+            boolean[] quoted = new boolean[line.length()];
+            Matcher q = P_QUOTED.matcher(line);
+            while (q.find()) {
+                for (int i = q.start(); i < q.end(); i++) quoted[i] = true;
+            }
+            List<Tokenizer.Token> raw = new ArrayList<>();
+            int i = 0, n = line.length();
+            while (i < n) {
+                if (!quoted[i] && Character.isWhitespace(line.charAt(i))) { i++; continue; }
+                int start = i;
+                while (i < n && (quoted[i] || !Character.isWhitespace(line.charAt(i)))) i++;
+                raw.add(new Tokenizer.Token(line.substring(start, i), start, i, null));
+            }
+            List<Tokenizer.Token> out = new ArrayList<>();
+            for (Tokenizer.Token t : raw) {
+                Matcher m = P_KEYVAL.matcher(t.text);
+                if (m.matches()) {
+                    int keyStart = t.start + m.start(1), keyEnd = t.start + m.end(1);
+                    int valStart = t.start + m.start(2), valEnd = t.start + m.end(2);
+                    while (valEnd > valStart && ",;)]}".indexOf(line.charAt(valEnd - 1)) >= 0) valEnd--;
+                    out.add(new Tokenizer.Token(line.substring(keyStart, keyEnd), keyStart, keyEnd, null));
+                    out.add(new Tokenizer.Token(line.substring(valStart, valEnd), valStart, valEnd, m.group(1)));
+                } else {
+                    int s = t.start, e = t.end;
+                    while (e > s && ",;)]}".indexOf(line.charAt(e - 1)) >= 0) e--;
+                    out.add(new Tokenizer.Token(line.substring(s, e), s, e, null));
+                }
+            }
+            return out;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.vamsi.saripudi.piiscannerredactor.service;
+
+import com.vamsi.saripudi.piiscannerredactor.model.DetectionResult;
+import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
+import com.vamsi.saripudi.piiscannerredactor.pipeline.DetectionMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * TOKEN vs LINE detection over data-corpus/big_corpus.
+ * Run with: mvn test -Dtest=DetectionModeBenchmark -Dbench=true
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+public class DetectionModeBenchmark {
+
+    private static final Path CORPUS = Path.of("..", "data-corpus", "big_corpus");
+
+    @Autowired
+    ScannerService scannerService;
+
+    @Test
+    public void compareTokenAndLineModes() throws IOException {
+        assumeTrue(Files.isDirectory(CORPUS), "corpus not found: " + CORPUS.toAbsolutePath());
+
+        List<String> lines = new ArrayList<>();
+        long bytes = 0;
+        try (Stream<Path> files = Files.list(CORPUS)) {
+            for (Path p : files.filter(Files::isRegularFile).sorted().toList()) {
+                for (String line : Files.readAllLines(p, StandardCharsets.UTF_8)) {
+                    lines.add(line);
+                    bytes += line.length() + 1;
+                }
+            }
+        }
+        Path file = Path.of("bench.txt");
+
+        for (DetectionMode mode : DetectionMode.values()) {
+            run(lines, file, mode, null);                          // warm-up
+        }
+        for (DetectionMode mode : DetectionMode.values()) {
+            Map<MatchType, Integer> byType = new EnumMap<>(MatchType.class);
+            long best = Long.MAX_VALUE;
+            for (int i = 0; i < 3; i++) {
+                byType.clear();
+                long t0 = System.nanoTime();
+                run(lines, file, mode, byType);
+                best = Math.min(best, System.nanoTime() - t0);
+            }
+            double secs = best / 1e9;
+            System.out.printf("%-5s lines=%d time=%.2fs %.0f lines/s %.2f MB/s findings=%s%n",
+                    mode, lines.size(), secs, lines.size() / secs, bytes / (1024.0 * 1024.0) / secs, byType);
+        }
+    }
+
+    private void run(List<String> lines, Path file, DetectionMode mode, Map<MatchType, Integer> byType) {
+        ScannerService.ScanCounters counters = new ScannerService.ScanCounters();
+        int lineNo = 0;
+        for (String line : lines) {
+            lineNo++;
+            if (line.isEmpty()) continue;
+            List<DetectionResult> hits = scannerService.detectLine(file, lineNo, line, mode, counters);
+            if (byType != null) {
+                for (DetectionResult r : hits) byType.merge(r.getType(), 1, Integer::sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.vamsi.saripudi.piiscannerredactor.service;
+
+import com.vamsi.saripudi.piiscannerredactor.model.DetectionResult;
+import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
+import com.vamsi.saripudi.piiscannerredactor.pipeline.DetectionMode;
+import com.vamsi.saripudi.piiscannerredactor.pipeline.RedactionMode;
+import com.vamsi.saripudi.piiscannerredactor.pipeline.RedactionPolicy;
+import com.vamsi.saripudi.piiscannerredactor.pipeline.Redactor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class DetectionModeTest {
+
+    @Autowired
+    ScannerService scannerService;
+
+    @Autowired
+    Redactor redactor;
+
+    private final Path file = Path.of("test.txt");
+
+    @Test
+    public void testLineModeFindsMultiTokenSpans() {
+        String line = "call (555) 123-4567 or visit 742 Evergreen Terrace Way";
+
+        List<MatchType> token = types(scannerService.detectLine(file, 1, line, DetectionMode.TOKEN, new ScannerService.ScanCounters()));
+        List<MatchType> whole = types(scannerService.detectLine(file, 1, line, DetectionMode.LINE, new ScannerService.ScanCounters()));
+
+        assertFalse(token.contains(MatchType.PHONE));
+        assertTrue(whole.contains(MatchType.PHONE));
+        assertTrue(whole.contains(MatchType.PHYSICAL_ADDRESS));
+    }
+
+    @Test
+    public void testSingleTokenFindingsAgree() {
+        String line = "Accepted password for root from 172.24.118.244 port 55753 ssh2 ssn=123-45-6789";
+        List<DetectionResult> token = scannerService.detectLine(file, 7, line, DetectionMode.TOKEN, new ScannerService.ScanCounters());
+        List<DetectionResult> whole = scannerService.detectLine(file, 7, line, DetectionMode.LINE, new ScannerService.ScanCounters());
+        assertEquals(token, whole);
+        assertEquals(List.of(MatchType.IPV4, MatchType.SSN), types(whole));
+    }
+
+    @Test
+    public void testKeyHintsClassifySkipAndBoost() {
+        String line = "user=bob password='hunter 2' level=alice@example.com token=abc123 email=bob@example.com";
+        for (DetectionMode mode : DetectionMode.values()) {
+            ScannerService.ScanCounters counters = new ScannerService.ScanCounters();
+            List<DetectionResult> hits = scannerService.detectLine(file, 1, line, mode, counters);
+            assertEquals(List.of(MatchType.PASSWORD, MatchType.API_KEY, MatchType.EMAIL), types(hits), mode.name());
+            assertEquals("hunter 2", hits.get(0).getValue());
+            assertEquals(4.0, hits.get(2).getScore(), mode.name());     // EMAIL base 3.0 + boost under email=
+        }
+    }
+
+    @Test
+    public void testEntropyWindowNextToAPatternHitLeavesNoSecretInClear() {
+        String secret = "Zx8Qp2Lr9Tv4Ws7Yb3Nc6Md1Fg5Hj0KqAbCdE";
+        String line = "GET /" + "a".repeat(60) + "?u=jdoe@corp.example.com&k=" + secret + "&p=/" + "a".repeat(31);
+        List<DetectionResult> hits = scannerService.detectLine(file, 1, line, DetectionMode.TOKEN, new ScannerService.ScanCounters());
+        assertEquals(List.of(MatchType.EMAIL, MatchType.HIGH_ENTROPY), types(hits));
+        assertTrue(hits.get(0).getEndCol() <= hits.get(1).getStartCol(), hits.toString());
+
+        String out = redactor.redact(line, hits, RedactionPolicy.uniform(RedactionMode.TAG), null);
+        assertTrue(out.contains("[REDACTED:EMAIL]"), out);
+        assertFalse(out.contains("jdoe") || out.contains(".com"), out);
+        for (int i = 0; i + 4 <= secret.length(); i++) {
+            assertFalse(out.contains(secret.substring(i, i + 4)), out);
+        }
+    }
+
+    private static List<MatchType> types(List<DetectionResult> hits) {
+        return hits.stream().map(DetectionResult::getType).toList();
+    }
+}
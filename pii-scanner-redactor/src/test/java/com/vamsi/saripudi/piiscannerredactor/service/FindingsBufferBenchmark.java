@@ -0,0 +1,119 @@
+package com.vamsi.saripudi.piiscannerredactor.service;
+
+import com.vamsi.saripudi.piiscannerredactor.model.DetectionResult;
+import com.vamsi.saripudi.piiscannerredactor.model.FindingsBuffer;
+import com.vamsi.saripudi.piiscannerredactor.pipeline.DetectionMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Per-file findings held as DetectionResult lists vs FindingsBuffers over data-corpus/big_corpus:
+ * heap retained per finding while results wait for the writer, bytes allocated and GC activity
+ * for detecting + collecting.
+ * Run with: mvn test -Dtest=FindingsBufferBenchmark -Dbench=true
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+public class FindingsBufferBenchmark {
+
+    private static final Path CORPUS = Path.of("..", "data-corpus", "big_corpus");
+
+    @Autowired
+    ScannerService scannerService;
+
+    @Test
+    public void compareListsAndBuffers() throws IOException {
+        assumeTrue(Files.isDirectory(CORPUS), "corpus not found: " + CORPUS.toAbsolutePath());
+
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(CORPUS)) {
+            paths = files.filter(Files::isRegularFile).sorted().toList();
+        }
+        List<List<String>> corpus = new ArrayList<>();
+        for (Path p : paths) corpus.add(Files.readAllLines(p, StandardCharsets.UTF_8));
+
+        collect(paths, corpus, false);                            // warm-up
+        collect(paths, corpus, true);
+        for (boolean buffers : new boolean[]{false, true, false, true}) {
+            long heapBefore = usedHeap();
+            long gcBefore = gcCount(), gcTimeBefore = gcMillis();
+            long allocBefore = allocatedBytes();
+            long t0 = System.nanoTime();
+            List<Object> held = collect(paths, corpus, buffers);
+            long nanos = System.nanoTime() - t0;
+            long alloc = allocatedBytes() - allocBefore;
+            long gcs = gcCount() - gcBefore, gcTime = gcMillis() - gcTimeBefore;
+            long retained = usedHeap() - heapBefore;
+            long findings = count(held);
+            System.out.printf("%-8s findings=%d retained=%.1f B/finding allocated=%.1f MB (%.0f B/finding) gc=%d (%d ms) time=%.2fs%n",
+                    buffers ? "buffers" : "lists", findings, (double) retained / findings,
+                    alloc / (1024.0 * 1024.0), (double) alloc / findings, gcs, gcTime, nanos / 1e9);
+            held.clear();
+        }
+    }
+
+    /** Every file's findings, held the way FileSummary holds them (lists: as before this buffer). */
+    private List<Object> collect(List<Path> paths, List<List<String>> corpus, boolean buffers) {
+        ScannerService.ScanCounters counters = new ScannerService.ScanCounters();
+        List<Object> held = new ArrayList<>();
+        for (int f = 0; f < paths.size(); f++) {
+            Path file = paths.get(f);
+            FindingsBuffer buffer = new FindingsBuffer(file);
+            List<DetectionResult> list = new ArrayList<>();
+            int lineNo = 0;
+            for (String line : corpus.get(f)) {
+                lineNo++;
+                if (line.isEmpty()) continue;
+                for (DetectionResult r : scannerService.detectLine(file, lineNo, line, DetectionMode.TOKEN, counters)) {
+                    if (buffers) buffer.add(r);
+                    else list.add(r);
+                }
+            }
+            if (buffers) buffer.trim();                             // as FileSummary does
+            held.add(buffers ? buffer : List.copyOf(list));
+        }
+        return held;
+    }
+
+    private static long count(List<Object> held) {
+        long n = 0;
+        for (Object o : held) n += o instanceof FindingsBuffer b ? b.size() : ((List<?>) o).size();
+        return n;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) System.gc();
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    private static long gcCount() {
+        long n = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) n += Math.max(0, gc.getCollectionCount());
+        return n;
+    }
+
+    private static long gcMillis() {
+        long n = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) n += Math.max(0, gc.getCollectionTime());
+        return n;
+    }
+}
@@ -0,0 +1,120 @@
+package com.vamsi.saripudi.piiscannerredactor.service;
+
+import com.vamsi.saripudi.piiscannerredactor.model.DetectionResult;
+import com.vamsi.saripudi.piiscannerredactor.model.FindingsPage;
+import com.vamsi.saripudi.piiscannerredactor.model.FindingsQuery;
+import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FindingsReaderTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<DetectionResult> all = new ArrayList<>();
+    private Path bin;
+    private Path csv;
+
+    @BeforeEach
+    public void writeFindings() throws Exception {
+        bin = dir.resolve("findings.bin");
+        csv = dir.resolve("streamed.csv");
+        MatchType[] types = MatchType.values();
+        Random rnd = new Random(7);
+        // several blocks, one batch per file, lines increasing inside a file
+        try (FindingsWriter w = new FindingsWriter("r", csv, null, bin, 1000, 50)) {
+            for (int f = 0; f < 40; f++) {
+                List<DetectionResult> batch = new ArrayList<>();
+                int line = 0;
+                for (int i = 0; i < 300 + rnd.nextInt(200); i++) {
+                    line += rnd.nextInt(5);
+                    int start = rnd.nextInt(120);
+                    batch.add(DetectionResult.builder()
+                            .filePath(Path.of("logs", "f" + f + ".log"))
+                            .line(line)
+                            .startCol(start)
+                            .endCol(start + 1 + rnd.nextInt(40))
+                            .type(types[rnd.nextInt(types.length)])
+                            .value(i % 97 == 0 ? null : (i % 13 == 0 ? "mot de passé, \"x\"" : "v" + i))
+                            .score(rnd.nextInt(50) / 8.0)
+                            .build());
+                }
+                w.submit(batch);
+                all.addAll(batch);
+            }
+        }
+    }
+
+    @Test
+    public void testRoundTripAndCsvExport() throws Exception {
+        try (FindingsReader r = FindingsReader.open(bin)) {
+            assertEquals(all.size(), r.totalRows());
+            assertEquals(all, r.query(FindingsQuery.builder().limit(all.size()).build()).getFindings());
+            for (MatchType t : MatchType.values()) {
+                assertEquals(all.stream().filter(d -> d.getType() == t).count(), r.count(t));
+            }
+
+            Path exported = dir.resolve("exported.csv");
+            r.exportCsv(exported);
+            assertEquals(Files.readAllLines(csv), Files.readAllLines(exported));
+        }
+    }
+
+    @Test
+    public void testPagesMatchBruteForce() throws Exception {
+        try (FindingsReader r = FindingsReader.open(bin)) {
+            assertPaged(r, FindingsQuery.builder().type(MatchType.SSN), d -> d.getType() == MatchType.SSN);
+            assertPaged(r, FindingsQuery.builder().file(Path.of("logs", "f17.log").toString()),
+                    d -> d.getFilePath().equals(Path.of("logs", "f17.log")));
+            assertPaged(r, FindingsQuery.builder().file(Path.of("logs", "f3.log").toString())
+                            .type(MatchType.EMAIL).fromLine(100).toLine(400),
+                    d -> d.getFilePath().equals(Path.of("logs", "f3.log")) && d.getType() == MatchType.EMAIL
+                            && d.getLine() >= 100 && d.getLine() <= 400);
+            assertPaged(r, FindingsQuery.builder().fromLine(500), d -> d.getLine() >= 500);
+
+            FindingsPage none = r.query(FindingsQuery.builder().file("nope.log").limit(10).build());
+            assertTrue(none.getFindings().isEmpty());
+            assertFalse(none.isHasMore());
+        }
+    }
+
+    @Test
+    public void testUnclosedFileIsRejected() throws Exception {
+        Path open = dir.resolve("open.bin");
+        FindingsWriter w = new FindingsWriter("o", null, null, open, 1, 1);
+        w.submit(FindingsWriterTest.batch("a.log", 5000));
+        Thread.sleep(100);
+        assertThrows(IOException.class, () -> FindingsReader.open(open).close());
+        w.close();
+        try (FindingsReader r = FindingsReader.open(open)) {
+            assertEquals(5000, r.totalRows());
+        }
+    }
+
+    private void assertPaged(FindingsReader r, FindingsQuery.FindingsQueryBuilder q,
+                             Predicate<DetectionResult> filter) throws IOException {
+        List<DetectionResult> expected = all.stream().filter(filter).toList();
+        assertFalse(expected.isEmpty());
+        List<DetectionResult> paged = new ArrayList<>();
+        FindingsPage page;
+        int limit = 37;
+        do {
+            page = r.query(q.offset(paged.size()).limit(limit).build());
+            assertTrue(page.getFindings().size() <= limit);
+            paged.addAll(page.getFindings());
+        } while (page.isHasMore());
+        assertEquals(expected, paged);
+    }
+}
@@ -0,0 +1,118 @@
+package com.vamsi.saripudi.piiscannerredactor.service;
+
+import com.vamsi.saripudi.piiscannerredactor.model.DetectionResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Findings rows/s for 1, 4 and 16 concurrent jobs: per-job FindingsWriter vs the previous
+ * scheme (one lock for all jobs, findings.csv reopened for every merged file).
+ * Each job merges 2000 files x 8 findings from 4 worker threads.
+ * Run with: mvn test -Dtest=FindingsWriterBenchmark -Dbench=true
+ */
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+public class FindingsWriterBenchmark {
+
+    private static final int FILES_PER_JOB = 2000;
+    private static final int FINDINGS_PER_FILE = 8;
+    private static final int WORKERS_PER_JOB = 4;
+
+    private static final ReentrantLock GLOBAL_LOCK = new ReentrantLock();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void compareWriters() throws Exception {
+        List<DetectionResult> batch = FindingsWriterTest.batch("bench.log", FINDINGS_PER_FILE);
+        for (int round = 0; round < 3; round++) {
+            for (int jobs : new int[]{1, 4, 16}) {
+                double legacy = run(jobs, "legacy-" + round, (csv, id) -> new LegacySink(csv), batch);
+                double perJob = run(jobs, "writer-" + round, (csv, id) -> {
+                    FindingsWriter w = new FindingsWriter(id, csv, null, 4096, 200);
+                    return new Sink() {
+                        public void submit(List<DetectionResult> b) throws IOException { w.submit(b); }
+                        public void close() throws IOException { w.close(); }
+                    };
+                }, batch);
+                System.out.printf("jobs=%2d global-lock+reopen=%,.0f rows/s per-job writer=%,.0f rows/s%n", jobs, legacy, perJob);
+            }
+        }
+    }
+
+    private double run(int jobs, String tag, SinkFactory factory, List<DetectionResult> batch) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(jobs * WORKERS_PER_JOB);
+        List<Sink> sinks = new ArrayList<>();
+        for (int j = 0; j < jobs; j++) sinks.add(factory.open(dir.resolve(tag + "-job" + j + ".csv"), tag + j));
+
+        long t0 = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (Sink sink : sinks) {
+            for (int w = 0; w < WORKERS_PER_JOB; w++) {
+                futures.add(pool.submit(() -> {
+                    for (int f = 0; f < FILES_PER_JOB / WORKERS_PER_JOB; f++) sink.submit(batch);
+                    return null;
+                }));
+            }
+        }
+        for (Future<?> f : futures) f.get();
+        for (Sink sink : sinks) sink.close();
+        long elapsed = System.nanoTime() - t0;
+        pool.shutdown();
+
+        long rows = (long) jobs * FILES_PER_JOB * FINDINGS_PER_FILE;
+        return rows / (elapsed / 1e9);
+    }
+
+    private interface Sink {
+        void submit(List<DetectionResult> batch) throws IOException;
+
+        void close() throws IOException;
+    }
+
+    private interface SinkFactory {
+        Sink open(Path csv, String id) throws IOException;
+    }
+
+    /** Previous ReportingService.appendFindings: global lock, exists check, open/append/close per file. */
+    private record LegacySink(Path csv) implements Sink {
+        public void submit(List<DetectionResult> batch) throws IOException {
+            GLOBAL_LOCK.lock();
+            try {
+                boolean writeHeader = !Files.exists(csv);
+                try (BufferedWriter w = Files.newBufferedWriter(csv, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    if (writeHeader) {
+                        w.write(FindingsWriter.CSV_HEADER);
+                        w.newLine();
+                    }
+                    for (DetectionResult r : batch) {
+                        w.write(FindingsWriter.escapeCsv(r.getFilePath().toString()) + "," + r.getLine() + ","
+                                + r.getStartCol() + "," + r.getEndCol() + "," + r.getType().name() + ","
+                                + FindingsWriter.escapeCsv(r.getValue()) + "," + r.getScore());
+                        w.newLine();
+                    }
+                }
+            } finally {
+                GLOBAL_LOCK.unlock();
+            }
+        }
+
+        public void close() {
+        }
+    }
+}
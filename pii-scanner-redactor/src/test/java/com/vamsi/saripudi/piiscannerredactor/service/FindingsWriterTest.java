@@ -0,0 +1,148 @@
+package com.vamsi.saripudi.piiscannerredactor.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vamsi.saripudi.piiscannerredactor.model.DetectionResult;
+import com.vamsi.saripudi.piiscannerredactor.model.MatchType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FindingsWriterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testConcurrentBatchesAllWritten() throws Exception {
+        Path csv = dir.resolve("findings.csv");
+        Path jsonl = dir.resolve("findings.jsonl");
+        FindingsWriter w = new FindingsWriter("t", csv, jsonl, 100, 50);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            futures.add(pool.submit(() -> {
+                for (int b = 0; b < 250; b++) w.submit(batch("f" + thread + "_" + b + ".log", 4));
+                return null;
+            }));
+        }
+        for (Future<?> f : futures) f.get();
+        pool.shutdown();
+        w.close();
+
+        List<String> rows = Files.readAllLines(csv);
+        assertEquals(FindingsWriter.CSV_HEADER, rows.get(0));
+        assertEquals(8 * 250 * 4 + 1, rows.size());
+        assertEquals(8 * 250 * 4, Files.readAllLines(jsonl).size());
+        assertEquals(8 * 250 * 4, w.getRowsWritten());
+        assertThrows(java.io.IOException.class, () -> w.submit(batch("late.log", 1)));
+    }
+
+    @Test
+    public void testTimedGroupFlush() throws Exception {
+        Path csv = dir.resolve("timed.csv");
+        try (FindingsWriter w = new FindingsWriter("timed", csv, null, 1_000_000, 20)) {
+            w.submit(batch("a.log", 3));
+            // far below flush-rows: only the time trigger can make the rows visible before close
+            long deadline = System.currentTimeMillis() + 5000;
+            while (Files.readAllLines(csv).size() < 4 && System.currentTimeMillis() < deadline) Thread.sleep(10);
+            assertEquals(4, Files.readAllLines(csv).size());
+        }
+    }
+
+    @Test
+    public void testAppendsWithoutSecondHeader() throws Exception {
+        Path csv = dir.resolve("append.csv");
+        try (FindingsWriter w = new FindingsWriter("a", csv, null, 10, 10)) {
+            w.submit(batch("a.log", 2));
+        }
+        try (FindingsWriter w = new FindingsWriter("b", csv, null, 10, 10)) {
+            w.submit(batch("b.log", 2));
+        }
+        List<String> rows = Files.readAllLines(csv);
+        assertEquals(5, rows.size());
+        assertEquals(1, rows.stream().filter(FindingsWriter.CSV_HEADER::equals).count());
+    }
+
+    @Test
+    public void testJsonlRowsParseBack() throws Exception {
+        Path jsonl = dir.resolve("rows.jsonl");
+        DetectionResult odd = DetectionResult.builder()
+                .filePath(Path.of("dir", "we\"ird,name.log"))
+                .line(7)
+                .startCol(3)
+                .endCol(9)
+                .type(MatchType.PASSWORD)
+                .value("p\"a\\ss\nw\u00e9rd")
+                .score(0.875)
+                .build();
+        try (FindingsWriter w = new FindingsWriter("j", null, jsonl, 10, 10)) {
+            w.submit(batch("a.log", 2));
+            w.submit(List.of(odd));
+        }
+
+        List<String> lines = Files.readAllLines(jsonl);
+        assertEquals(3, lines.size());
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode first = mapper.readTree(lines.get(0));
+        assertEquals("a.log", first.get("filePath").asText());
+        assertEquals(1, first.get("line").asInt());
+        assertEquals("SSN", first.get("type").asText());
+        assertEquals(4.0, first.get("score").asDouble());
+
+        JsonNode last = mapper.readTree(lines.get(2));
+        assertEquals(odd.getFilePath().toString(), last.get("filePath").asText());
+        assertEquals(odd.getValue(), last.get("value").asText());
+        assertEquals(7, last.get("line").asInt());
+        assertEquals(3, last.get("startCol").asInt());
+        assertEquals(9, last.get("endCol").asInt());
+        assertEquals("PASSWORD", last.get("type").asText());
+        assertEquals(0.875, last.get("score").asDouble());
+    }
+
+    @Test
+    public void testCsvRowsSameAsObjectRows() throws Exception {
+        Path csv = dir.resolve("rows.csv");
+        List<DetectionResult> rows = new ArrayList<>(batch("a.log", 2));
+        for (String v : new String[]{"plain", "with,comma", "q\"uote", "line\nbreak", "w\u00e9ird\u65e5", "", null}) {
+            rows.add(DetectionResult.builder().filePath(Path.of("dir", "we\"ird,name.log")).line(3).startCol(1)
+                    .endCol(4).type(v == null ? null : MatchType.EMAIL).value(v).score(0.5).build());
+        }
+        try (FindingsWriter w = new FindingsWriter("csv", csv, null, 10, 10)) {
+            w.submit(rows);
+        }
+
+        StringWriter expected = new StringWriter();
+        expected.write(FindingsWriter.CSV_HEADER + System.lineSeparator());
+        for (DetectionResult r : rows) FindingsWriter.writeCsvRow(expected, r);
+        assertEquals(expected.toString(), Files.readString(csv));
+    }
+
+    static List<DetectionResult> batch(String file, int n) {
+        List<DetectionResult> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            out.add(DetectionResult.builder()
+                    .filePath(Path.of(file))
+                    .line(i + 1)
+                    .startCol(0)
+                    .endCol(11)
+                    .type(MatchType.SSN)
+                    .value("123-45-6789")
+                    .score(4.0)
+                    .build());
+        }
+        return out;
+    }
+}
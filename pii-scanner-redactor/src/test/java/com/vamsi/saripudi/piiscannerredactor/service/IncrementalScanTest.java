@@ -0,0 +1,158 @@
+package com.vamsi.saripudi.piiscannerredactor.service;
+
+import com.vamsi.saripudi.piiscannerredactor.model.FileSummary;
+import com.vamsi.saripudi.piiscannerredactor.model.ProcessingStats;
+import com.vamsi.saripudi.piiscannerredactor.model.ScanJob;
+import com.vamsi.saripudi.piiscannerredactor.pipeline.RedactionPolicy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class IncrementalScanTest {
+
+    private static final int FILES = 20;
+
+    @Autowired
+    ScannerService scannerService;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testSecondRunScansOnlyChangedFiles() throws Exception {
+        Path in = writeFiles();
+        Path manifest = ScanManifest.locate(dir.resolve("manifests"), List.of(in));
+
+        ScanJob first = job("first", manifest);
+        scannerService.scan(first, List.of(in));
+        assertEquals(0, first.getProcessingStats().getSkippedFiles());
+        assertEquals(FILES, ScanManifest.load(manifest).size());
+        // CRC32C taken while scanning, not by a second read
+        ScanManifest recorded = ScanManifest.load(manifest);
+        for (int i = 0; i < FILES; i++) {
+            Path f = in.resolve("f" + i + ".log");
+            assertEquals(ScanManifest.crc32c(f), recorded.get(f).crc32c());
+        }
+
+        // f1 grows, f2 is only touched, f20 is new
+        Files.writeString(in.resolve("f1.log"), "ssn 123-45-6789\n", java.nio.file.StandardOpenOption.APPEND);
+        Files.setLastModifiedTime(in.resolve("f2.log"), FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        Files.writeString(in.resolve("f20.log"), "host 10.9.9.9\n");
+
+        ScanJob second = job("second", manifest);
+        scannerService.scan(second, List.of(in));
+        ProcessingStats stats = second.getProcessingStats();
+        assertEquals(FILES + 1, stats.getProcessedFiles());
+        assertEquals(FILES - 1, stats.getSkippedFiles());
+        assertEquals(2, stats.getScannedFiles());
+        assertEquals(Files.size(in.resolve("f1.log")) + Files.size(in.resolve("f20.log")), stats.getScannedBytes());
+
+        // same findings as a full scan
+        ScanJob full = job("full", null);
+        scannerService.scan(full, List.of(in));
+        assertEquals(sortedRows(full), sortedRows(second));
+        assertEquals(0, full.getProcessingStats().getSkippedFiles());
+
+        // reused redacted copies are the previous job's files
+        assertEquals(Files.readString(first.getRedactedRoot().resolve("in").resolve("f5.log")),
+                Files.readString(second.getRedactedRoot().resolve("in").resolve("f5.log")));
+        assertTrue(Files.exists(second.getRedactedRoot().resolve("in").resolve("f20.log")));
+
+        // the second job is now the baseline, even after the first one's store disappears
+        Files.delete(first.getFindingsBin());
+        ScanJob third = job("third", manifest);
+        scannerService.scan(third, List.of(in));
+        assertEquals(FILES + 1, third.getProcessingStats().getSkippedFiles());
+        assertEquals(sortedRows(full), sortedRows(third));
+    }
+
+    @Test
+    public void testMissingStoreFallsBackToScanning() throws Exception {
+        Path in = writeFiles();
+        Path manifest = ScanManifest.locate(dir.resolve("manifests"), List.of(in));
+        ScanJob first = job("a", manifest);
+        scannerService.scan(first, List.of(in));
+        Files.delete(first.getFindingsBin());
+
+        ScanJob second = job("b", manifest);
+        scannerService.scan(second, List.of(in));
+        assertEquals(0, second.getProcessingStats().getSkippedFiles());
+        assertEquals(sortedRows(first), sortedRows(second));
+    }
+
+    @Test
+    public void testOtherRedactionPolicyRescans() throws Exception {
+        Path in = writeFiles();
+        Path manifest = ScanManifest.locate(dir.resolve("manifests"), List.of(in));
+        ScanJob masked = job("masked", manifest);
+        masked.setRedactionPolicy(RedactionPolicy.parse("mask"));
+        scannerService.scan(masked, List.of(in));
+        assertTrue(Files.readString(masked.getRedactedRoot().resolve("in").resolve("f5.log")).contains("@example.com"));
+
+        ScanJob tagged = job("tagged", manifest);
+        tagged.setRedactionPolicy(RedactionPolicy.parse("tag"));
+        scannerService.scan(tagged, List.of(in));
+        assertEquals(0, tagged.getProcessingStats().getSkippedFiles());
+        assertEquals("host [REDACTED:IPV4] user=[REDACTED:EMAIL]\nplain line 5\n",
+                Files.readString(tagged.getRedactedRoot().resolve("in").resolve("f5.log")));
+
+        // same policy again: everything is reused
+        ScanJob again = job("again", manifest);
+        again.setRedactionPolicy(RedactionPolicy.parse("tag"));
+        scannerService.scan(again, List.of(in));
+        assertEquals(FILES, again.getProcessingStats().getSkippedFiles());
+        assertEquals(Files.readString(tagged.getRedactedRoot().resolve("in").resolve("f5.log")),
+                Files.readString(again.getRedactedRoot().resolve("in").resolve("f5.log")));
+    }
+
+    @Test
+    public void testFileGoneSinceTheWalkIsSkipped() throws Exception {
+        Path manifest = dir.resolve("manifests").resolve("gone.bin");
+        ScanJob job = job("gone", manifest);
+        try (IncrementalScan incremental = new IncrementalScan(job, false, "")) {
+            FileSummary gone = scannerService.processIncremental(job, dir.resolve("gone.log"), incremental);
+            assertTrue(gone.isBinary());
+            assertEquals(0, gone.getBytes());
+
+            // deleted between the scan and record
+            Path f = Files.writeString(dir.resolve("f.log"), "host 10.0.0.1\n");
+            BasicFileAttributes attrs = Files.readAttributes(f, BasicFileAttributes.class);
+            Files.delete(f);
+            incremental.record(f, attrs, FileSummary.text(f, List.of(), null));
+            incremental.save();
+        }
+        assertEquals(0, ScanManifest.load(manifest).size());
+    }
+
+    private Path writeFiles() throws Exception {
+        Path in = Files.createDirectories(dir.resolve("in"));
+        for (int i = 0; i < FILES; i++) {
+            Files.writeString(in.resolve("f" + i + ".log"),
+                    "host 10.0.0." + (i + 1) + " user=a" + i + "@example.com\nplain line " + i + "\n");
+        }
+        return in;
+    }
+
+    private static List<String> sortedRows(ScanJob job) throws Exception {
+        return Files.readAllLines(job.getFindingsCsv()).stream().sorted().toList();
+    }
+
+    private ScanJob job(String name, Path manifest) {
+        ScanJob job = ScanJob.builder().id(name).build();
+        job.setRedactedRoot(dir.resolve(name).resolve("redacted"));
+        job.setFindingsCsv(dir.resolve(name).resolve("findings.csv"));
+        job.setFindingsBin(dir.resolve(name).resolve("findings.bin"));
+        job.setManifest(manifest);
+        return job;
+    }
+}
@@ -0,0 +1,88 @@
+package com.vamsi.saripudi.piiscannerredactor.service;
+
+import com.vamsi.saripudi.piiscannerredactor.model.DetectionResult;
+import com.vamsi.saripudi.piiscannerredactor.pipeline.DetectionMode;
+import com.vamsi.saripudi.piiscannerredactor.pipeline.RedactionMode;
+import com.vamsi.saripudi.piiscannerredactor.pipeline.RedactionPolicy;
+import com.vamsi.saripudi.piiscannerredactor.pipeline.Redactor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Redacting the findings of data-corpus/big_corpus with each redaction mode for every type.
+ * Run with: mvn test -Dtest=RedactionModeBenchmark -Dbench=true
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+public class RedactionModeBenchmark {
+
+    private static final Path CORPUS = Path.of("..", "data-corpus", "big_corpus");
+
+    @Autowired
+    ScannerService scannerService;
+
+    @Autowired
+    Redactor redactor;
+
+    private record Line(String text, List<DetectionResult> hits) {}
+
+    @Test
+    public void tokensPerSecondByMode() throws IOException {
+        assumeTrue(Files.isDirectory(CORPUS), "corpus not found: " + CORPUS.toAbsolutePath());
+
+        List<Line> lines = new ArrayList<>();
+        long hits = 0;
+        ScannerService.ScanCounters counters = new ScannerService.ScanCounters();
+        try (Stream<Path> files = Files.list(CORPUS)) {
+            for (Path p : files.filter(Files::isRegularFile).sorted().toList()) {
+                int lineNo = 0;
+                for (String line : Files.readAllLines(p, StandardCharsets.UTF_8)) {
+                    lineNo++;
+                    if (line.isEmpty()) continue;
+                    List<DetectionResult> found = scannerService.detectLine(p, lineNo, line, DetectionMode.TOKEN, counters);
+                    if (found.isEmpty()) continue;
+                    lines.add(new Line(line, found));
+                    hits += found.size();
+                }
+            }
+        }
+        System.out.printf("lines with findings=%d findings=%d%n", lines.size(), hits);
+
+        for (RedactionMode mode : RedactionMode.values()) {
+            RedactionPolicy policy = RedactionPolicy.uniform(mode);
+            redact(policy, lines);                                       // warm-up
+            long best = Long.MAX_VALUE, chars = 0;
+            for (int i = 0; i < 3; i++) {
+                long t0 = System.nanoTime();
+                chars = redact(policy, lines);
+                best = Math.min(best, System.nanoTime() - t0);
+            }
+            System.out.printf("%-7s %,12.0f tokens/s  %,.1f M chars/s of lines  output=%,d chars%n", mode,
+                    hits / (best / 1e9), lineChars(lines) / (best / 1e3), chars);
+        }
+    }
+
+    private long redact(RedactionPolicy policy, List<Line> lines) {
+        long n = 0;
+        for (Line l : lines) n += redactor.redact(l.text(), l.hits(), policy, null).length();
+        return n;
+    }
+
+    private static long lineChars(List<Line> lines) {
+        long n = 0;
+        for (Line l : lines) n += l.text().length();
+        return n;
+    }
+}
@@ -0,0 +1,70 @@
+package com.vamsi.saripudi.piiscannerredactor.service;
+
+import com.vamsi.saripudi.piiscannerredactor.model.FileSummary;
+import com.vamsi.saripudi.piiscannerredactor.model.FindingsFormat;
+import com.vamsi.saripudi.piiscannerredactor.model.ScanJob;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReportingServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private final ReportingService reporting = new ReportingService();
+
+    @Test
+    public void testPerJobFindingsFormat() throws Exception {
+        for (FindingsFormat format : FindingsFormat.values()) {
+            ScanJob job = job(format.name().toLowerCase(), format);
+            reporting.merge(job, FileSummary.text(Path.of("a.log"), 10,
+                    FindingsWriterTest.batch("a.log", 3), null));
+            reporting.closeFindings(job);
+
+            assertEquals(format.writesCsv(), Files.exists(job.getFindingsCsv()), format + " csv");
+            assertEquals(format.writesJsonl(), Files.exists(job.getFindingsJsonl()), format + " jsonl");
+            if (format.writesJsonl()) assertEquals(3, Files.readAllLines(job.getFindingsJsonl()).size());
+        }
+    }
+
+    @Test
+    public void testCsvExportedFromBinaryStore() throws Exception {
+        ScanJob job = job("bin", FindingsFormat.CSV);
+        job.setFindingsBin(dir.resolve("bin").resolve("findings.bin"));
+        reporting.openFindings(job);
+        reporting.merge(job, FileSummary.text(Path.of("a.log"), 10, FindingsWriterTest.batch("a.log", 3), null));
+        reporting.merge(job, FileSummary.text(Path.of("b.log"), 10, FindingsWriterTest.batch("b.log", 2), null));
+        // the CSV only appears once the store is closed
+        assertFalse(Files.exists(job.getFindingsCsv()));
+        reporting.closeFindings(job);
+
+        assertEquals(6, Files.readAllLines(job.getFindingsCsv()).size());
+        assertFalse(Files.exists(job.getFindingsJsonl()));
+        try (FindingsReader reader = FindingsReader.open(job.getFindingsBin())) {
+            assertEquals(5, reader.totalRows());
+        }
+    }
+
+    @Test
+    public void testDefaultFormat() {
+        // no job choice and no scan.findings.format: both files
+        assertEquals(FindingsFormat.BOTH, reporting.formatOf(job("d", null)));
+        assertEquals(FindingsFormat.JSONL, reporting.formatOf(job("j", FindingsFormat.JSONL)));
+        assertEquals(FindingsFormat.CSV, FindingsFormat.parse(" Csv "));
+        assertNull(FindingsFormat.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> FindingsFormat.parse("xml"));
+    }
+
+    private ScanJob job(String name, FindingsFormat format) {
+        ScanJob job = ScanJob.builder().id(name).build();
+        job.setFindingsCsv(dir.resolve(name).resolve("findings.csv"));
+        job.setFindingsJsonl(dir.resolve(name).resolve("findings.jsonl"));
+        job.setFindingsFormat(format);
+        return job;
+    }
+}
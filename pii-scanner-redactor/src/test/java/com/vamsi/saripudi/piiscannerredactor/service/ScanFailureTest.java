@@ -0,0 +1,61 @@
+package com.vamsi.saripudi.piiscannerredactor.service;
+
+import com.vamsi.saripudi.piiscannerredactor.model.ScanJob;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest
+public class ScanFailureTest {
+
+    @Autowired
+    ScannerService scannerService;
+
+    @MockitoSpyBean
+    ReportingService reporting;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testCloseFailureDoesNotHideTheJobFailure() throws Exception {
+        Path in = Files.createDirectories(dir.resolve("in"));
+        Files.writeString(in.resolve("a.log"), "host 10.0.0.1\n");
+        doThrow(new IOException("merge failed")).when(reporting).merge(any(), any());
+        doThrow(new IOException("close failed")).when(reporting).closeFindings(any());
+
+        IOException e = assertThrows(IOException.class, () -> scannerService.scan(job("both"), List.of(in)));
+        assertEquals("merge failed", e.getMessage());
+        assertEquals(1, e.getSuppressed().length);
+        assertEquals("close failed", e.getSuppressed()[0].getMessage());
+    }
+
+    @Test
+    public void testCloseFailureAloneIsThrown() throws Exception {
+        Path in = Files.createDirectories(dir.resolve("in"));
+        Files.writeString(in.resolve("a.log"), "host 10.0.0.1\n");
+        doThrow(new IOException("close failed")).when(reporting).closeFindings(any());
+
+        IOException e = assertThrows(IOException.class, () -> scannerService.scan(job("close"), List.of(in)));
+        assertEquals("close failed", e.getMessage());
+    }
+
+    private ScanJob job(String name) {
+        ScanJob job = ScanJob.builder().id(name).build();
+        job.setRedactedRoot(dir.resolve(name).resolve("redacted"));
+        job.setFindingsCsv(dir.resolve(name).resolve("findings.csv"));
+        job.setFindingsBin(dir.resolve(name).resolve("findings.bin"));
+        return job;
+    }
+}
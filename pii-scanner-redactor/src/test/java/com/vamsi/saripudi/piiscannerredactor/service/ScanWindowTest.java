@@ -0,0 +1,90 @@
+package com.vamsi.saripudi.piiscannerredactor.service;
+
+import com.vamsi.saripudi.piiscannerredactor.model.ScanJob;
+import com.vamsi.saripudi.piiscannerredactor.util.FileWalker;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class ScanWindowTest {
+
+    private static final int FILES = 300;
+
+    @Autowired
+    ScannerService scannerService;
+
+    @Value("${thread.count}")
+    int threadCount;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testInFlightStaysWithinWindow() throws Exception {
+        Path in = writeFiles();
+        ScanJob job = job("window");
+
+        CompletableFuture<Void> run = CompletableFuture.runAsync(() -> {
+            try {
+                scannerService.scan(job, List.of(in));
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        int peak = 0;
+        while (!run.isDone()) {
+            peak = Math.max(peak, job.getProcessingStats().getInFlight());
+            Thread.onSpinWait();
+        }
+        run.get();
+
+        assertTrue(peak <= 2 * threadCount, "peak in-flight " + peak);
+        assertEquals(FILES, job.getFilesScanned().get());
+        assertEquals(0, job.getProcessingStats().getInFlight());
+        assertEquals(FILES * 2 + 1, Files.readAllLines(job.getFindingsCsv()).size());   // header + IPv4 + EMAIL per file
+    }
+
+    @Test
+    public void testOrderedMergeKeepsSubmissionOrder() throws Exception {
+        Path in = writeFiles();
+        ScanJob ordered = job("ordered");
+        ScanJob completion = job("completion");
+        scannerService.scan(ordered, List.of(in), true);
+        scannerService.scan(completion, List.of(in), false);
+
+        List<String> expectedFiles = FileWalker.listFiles(List.of(in)).stream().map(Path::toString).toList();
+        List<String> rows = Files.readAllLines(ordered.getFindingsCsv());
+        assertEquals(expectedFiles, rows.stream().skip(1).map(r -> r.split(",")[0]).distinct().toList());
+
+        // completion order: same rows, any file order
+        List<String> other = Files.readAllLines(completion.getFindingsCsv());
+        assertEquals(rows.stream().sorted().toList(), other.stream().sorted().toList());
+        assertEquals(FILES, completion.getFilesScanned().get());
+    }
+
+    private Path writeFiles() throws Exception {
+        Path in = Files.createDirectories(dir.resolve("in"));
+        for (int i = 0; i < FILES; i++) {
+            Files.writeString(in.resolve("f" + i + ".log"), "host 10.0.0." + (i % 250 + 1) + " user=a" + i + "@example.com\n");
+        }
+        return in;
+    }
+
+    private ScanJob job(String name) {
+        ScanJob job = ScanJob.builder().id(name).build();
+        job.setRedactedRoot(dir.resolve(name).resolve("redacted"));
+        job.setFindingsCsv(dir.resolve(name).resolve("findings.csv"));
+        job.setFindingsJsonl(dir.resolve(name).resolve("findings.jsonl"));
+        return job;
+    }
+}
@@ -0,0 +1,104 @@
+package com.vamsi.saripudi.piiscannerredactor.service;
+
+import com.vamsi.saripudi.piiscannerredactor.model.FindingsFormat;
+import com.vamsi.saripudi.piiscannerredactor.model.ScanJob;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class TailScanServiceTest {
+
+    @Autowired
+    TailScanService tailScanService;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testAppendedLinesAndRotation() throws Exception {
+        Path in = Files.createDirectories(dir.resolve("in"));
+        Path log = in.resolve("app.log");
+        Files.writeString(log, "host 10.0.0.1\n");
+
+        ScanJob job = ScanJob.builder().id("watch").build();
+        job.setRedactedRoot(dir.resolve("redacted"));
+        job.setFindingsCsv(dir.resolve("findings.csv"));
+        job.setFindingsFormat(FindingsFormat.CSV);
+        job.setWatch(true);
+        Thread watcher = new Thread(() -> {
+            try {
+                tailScanService.run(job, in);
+            } catch (Exception e) {
+                job.markFailed(e);
+            }
+        });
+        watcher.start();
+        try {
+            awaitRows(job, 1);
+
+            // appended PII shows up quickly; a partial last line waits for its newline
+            long t0 = System.nanoTime();
+            append(log, "ssn 123-45-6789\nplain\npartial 10.0.0");
+            awaitRows(job, 2);
+            long latencyMs = (System.nanoTime() - t0) / 1_000_000;
+            assertTrue(latencyMs < 2000, "appended finding took " + latencyMs + " ms");
+            append(log, ".2\n");
+            awaitRows(job, 3);
+
+            // rotate: the old file keeps its line numbers under its new name, the new file starts at 1
+            Path rotated = in.resolve("app.log.1");
+            Files.move(log, rotated);
+            append(rotated, "mail a@example.com\n");
+            Files.writeString(log, "host 10.1.1.1\n");
+            awaitRows(job, 5);
+        } finally {
+            job.requestCancel();
+            watcher.join(10_000);
+        }
+        assertNull(job.getError());
+
+        List<String> rows = csvRows(job);
+        assertEquals(5, rows.size(), rows.toString());
+        assertTrue(rows.get(0).startsWith(log + ",1,") && rows.get(0).contains("10.0.0.1"), rows.get(0));
+        assertTrue(rows.get(1).startsWith(log + ",2,") && rows.get(1).contains("SSN"), rows.get(1));
+        assertTrue(rows.get(2).startsWith(log + ",4,") && rows.get(2).contains("10.0.0.2"), rows.get(2));
+        assertTrue(rows.stream().anyMatch(r -> r.startsWith(in.resolve("app.log.1") + ",5,") && r.contains("a@example.com")));
+        assertTrue(rows.stream().anyMatch(r -> r.startsWith(log + ",1,") && r.contains("10.1.1.1")));
+
+        // mirrors follow the files: 5 redacted lines under the rotated name, 1 under the new file
+        Path mirrors = job.getRedactedRoot().resolve("in");
+        List<String> old = Files.readAllLines(mirrors.resolve("app.log.1"));
+        assertEquals(5, old.size(), old.toString());
+        assertEquals("plain", old.get(2));
+        assertFalse(String.join("\n", old).contains("123-45-6789"));
+        assertEquals(1, Files.readAllLines(mirrors.resolve("app.log")).size());
+        assertEquals(2, job.getProcessingStats().getProcessedFiles());
+    }
+
+    private static void append(Path file, String text) throws Exception {
+        Files.writeString(file, text, StandardOpenOption.APPEND);
+    }
+
+    private static List<String> csvRows(ScanJob job) throws Exception {
+        if (!Files.exists(job.getFindingsCsv())) return List.of();
+        List<String> lines = Files.readAllLines(job.getFindingsCsv());
+        return lines.isEmpty() ? lines : lines.subList(1, lines.size());
+    }
+
+    private static void awaitRows(ScanJob job, int rows) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (csvRows(job).size() < rows) {
+            if (System.currentTimeMillis() > deadline) fail("expected " + rows + " rows, got " + csvRows(job));
+            Thread.sleep(20);
+        }
+    }
+}
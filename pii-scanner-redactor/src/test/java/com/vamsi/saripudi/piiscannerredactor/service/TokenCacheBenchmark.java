@@ -0,0 +1,122 @@
+package com.vamsi.saripudi.piiscannerredactor.service;
+
+import com.vamsi.saripudi.piiscannerredactor.config.PiiCryptoProperties;
+import com.vamsi.saripudi.piiscannerredactor.encryption.CryptoService;
+import com.vamsi.saripudi.piiscannerredactor.encryption.TokenCache;
+import com.vamsi.saripudi.piiscannerredactor.model.DetectionResult;
+import com.vamsi.saripudi.piiscannerredactor.pipeline.DetectionMode;
+import com.vamsi.saripudi.piiscannerredactor.pipeline.Redactor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Redacting the findings of data-corpus/big_corpus with random IVs, deterministic IVs, and
+ * deterministic IVs behind the token cache (at a few cache sizes); then the same over a workload
+ * that repeats its values.
+ * Run with: mvn test -Dtest=TokenCacheBenchmark -Dbench=true
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+public class TokenCacheBenchmark {
+
+    private static final Path CORPUS = Path.of("..", "data-corpus", "big_corpus");
+
+    @Autowired
+    ScannerService scannerService;
+
+    @Autowired
+    CryptoService crypto;
+
+    private record Line(String text, List<DetectionResult> hits) {}
+
+    @Test
+    public void compareRedactionModes() throws IOException {
+        assumeTrue(Files.isDirectory(CORPUS), "corpus not found: " + CORPUS.toAbsolutePath());
+
+        List<Line> lines = new ArrayList<>();
+        long hits = 0;
+        ScannerService.ScanCounters counters = new ScannerService.ScanCounters();
+        try (Stream<Path> files = Files.list(CORPUS)) {
+            for (Path p : files.filter(Files::isRegularFile).sorted().toList()) {
+                int lineNo = 0;
+                for (String line : Files.readAllLines(p, StandardCharsets.UTF_8)) {
+                    lineNo++;
+                    if (line.isEmpty()) continue;
+                    List<DetectionResult> found = scannerService.detectLine(p, lineNo, line, DetectionMode.TOKEN, counters);
+                    if (found.isEmpty()) continue;
+                    lines.add(new Line(line, found));
+                    hits += found.size();
+                }
+            }
+        }
+        System.out.printf("lines with findings=%d findings=%d%n", lines.size(), hits);
+
+        run("random", redactor(false, 0, TokenCache.Eviction.LRU), lines, hits);
+        run("deterministic", redactor(true, 0, TokenCache.Eviction.LRU), lines, hits);
+        for (int size : new int[]{1024, 16384, 65536, 262144}) {
+            run("cached lru " + size, redactor(true, size, TokenCache.Eviction.LRU), lines, hits);
+            run("cached fifo " + size, redactor(true, size, TokenCache.Eviction.FIFO), lines, hits);
+        }
+
+        // the same 2,000 lines over and over: a log that keeps mentioning the same users and hosts
+        List<Line> repeating = new ArrayList<>();
+        long repeatingHits = 0;
+        for (int r = 0; r < 50; r++) {
+            for (Line l : lines.subList(0, Math.min(2000, lines.size()))) {
+                repeating.add(l);
+                repeatingHits += l.hits().size();
+            }
+        }
+        System.out.printf("repeating: lines=%d findings=%d%n", repeating.size(), repeatingHits);
+        run("random", redactor(false, 0, TokenCache.Eviction.LRU), repeating, repeatingHits);
+        run("deterministic", redactor(true, 0, TokenCache.Eviction.LRU), repeating, repeatingHits);
+        run("cached lru 65536", redactor(true, 65536, TokenCache.Eviction.LRU), repeating, repeatingHits);
+        run("cached fifo 65536", redactor(true, 65536, TokenCache.Eviction.FIFO), repeating, repeatingHits);
+    }
+
+    private Redactor redactor(boolean deterministic, int cacheSize, TokenCache.Eviction eviction) {
+        PiiCryptoProperties props = new PiiCryptoProperties();
+        props.getEnc().setDeterministic(deterministic);
+        props.getEnc().getCache().setMaxEntries(cacheSize);
+        props.getEnc().getCache().setEviction(eviction);
+        return new Redactor(crypto, props);
+    }
+
+    private static void run(String name, Redactor redactor, List<Line> lines, long hits) {
+        redact(redactor, lines, null);                                  // warm-up (and a warm cache, as in a long job)
+        long best = Long.MAX_VALUE;
+        TokenCache.Stats stats = null;
+        for (int i = 0; i < 3; i++) {
+            TokenCache.Stats s = new TokenCache.Stats();
+            long t0 = System.nanoTime();
+            redact(redactor, lines, s);
+            long t = System.nanoTime() - t0;
+            if (t < best) {
+                best = t;
+                stats = s;
+            }
+        }
+        long lookups = stats.hits() + stats.misses();
+        System.out.printf("%-20s %,.0f tokens/s hit=%.1f%% cached=%d%n", name, hits / (best / 1e9),
+                lookups == 0 ? 0.0 : 100.0 * stats.hits() / lookups,
+                redactor.tokenCache() == null ? 0 : redactor.tokenCache().size());
+    }
+
+    private static long redact(Redactor redactor, List<Line> lines, TokenCache.Stats stats) {
+        long n = 0;
+        for (Line l : lines) n += redactor.encryptLine(l.text(), l.hits(), null, stats).length();
+        return n;
+    }
+}
@@ -0,0 +1,117 @@
+package com.vamsi.saripudi.piiscannerredactor.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Scalar byte loops (as BinarySniffer and the line readers had them) vs ByteClassifier, over
+ * data-corpus/big_corpus: 4 KiB header sniffing per file, and line-end + ASCII scanning of
+ * the whole corpus as one buffer.
+ * Run with: mvn test -Dtest=ByteClassifierBenchmark -Dbench=true
+ */
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+public class ByteClassifierBenchmark {
+
+    private static final Path CORPUS = Path.of("..", "data-corpus", "big_corpus");
+    private static final Set<Byte> ALLOWED_CONTROLS = Set.of((byte) '\t', (byte) '\r', (byte) '\n');
+
+    @Test
+    public void compare() throws IOException {
+        assumeTrue(Files.isDirectory(CORPUS), "corpus not found: " + CORPUS.toAbsolutePath());
+        List<Path> files;
+        try (Stream<Path> s = Files.list(CORPUS)) {
+            files = s.filter(Files::isRegularFile).sorted().toList();
+        }
+        ByteArrayOutputStream all = new ByteArrayOutputStream();
+        for (Path p : files) all.write(Files.readAllBytes(p));
+        byte[] corpus = all.toByteArray();
+        BinarySniffer sniffer = new BinarySniffer();
+
+        for (int round = 0; round < 8; round++) {
+            // headers: one 4 KiB window per 4 KiB of corpus, 20 passes
+            long t0 = System.nanoTime();
+            int a = 0;
+            for (int pass = 0; pass < 20; pass++) {
+                for (int off = 0; off + 4096 <= corpus.length; off += 4096) a += scalarSniff(corpus, off, 4096) ? 1 : 0;
+            }
+            long t1 = System.nanoTime();
+            int b = 0;
+            byte[] header = new byte[4096];
+            for (int pass = 0; pass < 20; pass++) {
+                for (int off = 0; off + 4096 <= corpus.length; off += 4096) {
+                    System.arraycopy(corpus, off, header, 0, 4096);
+                    b += sniffer.isBinary(header, 4096) ? 1 : 0;
+                }
+            }
+            long t2 = System.nanoTime();
+
+            // lines: find every line end and check each line for ASCII
+            long c = scalarLines(corpus);
+            long t3 = System.nanoTime();
+            long d = swarLines(corpus);
+            long t4 = System.nanoTime();
+
+            System.out.printf("sniff %d/%d scalar=%.0f MB/s swar=%.0f MB/s | lines %d/%d scalar=%.0f MB/s swar=%.0f MB/s%n",
+                    a, b, mbps(20L * corpus.length, t1 - t0), mbps(20L * corpus.length, t2 - t1),
+                    c, d, mbps(corpus.length, t3 - t2), mbps(corpus.length, t4 - t3));
+        }
+    }
+
+    /** BinarySniffer before ByteClassifier: NUL loop, then a control loop against a boxed set. */
+    private static boolean scalarSniff(byte[] buf, int off, int len) {
+        for (int i = off; i < off + len; i++) {
+            if (buf[i] == 0x00) return true;
+        }
+        int controlCount = 0;
+        for (int i = off; i < off + len; i++) {
+            byte b = buf[i];
+            int ub = b & 0xFF;
+            if (ub < 0x20 || ub == 0x7F) {
+                if (!ALLOWED_CONTROLS.contains(b)) controlCount++;
+            }
+        }
+        return (double) controlCount / len >= 0.15;
+    }
+
+    /** Line readers before ByteClassifier: one byte at a time, tracking the high bit. */
+    private static long scalarLines(byte[] buf) {
+        long nonAscii = 0;
+        int i = 0;
+        while (i < buf.length) {
+            boolean ascii = true;
+            while (i < buf.length && buf[i] != '\n' && buf[i] != '\r') {
+                if (buf[i] < 0) ascii = false;
+                i++;
+            }
+            if (!ascii) nonAscii++;
+            i++;
+        }
+        return nonAscii;
+    }
+
+    private static long swarLines(byte[] buf) {
+        long nonAscii = 0;
+        int i = 0;
+        while (i < buf.length) {
+            int eol = ByteClassifier.indexOfLineEnd(buf, i, buf.length);
+            int end = eol < 0 ? buf.length : eol;
+            if (!ByteClassifier.isAscii(buf, i, end - i)) nonAscii++;
+            i = end + 1;
+        }
+        return nonAscii;
+    }
+
+    private static double mbps(long bytes, long nanos) {
+        return bytes / 1e6 / (nanos / 1e9);
+    }
+}
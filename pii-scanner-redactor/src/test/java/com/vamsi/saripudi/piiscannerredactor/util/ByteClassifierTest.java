@@ -0,0 +1,78 @@
+package com.vamsi.saripudi.piiscannerredactor.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ByteClassifierTest {
+
+    @Test
+    public void testMatchesScalarOnEveryRange() {
+        Random rnd = new Random(3);
+        // every byte value, plus text-like bytes so line ends land in all word positions
+        String textLike = " ab\n\r\t\0\u007f1@=.";
+        byte[] b = new byte[300];
+        for (int round = 0; round < 40; round++) {
+            for (int i = 0; i < b.length; i++) {
+                b[i] = round % 2 == 0 ? (byte) rnd.nextInt(256) : (byte) textLike.charAt(rnd.nextInt(textLike.length()));
+                if (round % 4 == 1 && rnd.nextInt(8) > 0) b[i] = (byte) ('a' + rnd.nextInt(26));
+            }
+            ByteBuffer little = ByteBuffer.wrap(b).order(ByteOrder.LITTLE_ENDIAN);
+            ByteBuffer big = ByteBuffer.wrap(b).order(ByteOrder.BIG_ENDIAN);
+            for (int from = 0; from < 20; from++) {
+                for (int to = from; to <= b.length; to += 1 + rnd.nextInt(9)) {
+                    long counts = ByteClassifier.controlCounts(b, from, to - from);
+                    assertEquals(nul(b, from, to), ByteClassifier.nulCount(counts));
+                    assertEquals(controls(b, from, to), ByteClassifier.controlCount(counts));
+                    assertEquals(ascii(b, from, to), ByteClassifier.isAscii(b, from, to - from));
+                    assertEquals(ascii(b, from, to), ByteClassifier.isAscii(little, from, to));
+                    assertEquals(lineEnd(b, from, to), ByteClassifier.indexOfLineEnd(b, from, to));
+                    assertEquals(lineEnd(b, from, to), ByteClassifier.indexOfLineEnd(little, from, to));
+                    assertEquals(lineEnd(b, from, to), ByteClassifier.indexOfLineEnd(big, from, to));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSnifferUnchanged() {
+        BinarySniffer sniffer = new BinarySniffer();
+        assertFalse(sniffer.isBinary("plain text\twith tabs\r\nand lines\n".getBytes()));
+        assertTrue(sniffer.isBinary("text with a \0 byte".getBytes()));
+        byte[] noisy = new byte[100];
+        for (int i = 0; i < noisy.length; i++) noisy[i] = (byte) (i % 7 == 0 ? 0x1B : 'x');   // 15 ESC bytes
+        assertTrue(sniffer.isBinary(noisy));
+        noisy[0] = 'x';                                                                      // 14%
+        assertFalse(sniffer.isBinary(noisy));
+        assertFalse(sniffer.isBinary(noisy, 0));
+    }
+
+    private static int nul(byte[] b, int from, int to) {
+        int n = 0;
+        for (int i = from; i < to; i++) if (b[i] == 0) n++;
+        return n;
+    }
+
+    private static int controls(byte[] b, int from, int to) {
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            int ub = b[i] & 0xFF;
+            if ((ub < 0x20 || ub == 0x7F) && ub != '\t' && ub != '\r' && ub != '\n') n++;
+        }
+        return n;
+    }
+
+    private static boolean ascii(byte[] b, int from, int to) {
+        for (int i = from; i < to; i++) if (b[i] < 0) return false;
+        return true;
+    }
+
+    private static int lineEnd(byte[] b, int from, int to) {
+        for (int i = from; i < to; i++) if (b[i] == '\n' || b[i] == '\r') return i;
+        return -1;
+    }
+}
@@ -0,0 +1,98 @@
+package com.vamsi.saripudi.piiscannerredactor.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChannelLineReaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testSameLinesAsBufferedReader() throws IOException {
+        List<String> contents = List.of(
+                "",
+                "\n",
+                "one line, no newline",
+                "a\nb\r\nc\rd\n",
+                "trailing cr\r",
+                "\r\n\r\n\n\r",
+                "ip=10.0.0.1\nnaïve café — résumé\r\n日本語 ssn=123-45-6789\nlast"
+        );
+        for (String content : contents) {
+            Path file = Files.writeString(dir.resolve("f.txt"), content, StandardCharsets.UTF_8);
+            List<String> expected = readAll(LineReader.of(Files.newBufferedReader(file, StandardCharsets.UTF_8)));
+            // whole file already read, and tiny first buffers that force refills / growth mid-line and mid-\r\n
+            assertEquals(expected, read(file, (int) Files.size(file) + 1), content);
+            for (int first = 1; first <= 8; first++) {
+                assertEquals(expected, read(file, first), content + " buffer " + first);
+            }
+        }
+    }
+
+    @Test
+    public void testMalformedUtf8IsReported() throws IOException {
+        Path file = Files.write(dir.resolve("bad.txt"), new byte[]{'o', 'k', '\n', (byte) 0xC3, '\n'});
+        byte[] first = new byte[2];
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ);
+             ChannelLineReader r = new ChannelLineReader(ch, first, readInto(ch, first), false)) {
+            assertEquals("ok", r.readLine());
+            assertThrows(MalformedInputException.class, r::readLine);
+        }
+    }
+
+    @Test
+    public void testChecksumOfAllBytesRead() throws IOException {
+        Path file = Files.writeString(dir.resolve("c.txt"), "host 10.0.0.1\r\n".repeat(300), StandardCharsets.UTF_8);
+        CRC32C expected = new CRC32C();
+        expected.update(Files.readAllBytes(file));
+        for (int first : new int[]{1, 7, 64, 4096, 8192}) {
+            CRC32C crc = new CRC32C();
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+                byte[] buf = new byte[first];
+                int n = readInto(ch, buf);
+                readAll(new ChannelLineReader(ch, buf, n, n < buf.length, crc));
+            }
+            assertEquals(expected.getValue(), crc.getValue(), "first read " + first);
+        }
+    }
+
+    /** Reader handed the first {@code first} bytes the way the scanner does. */
+    private static List<String> read(Path file, int first) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            byte[] buf = new byte[first];
+            int n = readInto(ch, buf);
+            return readAll(new ChannelLineReader(ch, buf, n, n < buf.length));
+        }
+    }
+
+    private static int readInto(FileChannel ch, byte[] buf) throws IOException {
+        ByteBuffer bb = ByteBuffer.wrap(buf);
+        while (bb.hasRemaining() && ch.read(bb, bb.position()) >= 0) {
+        }
+        return bb.position();
+    }
+
+    private static List<String> readAll(LineReader reader) throws IOException {
+        List<String> out = new ArrayList<>();
+        try (reader) {
+            String line;
+            while ((line = reader.readLine()) != null) out.add(line);
+        }
+        return out;
+    }
+}
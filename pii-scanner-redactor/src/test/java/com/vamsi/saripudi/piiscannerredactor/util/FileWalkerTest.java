@@ -1,16 +1,24 @@
 package com.vamsi.saripudi.piiscannerredactor.util;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class FileWalkerTest {
 
+    @TempDir
+    Path dir;
+
     @Test
     public void testListFiles() {
         try{
@@ -36,4 +44,69 @@ public class FileWalkerTest {
             fail(e.getMessage());
         }
     }
+
+    @Test
+    public void testWalkMatchesListFiles() throws Exception {
+        Path in = tree();
+        List<Path> listed = FileWalker.listFiles(List.of(in));
+        assertEquals(4 * 5 * 3 + 1, listed.size());
+        assertTrue(listed.stream().noneMatch(p -> p.getFileName().toString().startsWith(".")));
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // sequential: same files in the same order
+            assertEquals(listed, drain(FileWalker.walk(List.of(in), WalkFilter.DEFAULT, pool, false, 8, n -> { })));
+
+            // parallel: same files, running count reaches the total, a tiny queue only slows it down
+            AtomicInteger running = new AtomicInteger();
+            FileWalker.Walk walk = FileWalker.walk(List.of(in), WalkFilter.DEFAULT, pool, true, 2,
+                    n -> running.accumulateAndGet(n, Math::max));
+            List<Path> parallel = drain(walk);
+            assertEquals(listed.stream().sorted().toList(), parallel.stream().sorted().toList());
+            assertEquals(listed.size(), walk.found());
+            assertEquals(listed.size(), running.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testIncludeExclude() throws Exception {
+        Path in = tree();
+        WalkFilter filter = new WalkFilter(true, List.of("*.log"), List.of("d1", "d2/**/f0.log"));
+        List<Path> listed = FileWalker.listFiles(List.of(in), filter);
+        assertEquals(3 * 5 * 2 - 5, listed.size());
+        assertTrue(listed.stream().allMatch(p -> p.toString().endsWith(".log") && !p.startsWith(in.resolve("d1"))));
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            List<Path> walked = drain(FileWalker.walk(List.of(in), filter, pool, true, 16, n -> { }));
+            assertEquals(listed.stream().sorted().toList(), walked.stream().sorted().toList());
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(4 * 5 * 3 + 1 + 4 * 5, FileWalker.listFiles(List.of(in), new WalkFilter(false, List.of(), List.of())).size());
+    }
+
+    /** in/top.txt plus d0..d3/s0..s4/{f0.log, f1.log, notes.txt, .hidden} */
+    private Path tree() throws IOException {
+        Path in = Files.createDirectories(dir.resolve("in"));
+        Files.writeString(in.resolve("top.txt"), "x");
+        for (int d = 0; d < 4; d++) {
+            for (int s = 0; s < 5; s++) {
+                Path sub = Files.createDirectories(in.resolve("d" + d).resolve("s" + s));
+                Files.writeString(sub.resolve("f0.log"), "a");
+                Files.writeString(sub.resolve("f1.log"), "b");
+                Files.writeString(sub.resolve("notes.txt"), "c");
+                Files.writeString(sub.resolve(".hidden"), "d");
+            }
+        }
+        return in;
+    }
+
+    private static List<Path> drain(FileWalker.Walk walk) throws Exception {
+        List<Path> out = new ArrayList<>();
+        for (Path p = walk.next(); p != null; p = walk.next()) out.add(p);
+        return out;
+    }
 }
@@ -0,0 +1,76 @@
+package com.vamsi.saripudi.piiscannerredactor.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * BufferedReader vs MappedLineReader, lines only (no detection), over data-corpus/big_corpus:
+ * once file by file, once as a single concatenated file (the case the mapped path is for).
+ * Run with: mvn test -Dtest=MappedLineReaderBenchmark -Dbench=true
+ */
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+public class MappedLineReaderBenchmark {
+
+    private static final Path CORPUS = Path.of("..", "data-corpus", "big_corpus");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void compareReaders() throws IOException {
+        assumeTrue(Files.isDirectory(CORPUS), "corpus not found: " + CORPUS.toAbsolutePath());
+        List<Path> files;
+        try (Stream<Path> s = Files.list(CORPUS)) {
+            files = s.filter(Files::isRegularFile).sorted().toList();
+        }
+        Path big = dir.resolve("big_corpus.log");
+        for (Path p : files) Files.write(big, Files.readAllBytes(p), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+        run("per-file", files);
+        run("single ", List.of(big));
+    }
+
+    private static void run(String label, List<Path> files) throws IOException {
+        long bytes = 0;
+        for (Path p : files) bytes += Files.size(p);
+
+        for (int round = 0; round < 5; round++) {
+            long t0 = System.nanoTime();
+            long a = 0;
+            for (Path p : files) a += count(LineReader.of(Files.newBufferedReader(p, StandardCharsets.UTF_8)));
+            long t1 = System.nanoTime();
+            long b = 0;
+            for (Path p : files) b += count(MappedLineReader.open(p));
+            long t2 = System.nanoTime();
+            System.out.printf("%s files=%d lines=%d/%d BufferedReader=%.0f MB/s MappedLineReader=%.0f MB/s%n",
+                    label, files.size(), a, b, mbps(bytes, t1 - t0), mbps(bytes, t2 - t1));
+        }
+    }
+
+    private static long count(LineReader r) throws IOException {
+        long n = 0, chars = 0;
+        try (r) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                n++;
+                chars += line.length();
+            }
+        }
+        return chars >= 0 ? n : -1;
+    }
+
+    private static double mbps(long bytes, long nanos) {
+        return bytes / (1024.0 * 1024.0) / (nanos / 1e9);
+    }
+}
@@ -0,0 +1,87 @@
+package com.vamsi.saripudi.piiscannerredactor.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedLineReaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testSameLinesAsBufferedReader() throws IOException {
+        List<String> contents = List.of(
+                "",
+                "\n",
+                "one line, no newline",
+                "a\nb\r\nc\rd\n",
+                "trailing cr\r",
+                "\r\n\r\n\n\r",
+                "ip=10.0.0.1\nnaïve café — résumé\r\n日本語 ssn=123-45-6789\nlast"
+        );
+        for (String content : contents) {
+            Path file = Files.writeString(dir.resolve("f.txt"), content, StandardCharsets.UTF_8);
+            List<String> expected = readAll(LineReader.of(Files.newBufferedReader(file, StandardCharsets.UTF_8)));
+            assertEquals(expected, readAll(MappedLineReader.open(file)), content);
+            // tiny windows force lines (and \r\n pairs) across window ends
+            for (int window = 1; window <= 8; window++) {
+                try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+                    assertEquals(expected, readAll(new MappedLineReader(ch, 0, ch.size(), window)), content + " window " + window);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testChecksumOfAllBytesRead() throws IOException {
+        for (String content : List.of("", "a\nb\r\nc\rd\n", "trailing cr\r", "no newline", "x\n".repeat(100))) {
+            Path file = Files.writeString(dir.resolve("c.txt"), content, StandardCharsets.UTF_8);
+            CRC32C expected = new CRC32C();
+            expected.update(Files.readAllBytes(file));
+            for (int window = 1; window <= 8; window++) {
+                CRC32C crc = new CRC32C();
+                try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+                    readAll(new MappedLineReader(ch, 0, ch.size(), window, false, crc));
+                }
+                assertEquals(expected.getValue(), crc.getValue(), content + " window " + window);
+            }
+        }
+    }
+
+    @Test
+    public void testByteRange() throws IOException {
+        Path file = Files.writeString(dir.resolve("r.txt"), "skip\nfirst\nsecond\nafter\n", StandardCharsets.UTF_8);
+        assertEquals(List.of("first", "second"), readAll(MappedLineReader.open(file, 5, 18)));
+    }
+
+    @Test
+    public void testMalformedUtf8IsReported() throws IOException {
+        Path file = Files.write(dir.resolve("bad.txt"), new byte[]{'o', 'k', '\n', (byte) 0xC3, '\n'});
+        try (MappedLineReader r = MappedLineReader.open(file)) {
+            assertEquals("ok", r.readLine());
+            assertThrows(MalformedInputException.class, r::readLine);
+        }
+    }
+
+    private static List<String> readAll(LineReader reader) throws IOException {
+        List<String> out = new ArrayList<>();
+        try (reader) {
+            String line;
+            while ((line = reader.readLine()) != null) out.add(line);
+        }
+        return out;
+    }
+}